@@ -11,6 +11,7 @@ public class Unit {
     // --- Combat stats ---
     public enum LifeState { ALIVE, WOUNDED, DEAD }
     private LifeState life = LifeState.ALIVE;
+    private static final LifeState[] LIVES = LifeState.values();
 
     private int maxWounds = 2;
     private int wounds    = 2;
@@ -29,7 +30,7 @@ public class Unit {
     // Ranged attack cooldown (absolute time in seconds)
     private double nextRangedAttackAt = 0.0;
 
-    public int length = 1;         // 1 = normal; 2 = horse or mounted
+    private int length = 1;        // 1 = normal; 2 = horse or mounted
     public Unit rider = null;      // when this unit is a horse carrying a rider
     public boolean mounted = false; // true when the horse is carrying a rider
     // --- Health / wounds ---
@@ -47,6 +48,12 @@ public class Unit {
     public boolean isCarryingHide(){ return carryingHide; }
     // --- NEW: team ---
     private Team team = Team.NEUTRAL;
+    private static final Team[] TEAMS = Team.values();
+
+    // While in a world the hot fields (x, y, orientRad, facing, team, life, length, id) live in
+    // its UnitStore at 'storeSlot'; the fields here only hold them while detached.
+    private world.UnitStore store = null;
+    private int storeSlot = -1;
 
     // NEW: path as queue of grid waypoints (row,col)
     private final Deque<Point> path = new ArrayDeque<>();
@@ -79,8 +86,8 @@ public class Unit {
     private int treeTop = -1, treeLeft = -1;
     // where to stand to chop (adjacent tile)
     private int standRow = -1, standCol = -1;
-    // chopping timer
-    private double chopTimer = 0.0;
+    // chopping timer: a TimerWheel timer in the home world; World.__engine_jobTimerDone runs on expiry
+    private world.TimerWheel.Timer jobTimer;
 
     public Unit(Actor actor, int row, int col) {
         this.actor = actor;
@@ -123,7 +130,7 @@ public class Unit {
             targetCol = last.x;
         }
     }
-    private long lastMoveNanos = System.nanoTime(); // updated whenever movement stops
+    private long lastMoveNanos = 0L; // world.nowNanos() whenever movement stops
     private int id; // set by World.spawnActor
     private int meatCount = 0, hideCount = 0;
     public int getMeatCount() { return meatCount; }
@@ -153,9 +160,12 @@ public class Unit {
     public void setMaxWounds(int mw){ maxWounds = Math.max(1, mw); wounds = Math.min(wounds, maxWounds); }
     public int  getWounds(){ return wounds; }
 
-    public LifeState getLife(){ return life; }
-    public boolean isDead(){ return life == LifeState.DEAD; }
-    public boolean isWounded(){ return life == LifeState.WOUNDED; }
+    public LifeState getLife(){ return store != null ? LIVES[store.life(storeSlot)] : life; }
+    public boolean isDead(){ return getLife() == LifeState.DEAD; }
+    public boolean isWounded(){ return getLife() == LifeState.WOUNDED; }
+    private void setLife(LifeState l) {
+        if (store != null) store.setLife(storeSlot, l.ordinal()); else life = l;
+    }
     public double  getDeathTimeSec(){ return timeOfDeathSec; }
 
     /** Apply one wound. Moves -> WOUNDED (slow) or DEAD (stops, leaves corpse). */
@@ -166,14 +176,14 @@ public class Unit {
         // Decrement first; branch predictability improves vs double checks
         if (--wounds > 0) {
             // Non-lethal: very cheap
-            if (life != LifeState.WOUNDED) life = LifeState.WOUNDED;
+            if (getLife() != LifeState.WOUNDED) setLife(LifeState.WOUNDED);
             // Avoid oscillating this if you already cap speed elsewhere; otherwise keep it:
             movementScale = 0.5;
             return;
         }
 
         // ---- Lethal hit: do the absolute minimum here ----
-        life = LifeState.DEAD;
+        setLife(LifeState.DEAD);
 
         // Stop motion cheaply
         moving = false;
@@ -201,7 +211,7 @@ public class Unit {
         // selected = false;
 
         // If you have a post-tick cleanup queue, enqueue and return (best perf).
-        // world.queueUnitDeath(this); // <-- uncomment if you implement the small helper below.
+        world.notifyUnitDied(this); // stops counting as a blocker right away
     }
     public long getDeathNanos(){ return deathNanos; }
 
@@ -221,24 +231,80 @@ public class Unit {
     public void clearAimTarget()                  { aimOverride = false; }
     public boolean hasAimTarget()                 { return aimOverride; }
     public void setRider(Unit r) { rider = r; }
-    public int getId() { return id; }
-    public void __engine_setId(int id) { this.id = id; } // only World should call
+    public int getId() { return store != null ? store.id(storeSlot) : id; }
+    public void __engine_setId(int id) { // only World should call
+        this.id = id;
+        if (store != null) store.setId(storeSlot, id);
+    }
     // in characters.Unit
     // only the world/engine should set this:
-    public void __engine_setLength(int len) { this.length = Math.max(1, len); }
+    public void __engine_setLength(int len) {
+        int l = Math.max(1, len);
+        if (l == getLength()) return;
+        if (store != null) store.setLength(storeSlot, l); else length = l;
+        if (homeWorld != null) homeWorld.notifyUnitMoved(this); // footprint changed
+    }
+    // World's spatial hash bookkeeping (bucket + slot inside it, -1 = not indexed)
+    private int gridBucket = -1, gridSlot = -1;
+    public int __engine_getGridBucket() { return gridBucket; }
+    public int __engine_getGridSlot() { return gridSlot; }
+    public void __engine_setGridSlot(int bucket, int slot) { gridBucket = bucket; gridSlot = slot; }
+    // World that currently holds this unit (null when detached); told about team changes
+    private world.World homeWorld = null;
+    public int __engine_getStoreSlot() { return storeSlot; }
+    public void __engine_setStoreSlot(int slot) { storeSlot = slot; }
+    /** Move the hot fields into s at 'slot' (s != null) or back out of the current store (s == null). */
+    public void __engine_setStore(world.UnitStore s, int slot) {
+        if (store != null) {
+            int k = storeSlot;
+            x = store.x(k); y = store.y(k); orientRad = store.orient(k);
+            facing = FACINGS[store.facing(k)]; team = TEAMS[store.team(k)]; life = LIVES[store.life(k)];
+            length = store.length(k); id = store.id(k);
+        }
+        store = s;
+        storeSlot = slot;
+        if (s != null) {
+            s.setX(slot, x); s.setY(slot, y); s.setOrient(slot, orientRad);
+            s.setFacing(slot, facing.ordinal()); s.setTeam(slot, team.ordinal()); s.setLife(slot, life.ordinal());
+            s.setLength(slot, length); s.setId(slot, id);
+        }
+    }
+    public void __engine_setWorld(world.World w) {
+        if (aiTimer != null) aiTimer.cancel();
+        if (jobTimer != null) jobTimer.cancel();
+        aiQueued = false;
+        homeWorld = w;
+        if (w != null) wakeAI();   // first think on the next AI phase
+    }
+    // control-point occupancy bookkeeping: tile (row*width+col) this unit is counted on, -1 = none
+    private int occTile = -1;
+    public int __engine_getOccTile() { return occTile; }
+    public void __engine_setOccTile(int tile) { occTile = tile; }
+    // unit occupancy mask bookkeeping: stamped head/tail tiles (-1 = none), still counted as a live blocker?
+    private int maskHead = -1, maskTail = -1;
+    private boolean maskLive = false;
+    public int __engine_getMaskHead() { return maskHead; }
+    public int __engine_getMaskTail() { return maskTail; }
+    public boolean __engine_isMaskLive() { return maskLive; }
+    public void __engine_setMask(int head, int tail, boolean live) { maskHead = head; maskTail = tail; maskLive = live; }
     public long getLastMoveNanos() { return lastMoveNanos; }
     public double getNextRangedAttackAt() { return nextRangedAttackAt; }
     public void setNextRangedAttackAt(double t) { nextRangedAttackAt = t; }
     // in characters.Unit
     // in characters.Unit
     public enum Facing { N, NE, E, SE, S, SW, W, NW }
+    private static final Facing[] FACINGS = Facing.values();
 
     private Facing facing = Facing.S;  // default
 
-    public Facing getFacing() { return facing; }
-    public void setFacing(Facing f) { facing = f; }
+    public Facing getFacing() { return store != null ? FACINGS[store.facing(storeSlot)] : facing; }
+    public void setFacing(Facing f) {
+        if (f == getFacing()) return;
+        if (store != null) store.setFacing(storeSlot, f.ordinal()); else facing = f;
+        if (homeWorld != null && getLength() > 1) homeWorld.notifyUnitMoved(this); // tail moved
+    }
 
-    public int getLength() { return length; }
+    public int getLength() { return store != null ? store.length(storeSlot) : length; }
     public boolean isMounted() { return mounted; }
     public Unit getRider() { return rider; }
 
@@ -251,21 +317,26 @@ public class Unit {
     public boolean isSelected() { return selected; }
     public void setSelected(boolean sel) { this.selected = sel; }
 
-    public double getX() { return x; } // col
-    public double getY() { return y; } // row
+    public double getX() { return store != null ? store.x(storeSlot) : x; } // col
+    public double getY() { return store != null ? store.y(storeSlot) : y; } // row
 
-    public int getRowRounded() { return (int) Math.round(y); }
-    public int getColRounded() { return (int) Math.round(x); }
+    public int getRowRounded() { return (int) Math.round(getY()); }
+    public int getColRounded() { return (int) Math.round(getX()); }
 
     // --- NEW: team accessors ---
-    public Team getTeam() { return team; }
-    public void setTeam(Team team) { this.team = (team == null ? Team.NEUTRAL : team); }
+    public Team getTeam() { return store != null ? TEAMS[store.team(storeSlot)] : team; }
+    public void setTeam(Team team) {
+        Team old = getTeam();
+        Team t = (team == null ? Team.NEUTRAL : team);
+        if (store != null) store.setTeam(storeSlot, t.ordinal()); else this.team = t;
+        if (homeWorld != null && old != t) homeWorld.notifyUnitTeamChanged(this, old);
+    }
     // --- orientation for smooth facing (radians, 0 = +X (east), increasing CCW) ---
     private double orientRad = 0.0;          // continuous orientation for smooth render
     private double turnRateRad = Math.PI;    // max turn rate (radians/sec), tweak (PI ≈ 180°/s)
 
-    public double getOrientRad() { return orientRad; }
-    public void setOrientRad(double a) { orientRad = a; }
+    public double getOrientRad() { return store != null ? store.orient(storeSlot) : orientRad; }
+    public void setOrientRad(double a) { if (store != null) store.setOrient(storeSlot, a); else orientRad = a; }
     public void setTurnRateRad(double r) { turnRateRad = Math.max(0.1, r); }
     // how fast a unit can rotate (already added in your build)
 
@@ -301,19 +372,40 @@ public class Unit {
     public void setStandTile(int r, int c) { standRow = r; standCol = c; }
     public int getStandRow() { return standRow; }
     public int getStandCol() { return standCol; }
-    public void setChopTimer(double t) { chopTimer = t; }
-    public double getChopTimer() { return chopTimer; }
+    /** Start (t > 0) or cancel (t <= 0) the chop/mine timer; the world is called back when it expires. */
+    public void setChopTimer(double t) {
+        if (jobTimer != null) jobTimer.cancel();
+        if (t <= 0 || homeWorld == null) return;
+        if (jobTimer == null) jobTimer = new world.TimerWheel.Timer((tm, tick) -> {
+            if (homeWorld != null) homeWorld.__engine_jobTimerDone(this);
+        });
+        world.SimulationClock clock = homeWorld.getClock();
+        jobTimer.scheduleIn(homeWorld.getTimers(), (long) Math.ceil(t / clock.stepSeconds()));
+    }
+    /** Seconds left on the chop/mine timer (0 when none is running). */
+    public double getChopTimer() {
+        if (jobTimer == null || !jobTimer.isScheduled() || homeWorld == null) return 0.0;
+        long left = jobTimer.getDeadline() - homeWorld.getTimers().now();
+        return Math.max(0, left) * homeWorld.getClock().stepSeconds();
+    }
 
     // --- NEW: quick helper for combat/ownership logic ---
     public boolean isEnemyOf(Unit other) {
         if (other == null) return false;
-        if (this.team == Team.NEUTRAL || other.team == Team.NEUTRAL) return false;
-        return this.team != other.team;
+        Team mine = getTeam(), theirs = other.getTeam();
+        if (mine == Team.NEUTRAL || theirs == Team.NEUTRAL) return false;
+        return mine != theirs;
     }
 
     /** Advance along the path by speed * dt (cells/sec), but always turn toward aim target if set. */
 // --- NEW: world-aware update ---
     public void update(world.World world, double dt) {
+        // work on local copies of the pose; putPose() writes them back before the world looks
+        double x = getX(), y = getY(), orientRad = getOrientRad();
+        Facing facing = getFacing();
+        final int length = getLength();
+        final double x0 = x, y0 = y; // to report tile / bucket crossings to the world's indexes
+        final Facing f0 = facing;
         // ---------- peek movement waypoint ----------
         boolean havePath = moving && !path.isEmpty();
         Point waypoint = null;
@@ -356,6 +448,8 @@ public class Unit {
                 case 6 -> facing = Facing.N;
                 case 7 -> facing = Facing.NE;
             }
+            putPose(x, y, orientRad, facing);
+            if (world != null && facing != f0 && length > 1) world.notifyUnitMoved(this);
             return;
         }
 
@@ -377,7 +471,7 @@ public class Unit {
             if (world == null || (!world.isBlockedContinuous(nx, ny, this) && world.tryReserveAnchor(ny, nx, this))) {
                 x = nx; y = ny;
                 path.removeFirst();
-                if (path.isEmpty()) { moving = false; lastMoveNanos = System.nanoTime(); }
+                if (path.isEmpty()) { moving = false; if (world != null) lastMoveNanos = world.nowNanos(); }
             } else {
                 // couldn’t snap due to block/reservation; fall through to do a normal step below
             }
@@ -416,7 +510,7 @@ public class Unit {
                 double rem = Math.hypot(wx - x, wy - y);
                 if (rem <= ARRIVE_EPS) {
                     path.removeFirst();
-                    if (path.isEmpty()) { moving = false; lastMoveNanos = System.nanoTime(); }
+                    if (path.isEmpty()) { moving = false; lastMoveNanos = world.nowNanos(); }
                 }
             }
         }
@@ -434,17 +528,87 @@ public class Unit {
             case 6 -> facing = Facing.N;
             case 7 -> facing = Facing.NE;
         }
+
+        putPose(x, y, orientRad, facing);
+        if (world != null && (x != x0 || y != y0 || (facing != f0 && length > 1))) world.notifyUnitMoved(this);
+    }
+
+    private void putPose(double x, double y, double orientRad, Facing facing) {
+        if (store != null) {
+            store.setX(storeSlot, x); store.setY(storeSlot, y);
+            store.setOrient(storeSlot, orientRad); store.setFacing(storeSlot, facing.ordinal());
+        } else {
+            this.x = x; this.y = y; this.orientRad = orientRad; this.facing = facing;
+        }
     }
     // in characters.Unit
-    public interface UnitAI { void update(world.World world, characters.Unit u, double dtSeconds); }
+    public interface UnitAI {
+        // think rates, in sim ticks between updates (60 Hz): combat / walking an errand (only the
+        // arrival to notice) / looking around / nothing going on
+        int THINK_FAST = 1, THINK_ERRAND = 3, THINK_IDLE = 6, THINK_DORMANT = 12;
+
+        void update(world.World world, characters.Unit u, double dtSeconds);
+
+        /**
+         * Ticks until this AI wants to think again, asked right after each update (so it can go by
+         * the state it just settled in). update() then gets all the sim time that passed meanwhile.
+         */
+        default int thinkEvery(world.World world, characters.Unit u) { return THINK_FAST; }
+    }
     private static int clamp01(int v){ return Math.max(0, Math.min(10, v)); }
     private static double clampCooldown(double s){ return Math.max(0.1, s); }
     private UnitAI ai;
-    public void setAI(UnitAI ai) { this.ai = ai; }
+    public void setAI(UnitAI ai) {
+        this.ai = ai;
+        aiLastThinkTick = -1;
+        if (ai == null) { if (aiTimer != null) aiTimer.cancel(); }
+        else wakeAI();
+    }
     public UnitAI getAI() { return ai; }
 
-    // call from your game loop (World.update or Panel timer):
-    public void tickAI(world.World world, double dtSeconds) {
-        if (ai != null) ai.update(world, this, dtSeconds);
+    // AI level of detail: units think when their timer on the world's TimerWheel fires, not every tick
+    private world.TimerWheel.Timer aiTimer;     // created on first use
+    private boolean aiQueued = false;           // already in the world's due list for the next AI phase
+    private long aiLastThinkTick = -1, aiNextTick = 0;
+
+    /**
+     * Think in the coming AI phase regardless of the current rate (e.g. something relevant came
+     * into view). Serial phases only.
+     */
+    public void wakeAI() {
+        if (ai == null || homeWorld == null || aiQueued) return;
+        if (aiTimer != null) aiTimer.cancel();
+        aiQueued = true;
+        homeWorld.__engine_queueAI(this);
+    }
+
+    /** AI phase, serial pre-pass: claim this unit's queued think (false if stale or a duplicate). */
+    public boolean __engine_claimThink(world.World world) {
+        if (!aiQueued || homeWorld != world || ai == null) return false;
+        aiQueued = false;
+        return true;
+    }
+
+    /**
+     * Run the AI now, with the sim time since its last think (the AI phase calls this, possibly
+     * on a worker thread, for units it claimed). Only touches this unit.
+     */
+    public void tickAI(world.World world) {
+        long now = world.getClock().tick();
+        long ticks = (aiLastThinkTick < 0) ? 1 : Math.max(1, now - aiLastThinkTick);
+        aiLastThinkTick = now;
+        ai.update(world, this, ticks * world.getClock().stepSeconds());
+        // Slow thinkers land in bucket (id mod rate), so units that slow down together
+        // don't all wake on the same tick.
+        int every = Math.max(1, ai.thinkEvery(world, this));
+        long next = now + 1;
+        aiNextTick = next + Math.floorMod(getId() - next, (long) every);
+    }
+
+    /** AI phase, serial post-pass: arm the think timer for the tick tickAI chose. */
+    public void __engine_scheduleThink() {
+        if (ai == null || homeWorld == null || aiQueued) return;
+        if (aiTimer == null) aiTimer = new world.TimerWheel.Timer((t, tick) -> wakeAI());
+        aiTimer.scheduleAt(homeWorld.getTimers(), aiNextTick);
     }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package intelligence;
+
+/**
+ * Common base of sightings-board entries: last-seen position (tile space, x = col, y = row)
+ * plus the bookkeeping SightingGrid needs for O(1) moves and removals.
+ */
+public abstract class BoardEntry {
+    public double x, y;
+
+    // SightingGrid bookkeeping (-1 = not indexed)
+    int gridCell = Integer.MIN_VALUE, gridSlot = -1, denseSlot = -1;
+
+    protected BoardEntry(double x, double y) { this.x = x; this.y = y; }
+}
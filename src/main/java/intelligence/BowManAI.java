@@ -121,12 +121,23 @@ public class BowManAI implements Unit.UnitAI {
     }
 
     // ---------- Core ----------
+    // Full rate while engaging; idle patrol thinks slowly (hostileWatch wakes us on a sighting).
+    @Override
+    public int thinkEvery(world.World world, Unit u) {
+        return switch (state) {
+            case SEARCH -> (hasTarget() || hostileWatch.hasCandidates()) ? THINK_FAST : THINK_IDLE;
+            case IDLE   -> THINK_DORMANT;
+            default     -> THINK_FAST;
+        };
+    }
+
     @Override
     public void update(world.World world, Unit u, double dt) {
         // If you have a BOWMAN role, you can guard here:
         // if (u.getRole() != Unit.UnitRole.BOWMAN) return;
 
         if (u.isDead()) return;
+        hostileWatch.attach(world, u);
 
         // While we have a target and the team's trace is active, aim toward LIVE position.
         if (hasTarget()) {
@@ -159,7 +170,7 @@ public class BowManAI implements Unit.UnitAI {
 
             case SEARCH -> {
                 // Prefer sightings from the TEAM board right now (enemy team + wolves)
-                TeamSightings.Sighting spot = pickClosestHostileSighting(world, u);
+                TeamSightings.Sighting spot = hostileWatch.hasCandidates() ? pickClosestHostileSighting(world, u) : null;
                 if (spot != null) {
                     setTargetFromSighting(spot);
 
@@ -309,14 +320,14 @@ public class BowManAI implements Unit.UnitAI {
 
     private boolean hasTarget() { return targetId != null; }
 
-    // Use nanoTime against the board entry (safe even if expireOld runs separately)
+    // Use sim time against the board entry (safe even if expireOld runs separately)
     private boolean isTraceActive(world.World world, Unit me) {
         if (!hasTarget()) return false;
         Map<Integer, TeamSightings.Sighting> book = world.getSightingsForTeam(me.getTeam());
         if (book == null) return false;
         TeamSightings.Sighting s = book.get(targetId);
         if (s == null) return false;
-        long ageNanos = System.nanoTime() - s.seenNanos;
+        long ageNanos = world.nowNanos() - s.seenNanos;
         return ageNanos <= (long)(TRACE_TTL_SEC * 1e9);
     }
 
@@ -354,28 +365,24 @@ public class BowManAI implements Unit.UnitAI {
 
     private Unit getHostileById(world.World world, Unit me, Integer id) {
         if (id == null) return null;
-        for (Unit d : world.getUnits()) {
-            if (d.getId() == id && !d.isDead() && isHostile(me, d)) return d;
-        }
-        return null;
+        Unit d = world.unitById(id);
+        return (d != null && !d.isDead() && isHostile(me, d)) ? d : null;
+    }
+
+    // Filter: wolves or opposite human team
+    private static boolean isHostileSighting(Team me, TeamSightings.Sighting s) {
+        return s.team == Team.WOLF
+                || (me == Team.RED && s.team == Team.BLUE)
+                || (me == Team.BLUE && s.team == Team.RED);
     }
 
+    // Board events: skip the hostile scan while nothing hostile is on our team's board
+    private final VisionWatch hostileWatch = new VisionWatch(BowManAI::isHostileSighting);
+
     /** Board-driven: closest hostile sighting for my team. */
     private TeamSightings.Sighting pickClosestHostileSighting(world.World world, Unit me) {
-        var book = world.getTeamSightings().view(me.getTeam());
-        if (book == null || book.isEmpty()) return null;
-        double best = Double.POSITIVE_INFINITY; TeamSightings.Sighting bestS = null;
-        for (TeamSightings.Sighting s : book.values()) {
-            // Filter: wolves or opposite human team
-            if (s.team != Team.WOLF &&
-                    !((me.getTeam() == Team.RED && s.team == Team.BLUE) ||
-                            (me.getTeam() == Team.BLUE && s.team == Team.RED))) {
-                continue;
-            }
-            double d2 = sq(s.x - me.getX()) + sq(s.y - me.getY());
-            if (d2 < best) { best = d2; bestS = s; }
-        }
-        return bestS;
+        Team team = me.getTeam();
+        return world.getTeamSightings().closest(team, me.getX(), me.getY(), s -> isHostileSighting(team, s));
     }
 
     /* ---------- Approach ring (same idea as Hunter) ---------- */
@@ -597,21 +604,9 @@ public class BowManAI implements Unit.UnitAI {
         return dot >= AIM_DOT_MIN;
     }
 
-    /** Tile LOS (Bresenham). */
+    /** Tile LOS against opaque tiles (World ray tables). */
     private boolean hasLineOfSight(world.World world, double r0, double c0, double r1, double c1) {
-        int x0 = (int)Math.floor(c0), y0 = (int)Math.floor(r0);
-        int x1 = (int)Math.floor(c1), y1 = (int)Math.floor(r1);
-        int dx = Math.abs(x1 - x0), sx = x0 < x1 ? 1 : -1;
-        int dy = -Math.abs(y1 - y0), sy = y0 < y1 ? 1 : -1;
-        int err = dx + dy;
-        while (true) {
-            if (world.inBoundsRC(y0, x0) && world.isOpaque(y0, x0)) return false;
-            if (x0 == x1 && y0 == y1) break;
-            int e2 = 2 * err;
-            if (e2 >= dy) { err += dy; x0 += sx; }
-            if (e2 <= dx) { err += dx; y0 += sy; }
-        }
-        return true;
+        return world.hasOpaqueFreeLine(r0, c0, r1, c1); // precomputed ray tables
     }
 }
 
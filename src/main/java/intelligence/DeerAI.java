@@ -28,18 +28,24 @@ public class DeerAI implements Unit.UnitAI {
     private double fleeRepathEvery = 0.9; // seconds
     private int fleeMinR = 8, fleeMaxR = 16; // flee hop distance (tiles)
 
+    private double lastThreatDist = Double.POSITIVE_INFINITY; // from the last think (drives the think rate)
+
+    // Grazing deer far from anything are the bulk of a big map's units: let them doze.
+    @Override
+    public int thinkEvery(world.World world, Unit u) {
+        if (state == State.FLEE || lastThreatDist < safeRadius) return THINK_FAST;
+        return (state == State.GRAZE) ? THINK_DORMANT : THINK_IDLE;
+    }
+
     @Override
     public void update(world.World world, Unit u, double dt) {
         // --- threat + hysteresis as you already have ---
-        double minThreatDist = Double.POSITIVE_INFINITY;
-        Unit nearest = null;
-        for (Unit other : world.getUnits()) {
-            if (other == u) continue;
-            if (!isThreat(u, other)) continue;
-            double dx = other.getX() - u.getX(), dy = other.getY() - u.getY();
-            double d2 = dx*dx + dy*dy;
-            if (d2 < minThreatDist*minThreatDist) { minThreatDist = Math.sqrt(d2); nearest = other; }
-        }
+        // Nothing beyond safeRadius can change the state machine, so only look that far.
+        Unit nearest = world.getUnitGrid().nearest(u.getX(), u.getY(), safeRadius,
+                other -> other != u && isThreat(u, other));
+        double minThreatDist = (nearest == null) ? Double.POSITIVE_INFINITY
+                : Math.hypot(nearest.getX() - u.getX(), nearest.getY() - u.getY());
+        lastThreatDist = minThreatDist;
 
         // hysteresis
         if (state == State.FLEE) {
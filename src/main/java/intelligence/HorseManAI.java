@@ -106,6 +106,16 @@ public class HorseManAI implements Unit.UnitAI {
         }
     }
 
+    // Full rate while engaging; with no target, searching the board a few times a second is plenty.
+    @Override
+    public int thinkEvery(world.World world, Unit u) {
+        return switch (state) {
+            case SEARCH -> hasTarget() ? THINK_FAST : THINK_IDLE;
+            case IDLE   -> THINK_DORMANT;
+            default     -> THINK_FAST;
+        };
+    }
+
     @Override
     public void update(world.World world, Unit u, double dt) {
         if (u.isDead()) return;
@@ -300,7 +310,7 @@ public class HorseManAI implements Unit.UnitAI {
         if (book == null) return false;
         var s = book.get(targetId);
         if (s == null) return false;
-        long ageNanos = System.nanoTime() - s.seenNanos;
+        long ageNanos = world.nowNanos() - s.seenNanos;
         return ageNanos <= (long)(TRACE_TTL_SEC * 1e9);
     }
 
@@ -310,7 +320,7 @@ public class HorseManAI implements Unit.UnitAI {
         if (book == null) return Double.POSITIVE_INFINITY;
         var s = book.get(targetId);
         if (s == null) return Double.POSITIVE_INFINITY;
-        return (System.nanoTime() - s.seenNanos) / 1e9;
+        return (world.nowNanos() - s.seenNanos) / 1e9;
     }
 
     private void adoptSighting(TeamSightings.Sighting s){
@@ -334,10 +344,8 @@ public class HorseManAI implements Unit.UnitAI {
 
     private Unit getEnemyOrWolfById(world.World world, Team myTeam, Integer id) {
         if (id == null) return null;
-        for (Unit d : world.getUnits()) {
-            if (d.getId() == id && !d.isDead() && isEnemyForHorseman(myTeam, d)) return d;
-        }
-        return null;
+        Unit d = world.unitById(id);
+        return (d != null && !d.isDead() && isEnemyForHorseman(myTeam, d)) ? d : null;
     }
 
     /** Board-driven: closest allowed sighting (enemy human or wolf). */
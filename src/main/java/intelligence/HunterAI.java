@@ -91,6 +91,18 @@ public class HunterAI implements Unit.UnitAI {
     private double distToNav(Unit u) { return Math.hypot(navTargetR - u.getY(), navTargetC - u.getX()); }
     private void clearNavTarget() { navTargetR = navTargetC = Integer.MIN_VALUE; }
 
+    // Aiming/shooting at full rate; walking errands and an empty search go slower.
+    @Override
+    public int thinkEvery(world.World world, Unit u) {
+        if (u.getRole() != Unit.UnitRole.HUNTER) return THINK_DORMANT;
+        return switch (u.getHunterState()) {
+            case MOVE_TO_SHOT, SHOOT, INIT -> THINK_FAST;
+            case SEARCH -> hasTarget() ? THINK_FAST : THINK_IDLE;
+            case IDLE   -> THINK_DORMANT;
+            default     -> THINK_ERRAND;     // walking to camp / corpse
+        };
+    }
+
     @Override
     public void update(world.World world, Unit u, double dt) {
         if (u.getRole() != Unit.UnitRole.HUNTER) return;
@@ -190,8 +202,7 @@ public class HunterAI implements Unit.UnitAI {
                 Unit live = getLiveById(world, targetId);
                 if (live == null) {
                     // Check if the target died -> go loot; else pursue last board position
-                    Unit any = null;
-                    for (Unit d : world.getUnits()) { if (d.getId() == targetId) { any = d; break; } }
+                    Unit any = world.unitById(targetId);
                     if (any != null && any.isDead()) {
                         clearNavTarget();
                         u.clearAimTarget();
@@ -306,8 +317,7 @@ public class HunterAI implements Unit.UnitAI {
                 if (!hasTarget()) { u.setHunterState(SEARCH); break; }
 
                 // Fetch by id even if dead
-                Unit corpse = null;
-                for (Unit d : world.getUnits()) { if (d.getId() == targetId) { corpse = d; break; } }
+                Unit corpse = world.unitById(targetId);
                 if (corpse == null) { clearTarget(); u.setHunterState(SEARCH); break; }
 
                 // If somehow not dead yet, go back to pursuing/shooting
@@ -352,14 +362,14 @@ public class HunterAI implements Unit.UnitAI {
         var book = world.getTeamSightings().view(u.getTeam());
         var s = book.get(targetId);
         if (s == null) return Double.POSITIVE_INFINITY;
-        return (System.nanoTime() - s.seenNanos) / 1e9;
+        return (world.nowNanos() - s.seenNanos) / 1e9;
     }
 
     /** True if this team still has an active sighting for the current target. */
     private boolean isTraceActive(world.World world, Unit u) {
         if (targetId == null) return false;
         var s = world.getTeamSightings().view(u.getTeam()).get(targetId);
-        return s != null && System.nanoTime() - s.seenNanos <= (long)(TRACE_TTL_SEC * 1e9);
+        return s != null && world.nowNanos() - s.seenNanos <= (long)(TRACE_TTL_SEC * 1e9);
     }
 
     /** Update lastSeenX/Y from the team board if present. */
@@ -391,10 +401,8 @@ public class HunterAI implements Unit.UnitAI {
     // NEW
     private Unit getLiveById(world.World world, Integer id) {
         if (id == null) return null;
-        for (Unit d : world.getUnits()) {
-            if (d.getId() == id && !d.isDead()) return d;
-        }
-        return null;
+        Unit d = world.unitById(id);
+        return (d != null && !d.isDead()) ? d : null;
     }
 
     /** Board-driven: closest deer sighting for the hunter’s team. */
@@ -645,21 +653,9 @@ public class HunterAI implements Unit.UnitAI {
         return dot >= AIM_DOT_MIN;
     }
 
-    /** Optional: tile LOS. Requires World.isOpaque(..). */
+    /** Tile LOS against opaque tiles (World ray tables). */
     private boolean hasLineOfSight(world.World world, double r0, double c0, double r1, double c1) {
-        int x0 = (int)Math.floor(c0), y0 = (int)Math.floor(r0);
-        int x1 = (int)Math.floor(c1), y1 = (int)Math.floor(r1);
-        int dx = Math.abs(x1 - x0), sx = x0 < x1 ? 1 : -1;
-        int dy = -Math.abs(y1 - y0), sy = y0 < y1 ? 1 : -1;
-        int err = dx + dy;
-        while (true) {
-            if (world.inBoundsRC(y0, x0) && world.isOpaque(y0, x0)) return false;
-            if (x0 == x1 && y0 == y1) break;
-            int e2 = 2 * err;
-            if (e2 >= dy) { err += dy; x0 += sx; }
-            if (e2 <= dx) { err += dx; y0 += sy; }
-        }
-        return true;
+        return world.hasOpaqueFreeLine(r0, c0, r1, c1); // precomputed ray tables
     }
 
     private void repathToNavIfStuck(world.World world, Unit u, double dt, double dToNav) {
@@ -0,0 +1,98 @@
+package intelligence;
+
+/**
+ * Small open-addressing int -> V map (linear probing, backward-shift delete).
+ * No boxing on the hot path; iterate with {@code for (i < capacity()) valueAt(i)} (null = empty slot).
+ */
+public final class IntMap<V> {
+    private int[] keys;
+    private Object[] vals;
+    private int size, mask;
+
+    public IntMap() { this(16); }
+
+    public IntMap(int expected) {
+        int cap = 8;
+        while (cap < expected * 2) cap <<= 1;
+        keys = new int[cap];
+        vals = new Object[cap];
+        mask = cap - 1;
+    }
+
+    private static int mix(int k) {
+        int h = k * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        for (int i = mix(key) & mask; vals[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) return (V) vals[i];
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) { return get(key) != null; }
+
+    /** Stores value (non-null); returns the previous one. */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) throw new IllegalArgumentException("null value");
+        if ((size + 1) * 2 > keys.length) grow();
+        int i = mix(key) & mask;
+        for (; vals[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) { V old = (V) vals[i]; vals[i] = value; return old; }
+        }
+        keys[i] = key; vals[i] = value; size++;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int i = mix(key) & mask;
+        for (; vals[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) break;
+        }
+        if (vals[i] == null) return null;
+        V old = (V) vals[i];
+        // backward-shift: pull later cluster members into the hole
+        int hole = i;
+        for (int j = (hole + 1) & mask; vals[j] != null; j = (j + 1) & mask) {
+            int home = mix(keys[j]) & mask;
+            boolean movable = (hole <= j) ? (home <= hole || home > j) : (home <= hole && home > j);
+            if (movable) {
+                keys[hole] = keys[j]; vals[hole] = vals[j];
+                hole = j;
+            }
+        }
+        vals[hole] = null;
+        size--;
+        return old;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(vals, null);
+        size = 0;
+    }
+
+    // --- slot iteration (don't mutate while iterating) ---
+    public int capacity() { return vals.length; }
+    @SuppressWarnings("unchecked")
+    public V valueAt(int slot) { return (V) vals[slot]; }
+    public int keyAt(int slot) { return keys[slot]; }
+
+    private void grow() {
+        int[] ok = keys; Object[] ov = vals;
+        keys = new int[ok.length * 2];
+        vals = new Object[ok.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < ok.length; i++) if (ov[i] != null) put(ok[i], cast(ov[i]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private V cast(Object o) { return (V) o; }
+}
@@ -86,9 +86,24 @@ public class ManAtArmsAI implements Unit.UnitAI {
         }
     }
 
+    // Board events: skip the wolf scan while no wolf is on our team's board
+    private final VisionWatch wolfWatch =
+            new VisionWatch((me, s) -> s.actorType == characters.ActorType.WOLF);
+
+    // Full rate while engaging; idle patrol thinks slowly (wolfWatch wakes us on a sighting).
+    @Override
+    public int thinkEvery(world.World world, Unit u) {
+        return switch (state) {
+            case SEARCH -> (hasTarget() || wolfWatch.hasCandidates()) ? THINK_FAST : THINK_IDLE;
+            case IDLE   -> THINK_DORMANT;
+            default     -> THINK_FAST;
+        };
+    }
+
     @Override
     public void update(world.World world, Unit u, double dt) {
         if (u.isDead()) return;
+        wolfWatch.attach(world, u);
 
         // Maintain trace: aim at live position while board trace is active
         if (hasTarget()) {
@@ -128,7 +143,7 @@ public class ManAtArmsAI implements Unit.UnitAI {
 
             case SEARCH -> {
                 // --- Board-driven closest wolf sighting (ActorType.WOLF) ---
-                TeamSightings.Sighting spot =
+                TeamSightings.Sighting spot = !wolfWatch.hasCandidates() ? null :
                         world.getTeamSightings().closestOfActorType(u.getTeam(), u.getX(), u.getY(),
                                 characters.ActorType.WOLF);
 
@@ -321,7 +336,7 @@ public class ManAtArmsAI implements Unit.UnitAI {
         var book = world.getTeamSightings().view(me.getTeam());
         var s = book.get(targetId);
         if (s == null) return Double.POSITIVE_INFINITY;
-        return (System.nanoTime() - s.seenNanos) / 1e9;
+        return (world.nowNanos() - s.seenNanos) / 1e9;
     }
 
     private void refreshLastSeenFromBoard(world.World world, Unit me){
@@ -353,10 +368,8 @@ public class ManAtArmsAI implements Unit.UnitAI {
 
     private Unit getWolfById(world.World world, Integer id) {
         if (id == null) return null;
-        for (Unit d : world.getUnits()) {
-            if (d.getTeam() == Team.WOLF && !d.isDead() && d.getId() == id) return d;
-        }
-        return null;
+        Unit d = world.unitById(id);
+        return (d != null && d.getTeam() == Team.WOLF && !d.isDead()) ? d : null;
     }
 
     /** Choose a reachable cell on a ring that guarantees Euclidean distance <= MELEE_RANGE - 0.05 */
@@ -573,21 +586,9 @@ public class ManAtArmsAI implements Unit.UnitAI {
         return dot >= AIM_DOT_MIN;
     }
 
-    /** Bresenham LOS (same as Hunter). */
+    /** Tile LOS against opaque tiles (World ray tables). */
     private boolean hasLineOfSight(world.World world, double r0, double c0, double r1, double c1) {
-        int x0 = (int)Math.floor(c0), y0 = (int)Math.floor(r0);
-        int x1 = (int)Math.floor(c1), y1 = (int)Math.floor(r1);
-        int dx = Math.abs(x1 - x0), sx = x0 < x1 ? 1 : -1;
-        int dy = -Math.abs(y1 - y0), sy = y0 < y1 ? 1 : -1;
-        int err = dx + dy;
-        while (true) {
-            if (world.inBoundsRC(y0, x0) && world.isOpaque(y0, x0)) return false;
-            if (x0 == x1 && y0 == y1) break;
-            int e2 = 2 * err;
-            if (e2 >= dy) { err += dy; x0 += sx; }
-            if (e2 <= dx) { err += dx; y0 += sy; }
-        }
-        return true;
+        return world.hasOpaqueFreeLine(r0, c0, r1, c1); // precomputed ray tables
     }
     private void startWander(world.World world, Unit u){
         // Base the wander center on the unit's current tile
@@ -10,76 +10,87 @@ import characters.Unit;
 public class PackSightings {
 
     /** A single remembered target for a pack (wolf den). */
-    public static final class PackSighting {
+    public static final class PackSighting extends BoardEntry {
         public final int targetId;
-        public double x, y;       // tile coords: x = col, y = row
+        // x, y (BoardEntry): tile coords, x = col, y = row
         public long seenNanos;    // last time seen by any wolf of this den
 
         public PackSighting(int id, double x, double y, long t) {
+            super(x, y);
             this.targetId = id;
-            this.x = x;
-            this.y = y;
             this.seenNanos = t;
         }
     }
 
-    // denId -> (targetId -> sighting)
-    private final java.util.HashMap<Integer, java.util.HashMap<Integer, PackSighting>> books =
-            new java.util.HashMap<>();
+    /** One den's book: targetId -> sighting, plus a grid over last-seen positions. */
+    private static final class Book {
+        final IntMap<PackSighting> byId = new IntMap<>();
+        final SightingGrid<PackSighting> grid = new SightingGrid<>();
+
+        void remove(PackSighting s) { byId.remove(s.targetId); grid.remove(s); }
+    }
+
+    // denId -> book
+    private final IntMap<Book> books = new IntMap<>();
 
     // default TTL = 5s (in nanoseconds)
     private final long ttlNanos;
+    // time source for the TTL checks that don't take a "now" (the world's sim clock)
+    private final java.util.function.LongSupplier clock;
 
     public PackSightings() {
         this(5_000_000_000L);
     }
 
     public PackSightings(long ttlNanos) {
+        this(ttlNanos, System::nanoTime);
+    }
+
+    public PackSightings(long ttlNanos, java.util.function.LongSupplier clock) {
         this.ttlNanos = ttlNanos;
+        this.clock = clock;
     }
 
     /** Ensure a book exists for a den. */
-    private java.util.HashMap<Integer, PackSighting> book(int denId) {
-        return books.computeIfAbsent(denId, k -> new java.util.HashMap<>());
+    private Book book(int denId) {
+        Book b = books.get(denId);
+        if (b == null) { b = new Book(); books.put(denId, b); }
+        return b;
     }
 
     /** Report/refresh a sighting for this den. (Ignores null or dead targets.) */
     public void packReportSighting(int denId, Unit target, long nowNanos) {
         if (target == null || target.isDead()) return;
         var b = book(denId);
-        b.put(target.getId(), new PackSighting(target.getId(), target.getX(), target.getY(), nowNanos));
+        var s = b.byId.get(target.getId());
+        if (s == null) {
+            s = new PackSighting(target.getId(), target.getX(), target.getY(), nowNanos);
+            b.byId.put(s.targetId, s);
+            b.grid.add(s);
+        } else {
+            s.x = target.getX(); s.y = target.getY(); s.seenNanos = nowNanos;
+            b.grid.moved(s);
+        }
     }
 
     /**
      * Pick the closest *non-expired* sighting to (fromRow, fromCol).
-     * Returns null if none exist after pruning.
+     * Returns null if none exist. Expired entries are skipped here and dropped by the prunes.
      */
     public PackSighting packPickClosestSighting(int denId, double fromRow, double fromCol) {
         var b = books.get(denId);
-        if (b == null || b.isEmpty()) return null;
-
-        long now = System.nanoTime();
-        double best = Double.POSITIVE_INFINITY;
-        PackSighting bestS = null;
-
-        var it = b.values().iterator();
-        while (it.hasNext()) {
-            PackSighting s = it.next();
-            // prune expired
-            if (now - s.seenNanos > ttlNanos) { it.remove(); continue; }
-
-            double dr = s.y - fromRow;  // y = row
-            double dc = s.x - fromCol;  // x = col
-            double d2 = dr*dr + dc*dc;
-            if (d2 < best) { best = d2; bestS = s; }
-        }
-        return bestS;
+        if (b == null || b.byId.isEmpty()) return null;
+
+        long now = clock.getAsLong();
+        return b.grid.nearest(fromCol, fromRow, s -> now - s.seenNanos <= ttlNanos);
     }
 
     /** Manually forget one target for a den (e.g., target died/despawned). */
     public void forgetTarget(int denId, int targetId) {
         var b = books.get(denId);
-        if (b != null) b.remove(targetId);
+        if (b == null) return;
+        var s = b.byId.get(targetId);
+        if (s != null) b.remove(s);
     }
 
     /** Clear all knowledge for a den (e.g., den destroyed/disabled). */
@@ -90,31 +101,39 @@ public class PackSightings {
     /** Optional periodic prune for a single den. */
     public void pruneExpired(int denId, long nowNanos) {
         var b = books.get(denId);
-        if (b == null) return;
-        b.values().removeIf(s -> nowNanos - s.seenNanos > ttlNanos);
+        if (b != null) prune(b, nowNanos);
     }
 
     /** Optional periodic prune for all dens. */
     public void pruneAll(long nowNanos) {
-        for (var b : books.values()) {
-            b.values().removeIf(s -> nowNanos - s.seenNanos > ttlNanos);
+        for (int i = 0; i < books.capacity(); i++) {
+            var b = books.valueAt(i);
+            if (b != null) prune(b, nowNanos);
+        }
+    }
+
+    private void prune(Book b, long nowNanos) {
+        // walk backwards: swap-remove only pulls in entries we've already checked
+        for (int i = b.grid.size() - 1; i >= 0; i--) {
+            var s = b.grid.get(i);
+            if (nowNanos - s.seenNanos > ttlNanos) b.remove(s);
         }
     }
     // in intelligence/PackSightings.java
     public boolean hasActiveSighting(int denId, int targetId) {
         var b = books.get(denId);
         if (b == null) return false;
-        var s = b.get(targetId);
+        var s = b.byId.get(targetId);
         if (s == null) return false;
-        return System.nanoTime() - s.seenNanos <= ttlNanos;
+        return clock.getAsLong() - s.seenNanos <= ttlNanos;
     }
 
     public PackSighting getSighting(int denId, int targetId) {
         var b = books.get(denId);
         if (b == null) return null;
-        var s = b.get(targetId);
+        var s = b.byId.get(targetId);
         if (s == null) return null;
-        if (System.nanoTime() - s.seenNanos > ttlNanos) return null; // expired
+        if (clock.getAsLong() - s.seenNanos > ttlNanos) return null; // expired
         return s;
     }
 
@@ -0,0 +1,177 @@
+package intelligence;
+
+/**
+ * Sparse bucket grid over board entries' last-seen positions (CELL x CELL tiles per bucket,
+ * buckets keyed in an IntMap so boards don't need map dimensions).
+ *
+ * Also keeps the entries in a dense array for plain iteration. Add/remove/move are O(1);
+ * nearest() expands bucket rings from the query point and stops as soon as no farther ring
+ * can beat the best hit, so it stays flat as boards grow to hundreds of entries.
+ */
+final class SightingGrid<E extends BoardEntry> {
+    static final int CELL = 8;
+    private static final int LINEAR_MAX = 16; // tiny boards: just scan
+
+    private static final class Bucket {
+        BoardEntry[] items = new BoardEntry[4];
+        int n;
+    }
+
+    private final IntMap<Bucket> buckets = new IntMap<>();
+    private BoardEntry[] dense = new BoardEntry[16];
+    private int size;
+    // bucket-coordinate extents seen since the grid was last empty (bounds ring expansion)
+    private int minCr, maxCr, minCc, maxCc;
+
+    int size() { return size; }
+
+    @SuppressWarnings("unchecked")
+    E get(int i) { return (E) dense[i]; }
+
+    private static int cellCoord(double v) { return (int) Math.floor(v / CELL); }
+    private static int key(int cr, int cc) { return (cr << 16) ^ (cc & 0xFFFF); }
+
+    void add(E e) {
+        if (e.denseSlot >= 0) return;
+        if (size == dense.length) dense = java.util.Arrays.copyOf(dense, size * 2);
+        e.denseSlot = size;
+        dense[size++] = e;
+        index(e);
+    }
+
+    void remove(E e) {
+        if (e.denseSlot < 0) return;
+        unindex(e);
+        int last = --size;
+        if (e.denseSlot != last) {
+            BoardEntry moved = dense[last];
+            dense[e.denseSlot] = moved;
+            moved.denseSlot = e.denseSlot;
+        }
+        dense[last] = null;
+        e.denseSlot = -1;
+    }
+
+    /** Call after e.x / e.y changed. */
+    void moved(E e) {
+        if (e.denseSlot < 0) return;
+        if (e.gridCell == key(cellCoord(e.y), cellCoord(e.x))) return;
+        unindex(e);
+        index(e);
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            BoardEntry e = dense[i];
+            e.denseSlot = -1; e.gridSlot = -1; e.gridCell = Integer.MIN_VALUE;
+            dense[i] = null;
+        }
+        size = 0;
+        buckets.clear();
+    }
+
+    private void index(BoardEntry e) {
+        int cr = cellCoord(e.y), cc = cellCoord(e.x);
+        if (size == 1) { minCr = maxCr = cr; minCc = maxCc = cc; }
+        else {
+            if (cr < minCr) minCr = cr; if (cr > maxCr) maxCr = cr;
+            if (cc < minCc) minCc = cc; if (cc > maxCc) maxCc = cc;
+        }
+        int k = key(cr, cc);
+        Bucket b = buckets.get(k);
+        if (b == null) { b = new Bucket(); buckets.put(k, b); }
+        if (b.n == b.items.length) b.items = java.util.Arrays.copyOf(b.items, b.n * 2);
+        e.gridCell = k;
+        e.gridSlot = b.n;
+        b.items[b.n++] = e;
+    }
+
+    private void unindex(BoardEntry e) {
+        Bucket b = buckets.get(e.gridCell);
+        if (b != null) {
+            int last = --b.n;
+            if (e.gridSlot != last) {
+                BoardEntry moved = b.items[last];
+                b.items[e.gridSlot] = moved;
+                moved.gridSlot = e.gridSlot;
+            }
+            b.items[last] = null;
+            if (b.n == 0) buckets.remove(e.gridCell);
+        }
+        e.gridCell = Integer.MIN_VALUE;
+        e.gridSlot = -1;
+    }
+
+    /** Closest entry to (x,y) passing filter (null = any), or null. */
+    @SuppressWarnings("unchecked")
+    E nearest(double x, double y, java.util.function.Predicate<? super E> filter) {
+        if (size == 0) return null;
+        E best = null;
+        double bestD2 = Double.POSITIVE_INFINITY;
+
+        if (size <= LINEAR_MAX) {
+            for (int i = 0; i < size; i++) {
+                E e = (E) dense[i];
+                double dx = e.x - x, dy = e.y - y, d2 = dx * dx + dy * dy;
+                if (d2 >= bestD2) continue;
+                if (filter != null && !filter.test(e)) continue;
+                best = e; bestD2 = d2;
+            }
+            return best;
+        }
+
+        int cr = cellCoord(y), cc = cellCoord(x);
+        int maxRing = Math.max(Math.max(Math.abs(cr - minCr), Math.abs(cr - maxCr)),
+                               Math.max(Math.abs(cc - minCc), Math.abs(cc - maxCc)));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // every entry in this ring (or beyond) is at least (ring-1)*CELL away
+            double minD = (ring - 1) * (double) CELL;
+            if (best != null && minD > 0 && minD * minD > bestD2) break;
+            for (int r = cr - ring; r <= cr + ring; r++) {
+                boolean edgeRow = (r == cr - ring || r == cr + ring);
+                for (int c = cc - ring; c <= cc + ring; c += (edgeRow || ring == 0) ? 1 : 2 * ring) {
+                    Bucket b = buckets.get(key(r, c));
+                    if (b == null) continue;
+                    for (int i = 0; i < b.n; i++) {
+                        E e = (E) b.items[i];
+                        double dx = e.x - x, dy = e.y - y, d2 = dx * dx + dy * dy;
+                        if (d2 >= bestD2) continue;
+                        if (filter != null && !filter.test(e)) continue;
+                        best = e; bestD2 = d2;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /** Appends entries within radius of (x,y) to out; returns how many. */
+    @SuppressWarnings("unchecked")
+    int within(double x, double y, double radius, java.util.List<? super E> out) {
+        double r2 = radius * radius;
+        int n = 0;
+        int r0 = cellCoord(y - radius), r1 = cellCoord(y + radius);
+        int c0 = cellCoord(x - radius), c1 = cellCoord(x + radius);
+        if ((long) (r1 - r0 + 1) * (c1 - c0 + 1) > size) {
+            // query box has more buckets than the board has entries: scan instead
+            for (int i = 0; i < size; i++) {
+                E e = (E) dense[i];
+                double dx = e.x - x, dy = e.y - y;
+                if (dx * dx + dy * dy <= r2) { out.add(e); n++; }
+            }
+            return n;
+        }
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                Bucket b = buckets.get(key(r, c));
+                if (b == null) continue;
+                for (int i = 0; i < b.n; i++) {
+                    E e = (E) b.items[i];
+                    double dx = e.x - x, dy = e.y - y;
+                    if (dx * dx + dy * dy <= r2) { out.add(e); n++; }
+                }
+            }
+        }
+        return n;
+    }
+}
@@ -28,7 +28,7 @@ public class TargetSelector {
         var book = world.getSightingsForTeam(me.getTeam());
         if (book == null || book.isEmpty()) return null;
 
-        long now = System.nanoTime();
+        long now = world.nowNanos();
         double best = Double.POSITIVE_INFINITY; TargetPick bestPick = null;
 
         for (var s : book.values()) {
@@ -70,7 +70,7 @@ public class TargetSelector {
         else {
             var book = world.getSightingsForTeam(me.getTeam());
             var s = (book != null) ? book.get(currentId) : null;
-            if (s != null && System.nanoTime() - s.seenNanos <= ttlNanos) { cx = s.x; cy = s.y; }
+            if (s != null && world.nowNanos() - s.seenNanos <= ttlNanos) { cx = s.x; cy = s.y; }
             else { cx = lsx; cy = lsy; }
         }
         double curD2 = dist2(me.getX(), me.getY(), cx, cy);
@@ -80,7 +80,7 @@ public class TargetSelector {
 
     public void adoptPick(Adopter a, TargetPick p) { if (p != null) { a.setTargetId(p.unitId); a.setLastSeen(p.x, p.y); } }
 
-    private Unit lookupLive(Integer id){ if (id==null) return null; for (Unit u: world.getUnits()) if (u.getId()==id) return u; return null; }
+    private Unit lookupLive(Integer id){ return (id == null) ? null : world.unitById(id); }
     private static double dist2(double x0,double y0,double x1,double y1){ double dx=x1-x0,dy=y1-y0; return dx*dx+dy*dy; }
 
     public interface Adopter { void setTargetId(Integer id); void setLastSeen(double x,double y); }
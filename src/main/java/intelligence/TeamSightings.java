@@ -4,21 +4,23 @@ import characters.ActorType;
 import characters.Team;
 import characters.Unit;
 
-import java.util.Collections;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.EnumMap;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 public final class TeamSightings {
 
     /** One sighting entry on a viewer team's board. */
-    public static final class Sighting {
+    public static final class Sighting extends BoardEntry {
         public int getUnitId() {
             return unitId;
         }
 
         public final int unitId;
-        public double x, y;
         public long seenNanos;
 
         public Team getTeam() {
@@ -33,26 +35,160 @@ public final class TeamSightings {
 
         public final characters.ActorType actorType;  // HUMAN, DEER, WOLF, ...
 
+        /** True while the viewer team actually sees it this tick (board entries outlive vision). */
+        public boolean isInView() { return inView; }
+        boolean inView;
+
         public Sighting(int unitId, double x, double y, long seenNanos,
                         characters.Team team, characters.ActorType actorType) {
+            super(x, y);
             this.unitId = unitId;
-            this.x = x; this.y = y;
             this.seenNanos = seenNanos;
             this.team = team;
             this.actorType = actorType;
         }
     }
 
-    // Board: viewerTeam -> (unitId -> sighting)
-    private final EnumMap<characters.Team, HashMap<Integer, Sighting>> byTeam =
-            new EnumMap<>(characters.Team.class);
+    /**
+     * One viewer team's board: unitId -> sighting in a primitive map, plus one SightingGrid per
+     * ActorType over last-seen positions so closest / radius queries don't walk the whole board.
+     */
+    private static final class Board {
+        final IntMap<Sighting> byId = new IntMap<>(64);
+        final EnumMap<characters.ActorType, SightingGrid<Sighting>> byType =
+                new EnumMap<>(characters.ActorType.class);
+        final BoardView view = new BoardView(byId);
+
+        SightingGrid<Sighting> grid(characters.ActorType t) {
+            return byType.computeIfAbsent(t, k -> new SightingGrid<>());
+        }
+
+        void add(Sighting s) { byId.put(s.unitId, s); grid(s.actorType).add(s); }
+
+        void remove(Sighting s) {
+            byId.remove(s.unitId);
+            var g = byType.get(s.actorType);
+            if (g != null) g.remove(s);
+        }
+    }
+
+    /** Read-only Map<Integer, Sighting> over a board (keeps the old view() callers working). */
+    private static final class BoardView extends AbstractMap<Integer, Sighting> {
+        private final IntMap<Sighting> m;
+        BoardView(IntMap<Sighting> m) { this.m = m; }
+
+        @Override public int size() { return m.size(); }
+        @Override public boolean isEmpty() { return m.isEmpty(); }
+        @Override public Sighting get(Object k) { return (k instanceof Integer i) ? m.get(i) : null; }
+        @Override public boolean containsKey(Object k) { return get(k) != null; }
+
+        @Override public Set<Entry<Integer, Sighting>> entrySet() {
+            return new AbstractSet<>() {
+                @Override public int size() { return m.size(); }
+                @Override public Iterator<Entry<Integer, Sighting>> iterator() {
+                    return new Iterator<Entry<Integer, Sighting>>() {
+                        int slot = advance(0);
+                        private int advance(int from) {
+                            while (from < m.capacity() && m.valueAt(from) == null) from++;
+                            return from;
+                        }
+                        @Override public boolean hasNext() { return slot < m.capacity(); }
+                        @Override public Entry<Integer, Sighting> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            var e = new SimpleImmutableEntry<>(m.keyAt(slot), m.valueAt(slot));
+                            slot = advance(slot + 1);
+                            return e;
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    // Boards: viewerTeam -> board
+    private final EnumMap<characters.Team, Board> byTeam = new EnumMap<>(characters.Team.class);
+    private final java.util.ArrayList<Sighting> scratch = new java.util.ArrayList<>();
+
+    /* ========================= VISION EVENTS ========================= */
+
+    /** What happened to a board entry during the last publish/expire pass. */
+    public enum VisionChange {
+        ENTERED,    // new on the viewer's board (first time seen, or seen again after expiring)
+        REENTERED,  // already on the board, back in view after having left it
+        LEFT,       // still on the board (trace), but not seen this tick
+        EXPIRED     // dropped from the board (TTL, forget, clear)
+    }
+
+    /** Subscribers get events synchronously from updateFromVisibility / expireOld. Keep them cheap, don't touch the board. */
+    public interface VisionListener {
+        void onVisionChange(characters.Team viewer, VisionChange change, Sighting s);
+
+        /** Called by subscribe() once the listener is on the list; events start right after. */
+        default void onSubscribed(characters.Team viewer, TeamSightings board) {}
+
+        /** Called when the board drops the listener on its own (owner dead or gone); no events after. */
+        default void onUnsubscribed(characters.Team viewer) {}
+    }
+
+    private static final class Sub {
+        final characters.Unit owner; final VisionListener l;
+        Sub(characters.Unit owner, VisionListener l) { this.owner = owner; this.l = l; }
+    }
+    private final EnumMap<characters.Team, java.util.ArrayList<Sub>> subs = new EnumMap<>(characters.Team.class);
+
+    /**
+     * Listen to a viewer team's board. Dropped automatically once 'owner' is dead, or when the
+     * world calls unsubscribeOwner as it leaves (owner may be null).
+     * The subscriber lists are not thread-safe: sim thread only, never from a parallel AI lane
+     * (AIs go through World.subscribeSightings, which defers it).
+     */
+    public void subscribe(characters.Team viewer, characters.Unit owner, VisionListener l) {
+        subs.computeIfAbsent(viewer, k -> new java.util.ArrayList<>()).add(new Sub(owner, l));
+        l.onSubscribed(viewer, this);
+    }
+
+    public void unsubscribe(characters.Team viewer, VisionListener l) {
+        var list = subs.get(viewer);
+        if (list != null) list.removeIf(sub -> sub.l == l);
+    }
+
+    /** Drops every listener 'owner' holds, on all boards (it left the world, dead or alive). */
+    public void unsubscribeOwner(characters.Unit owner) {
+        for (var e : subs.entrySet()) {
+            var list = e.getValue();
+            for (int i = list.size() - 1; i >= 0; i--) {
+                Sub sub = list.get(i);
+                if (sub.owner != owner) continue;
+                list.remove(i);
+                sub.l.onUnsubscribed(e.getKey());
+            }
+        }
+    }
+
+    private void emit(characters.Team viewer, VisionChange change, Sighting s) {
+        var list = subs.get(viewer);
+        if (list == null || list.isEmpty()) return;
+        for (int i = 0; i < list.size(); ) {
+            Sub sub = list.get(i);
+            if (sub.owner != null && sub.owner.isDead()) {
+                // swap-remove dead subscribers
+                int last = list.size() - 1;
+                list.set(i, list.get(last));
+                list.remove(last);
+                sub.l.onUnsubscribed(viewer);
+                continue;
+            }
+            sub.l.onVisionChange(viewer, change, s);
+            i++;
+        }
+    }
 
     /** Default TTL: 10s (nanoseconds). */
     private long ttlNanos = 10_000_000_000L;
 
     public TeamSightings() {
         for (characters.Team t : characters.Team.values()) {
-            byTeam.put(t, new HashMap<>());
+            byTeam.put(t, new Board());
         }
     }
 
@@ -63,52 +199,90 @@ public final class TeamSightings {
 
     /** Read-only view for a viewer team. */
     public Map<Integer, Sighting> view(characters.Team viewer) {
-        HashMap<Integer, Sighting> m = byTeam.get(viewer);
-        if (m == null) return Collections.emptyMap();
-        return Collections.unmodifiableMap(m);
+        return byTeam.get(viewer).view;
+    }
+
+    /** Entry for unitId on the viewer's board, or null (no boxing). */
+    public Sighting get(characters.Team viewer, int unitId) {
+        return byTeam.get(viewer).byId.get(unitId);
     }
 
     /** True if the viewer’s board currently has an entry for unitId. */
     public boolean hasActive(characters.Team viewer, int unitId) {
-        var m = byTeam.get(viewer);
-        if (m == null) return false;
-        return m.containsKey(unitId); // entries are pruned by expireOld(...)
+        return get(viewer, unitId) != null; // entries are pruned by expireOld(...)
     }
 
     /** Manually forget a single target from viewer’s board. */
     public void forget(characters.Team viewer, int unitId) {
-        var m = byTeam.get(viewer);
-        if (m != null) m.remove(unitId);
+        Board b = byTeam.get(viewer);
+        var s = b.byId.get(unitId);
+        if (s == null) return;
+        b.remove(s);
+        emit(viewer, VisionChange.EXPIRED, s);
     }
 
     public void clearTeam(characters.Team viewer) {
-        var m = byTeam.get(viewer);
-        if (m != null) m.clear();
+        Board b = byTeam.get(viewer);
+        if (b.byId.isEmpty()) return;
+        var gone = new java.util.ArrayList<Sighting>(b.byId.size());
+        for (var g : b.byType.values()) {
+            for (int i = 0; i < g.size(); i++) gone.add(g.get(i));
+            g.clear();
+        }
+        b.byId.clear();
+        for (Sighting s : gone) emit(viewer, VisionChange.EXPIRED, s);
     }
 
     public void clearAll() {
-        for (var m : byTeam.values()) m.clear();
+        for (characters.Team t : byTeam.keySet()) clearTeam(t);
     }
 
     /** Internal upsert. */
     private void put(characters.Team viewer, int unitId, double x, double y, long nowNanos,
                      characters.Team targetTeam, characters.ActorType actorType) {
-        var m = byTeam.computeIfAbsent(viewer, k -> new HashMap<>());
-        var s = m.get(unitId);
+        Board b = byTeam.get(viewer);
+        var s = b.byId.get(unitId);
         if (s == null) {
             s = new Sighting(unitId, x, y, nowNanos, targetTeam, actorType);
-            m.put(unitId, s);
+            s.inView = true;
+            b.add(s);
+            emit(viewer, VisionChange.ENTERED, s);
         } else {
             s.x = x; s.y = y; s.seenNanos = nowNanos;
+            b.grid(s.actorType).moved(s);
             // If targets can morph team/type at runtime, rebuild Sighting here.
+            if (!s.inView) {
+                s.inView = true;
+                emit(viewer, VisionChange.REENTERED, s);
+            }
         }
     }
 
-    /** Expire stale entries for one viewer team. Call this once per frame after publishing. */
+    /**
+     * Expire stale entries for one viewer team. Call this once per frame after publishing
+     * (with the same nowNanos): anything not refreshed by that publish has LEFT view.
+     */
     public void expireOld(characters.Team viewer, long nowNanos) {
-        var m = byTeam.get(viewer);
-        if (m == null || ttlNanos <= 0) return;
-        m.values().removeIf(s -> nowNanos - s.seenNanos > ttlNanos);
+        Board b = byTeam.get(viewer);
+        if (b.byId.isEmpty()) return;
+        scratch.clear();
+        for (var g : b.byType.values()) {
+            for (int i = 0; i < g.size(); i++) {
+                Sighting s = g.get(i);
+                if (s.inView && s.seenNanos != nowNanos) {
+                    s.inView = false;
+                    emit(viewer, VisionChange.LEFT, s);
+                }
+                if (ttlNanos > 0 && nowNanos - s.seenNanos > ttlNanos) scratch.add(s);
+            }
+        }
+        // remove after the walk (grids swap-remove)
+        for (int i = 0; i < scratch.size(); i++) {
+            Sighting s = scratch.get(i);
+            b.remove(s);
+            emit(viewer, VisionChange.EXPIRED, s);
+        }
+        scratch.clear();
     }
 
     /* ========================= PUBLISH (from team-aware FOV) ========================= */
@@ -116,27 +290,33 @@ public final class TeamSightings {
     /** Preferred: single pass that writes all visible units using ActorType. */
 // TeamSightings.java
     // TeamSightings.java
-    public void updateFromVisibility(world.World w, characters.Team viewer, boolean[][] vis, long nowNanos) {
+    public void updateFromVisibility(world.World w, characters.Team viewer, world.ChunkedBitGrid vis, long nowNanos) {
         for (characters.Unit u : w.getUnits()) {
             if (u.isDead()) continue;
 
             int r = u.getRowRounded(), c = u.getColRounded();
-            if (!w.inBoundsRC(r, c) || !vis[r][c]) continue;
+            if (!vis.get(r, c)) continue;
 
-            var actor = u.getActor();
-            if (actor == null){
-                System.out.println(" null actor on team:" + u.getTeam());
-                continue;
-            }
-            var type  = actor.getType();
-
-            // If you truly mean *everyone*, drop this type filter too.
-            // Otherwise keep it to only combat-relevant actors:
-            // if (type != ActorType.HUMAN && type != ActorType.DEER && type != ActorType.WOLF) continue;
+            reportSeen(viewer, u, nowNanos);
+        }
+    }
 
-            // ✅ DO NOT drop same-team entries here. Keep the board raw.
-            put(viewer, u.getId(), u.getX(), u.getY(), nowNanos, u.getTeam(), type);
+    /** Target-centric publish: the caller already decided 'viewer' sees u this tick. */
+    public void reportSeen(characters.Team viewer, characters.Unit u, long nowNanos) {
+        if (u.isDead()) return;
+        var actor = u.getActor();
+        if (actor == null){
+            System.out.println(" null actor on team:" + u.getTeam());
+            return;
         }
+        var type  = actor.getType();
+
+        // If you truly mean *everyone*, drop this type filter too.
+        // Otherwise keep it to only combat-relevant actors:
+        // if (type != ActorType.HUMAN && type != ActorType.DEER && type != ActorType.WOLF) continue;
+
+        // ✅ DO NOT drop same-team entries here. Keep the board raw.
+        put(viewer, u.getId(), u.getX(), u.getY(), nowNanos, u.getTeam(), type);
     }
     // Legacy publishers kept for compatibility; now use ActorType under the hood.
 
@@ -158,15 +338,34 @@ public final class TeamSightings {
     /** Generic closest by ActorType. */
     public Sighting closestOfActorType(characters.Team viewer, double x, double y,
                                        characters.ActorType want) {
-        var m = byTeam.get(viewer);
-        if (m == null || m.isEmpty()) return null;
-        double best = Double.POSITIVE_INFINITY; Sighting pick = null;
-        for (Sighting s : m.values()) {
-            if (s.actorType != want) continue;
+        var g = byTeam.get(viewer).byType.get(want);
+        return (g == null) ? null : g.nearest(x, y, null);
+    }
+
+    /** Closest sighting of any type passing filter (null = any). One grid query per ActorType present. */
+    public Sighting closest(characters.Team viewer, double x, double y,
+                            java.util.function.Predicate<? super Sighting> filter) {
+        Sighting pick = null; double best = Double.POSITIVE_INFINITY;
+        for (var g : byTeam.get(viewer).byType.values()) {
+            Sighting s = g.nearest(x, y, filter);
+            if (s == null) continue;
             double dx = s.x - x, dy = s.y - y, d2 = dx * dx + dy * dy;
             if (d2 < best) { best = d2; pick = s; }
         }
         return pick;
     }
 
+    /** Appends the viewer's sightings of type 'want' (null = any) within radius of (x,y); returns how many. */
+    public int within(characters.Team viewer, characters.ActorType want, double x, double y, double radius,
+                      java.util.List<? super Sighting> out) {
+        Board b = byTeam.get(viewer);
+        if (want != null) {
+            var g = b.byType.get(want);
+            return (g == null) ? 0 : g.within(x, y, radius, out);
+        }
+        int n = 0;
+        for (var g : b.byType.values()) n += g.within(x, y, radius, out);
+        return n;
+    }
+
 }
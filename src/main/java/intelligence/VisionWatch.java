@@ -0,0 +1,77 @@
+package intelligence;
+
+import characters.Team;
+import characters.Unit;
+
+/**
+ * Per-AI subscription to its team's sightings board.
+ *
+ * Keeps a running count of board entries the AI cares about (filter), fed by
+ * TeamSightings vision events. While that count is zero a board scan can only return
+ * null, so AIs skip it instead of walking the whole board every tick.
+ *
+ * A relevant sighting entering the board also wakes the unit (Unit.wakeAI), so an AI idling
+ * at a slow think rate reacts on the next tick rather than at its next scheduled think.
+ *
+ * attach() runs inside AI updates, i.e. on a parallel AI lane, so it (un)subscribes through the
+ * World, which queues it for the serial apply. Until then the count is seeded from a read of
+ * the board (boards only change on the sim thread); onSubscribed recounts it for real.
+ */
+public final class VisionWatch implements TeamSightings.VisionListener {
+
+    /** Which sightings matter to this AI (e.g. wolves, or enemy humans + wolves). */
+    public interface Filter { boolean wants(Team me, TeamSightings.Sighting s); }
+
+    private final Filter filter;
+    private Team attachedTeam = null;
+    private TeamSightings board = null;
+    private Unit me = null;
+    private int relevant = 0;        // relevant entries currently on the board
+
+    public VisionWatch(Filter filter) { this.filter = filter; }
+
+    /** Subscribe (or re-subscribe after a team change). Cheap to call every tick. */
+    public void attach(world.World world, Unit me) {
+        if (attachedTeam == me.getTeam() && board == world.getTeamSightings()) return;
+        if (board != null) world.unsubscribeSightings(attachedTeam, me, this);
+        board = world.getTeamSightings();
+        attachedTeam = me.getTeam();
+        this.me = me;
+        world.subscribeSightings(attachedTeam, me, this);
+        relevant = count(board, attachedTeam);   // provisional when the subscribe was deferred
+    }
+
+    @Override
+    public void onSubscribed(Team viewer, TeamSightings board) {
+        relevant = count(board, viewer);
+    }
+
+    // The board dropped us (the unit left the world): the next attach() subscribes afresh.
+    @Override
+    public void onUnsubscribed(Team viewer) {
+        board = null;
+        attachedTeam = null;
+        relevant = 0;
+    }
+
+    private int count(TeamSightings board, Team viewer) {
+        int n = 0;
+        for (TeamSightings.Sighting s : board.view(viewer).values()) {
+            if (filter.wants(viewer, s)) n++;
+        }
+        return n;
+    }
+
+    /** False means a scan of the board with the same filter is guaranteed to find nothing. */
+    public boolean hasCandidates() { return relevant > 0; }
+
+    @Override
+    public void onVisionChange(Team viewer, TeamSightings.VisionChange change, TeamSightings.Sighting s) {
+        if (!filter.wants(viewer, s)) return;
+        if (change == TeamSightings.VisionChange.ENTERED) {
+            relevant++;
+            if (me != null) me.wakeAI();
+        }
+        else if (change == TeamSightings.VisionChange.EXPIRED) relevant = Math.max(0, relevant - 1);
+    }
+}
@@ -4,7 +4,6 @@ import characters.Team;
 import characters.Unit;
 import world.World;
 
-import java.util.Map;
 import java.util.Random;
 
 /** Wolves hunt like the HunterAI, but with a close-range bite. */
@@ -114,10 +113,26 @@ public class WolfAI implements Unit.UnitAI {
         }
     }
 
+    // Board events: skip the prey scan while no prey is on the pack's board
+    private final VisionWatch preyWatch = new VisionWatch((me, s) ->
+            s.team != Team.WOLF && TargetSelector.WOLF_PREY_TYPES.contains(s.actorType));
+
+    // Full rate while hunting; a pack with nothing on its board only checks in now and then
+    // (preyWatch wakes us when prey shows up).
+    @Override
+    public int thinkEvery(world.World world, Unit u) {
+        return switch (state) {
+            case SEARCH -> (hasTarget() || preyWatch.hasCandidates()) ? THINK_FAST : THINK_IDLE;
+            case IDLE   -> THINK_DORMANT;
+            default     -> THINK_FAST;
+        };
+    }
+
     @Override
     public void update(world.World world, Unit u, double dt) {
         if (selector == null) selector = new TargetSelector(world, TRACE_TTL_SEC, SWITCH_MARGIN);
         if (u.isDead()) return;
+        preyWatch.attach(world, u);
 
         // Maintain 5s trace: while active, aim at ACTUAL target position
         if (hasTarget()) {
@@ -152,7 +167,8 @@ public class WolfAI implements Unit.UnitAI {
 
             case SEARCH -> {
                 // 1) Board-driven closest pick (DEER or HUMAN)
-                TargetPick cand = selector.pickClosestFromBoard(u, TargetSelector.WOLF_PREY_TYPES, false);
+                TargetPick cand = !preyWatch.hasCandidates() ? null
+                        : selector.pickClosestFromBoard(u, TargetSelector.WOLF_PREY_TYPES, false);
 
                 // 2) Switch if better (or none/current stale)
                 if (selector.isBetterThanCurrent(u, targetId, lastSeenX, lastSeenY, cand)) {
@@ -320,7 +336,7 @@ public class WolfAI implements Unit.UnitAI {
         if (book == null) return false;
         var s = book.get(targetId);
         if (s == null) return false;
-        long ageNanos = System.nanoTime() - s.seenNanos;
+        long ageNanos = world.nowNanos() - s.seenNanos;
         return ageNanos <= (long)(TRACE_TTL_SEC * 1e9);
     }
 
@@ -330,7 +346,7 @@ public class WolfAI implements Unit.UnitAI {
         if (book == null) return Double.POSITIVE_INFINITY;
         var s = book.get(targetId);
         if (s == null) return Double.POSITIVE_INFINITY;
-        return (System.nanoTime() - s.seenNanos) / 1e9;
+        return (world.nowNanos() - s.seenNanos) / 1e9;
     }
 
     private void setTarget(Unit tgt) {
@@ -349,10 +365,8 @@ public class WolfAI implements Unit.UnitAI {
 
     private Unit getNonWolfById(world.World world, Integer id) {
         if (id == null) return null;
-        for (Unit d : world.getUnits()) {
-            if (d.getId() == id && d.getTeam() != Team.WOLF && !d.isDead()) return d;
-        }
-        return null;
+        Unit d = world.unitById(id);
+        return (d != null && d.getTeam() != Team.WOLF && !d.isDead()) ? d : null;
     }
 
     // Helper kept for parity: now uses board-based visibility
@@ -383,17 +397,9 @@ public class WolfAI implements Unit.UnitAI {
     }
 
     private TeamSightings.Sighting pickClosestSighting(world.World world, Unit u) {
-        Map<Integer, TeamSightings.Sighting> book = world.getSightingsForTeam(u.getTeam());
-        if (book == null || book.isEmpty()) return null;
-        double best = Double.POSITIVE_INFINITY; TeamSightings.Sighting bestS = null;
-        for (TeamSightings.Sighting s : book.values()) {
-            // Only consider non-wolf targets from the board
-            Unit maybe = getNonWolfById(world, s.unitId);
-            if (maybe == null) continue;
-            double d2 = sq(s.x - u.getX()) + sq(s.y - u.getY());
-            if (d2 < best) { best = d2; bestS = s; }
-        }
-        return bestS;
+        // Only consider non-wolf targets from the board
+        return world.getTeamSightings().closest(u.getTeam(), u.getX(), u.getY(),
+                s -> getNonWolfById(world, s.unitId) != null);
     }
 
     // BOARD-BASED team visibility: is the other unit on my team's sightings board?
@@ -0,0 +1,138 @@
+package org.example;
+
+import characters.Team;
+import characters.Unit;
+import world.MatchHost;
+import world.SimulationEngine;
+import world.World;
+
+/**
+ * Runs a scenario with no UI, as fast as the machine goes, and prints throughput.
+ *
+ *   java -cp ... org.example.HeadlessMain [--scenario demo|skirmish|file.properties]
+ *                                         [--ticks N] [--report EVERY] [--ai-threads N] [--quiet]
+ *                                         [--matches N [--realtime]] [--verify]
+ *   java -cp ... org.example.HeadlessMain --bench-units N
+ *
+ * --quiet swallows the AIs' debug logging so it doesn't dominate the numbers.
+ * --verify turns on the world's verify mode: every tick the incremental unit occupancy (counts,
+ * UNIT_PRESENT flags, unit layer) is recounted from scratch and the run stops at the first drift.
+ * It is slow (a full-map pass per tick), so its timings mean nothing.
+ * --matches N loads the scenario N times and runs the copies side by side on a MatchHost
+ * (one carrier per core, one AI thread per match unless --ai-threads says otherwise);
+ * --realtime holds each one to 60 ticks per second instead of running flat out.
+ * --bench-units N skips the scenario and times the per-tick unit scans over N units, off the
+ * UnitStore columns vs. off Unit objects (see UnitScanBench).
+ */
+public class HeadlessMain {
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        String scenario = "skirmish";
+        long ticks = 3600;
+        long report = 0;
+        int aiThreads = Math.min(8, Runtime.getRuntime().availableProcessors());
+        boolean quiet = false;
+        int matches = 1;
+        boolean realTime = false;
+        boolean aiThreadsSet = false;
+        boolean verify = false;
+        int benchUnits = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--scenario" -> scenario = args[++i];
+                case "--ticks"    -> ticks = Long.parseLong(args[++i]);
+                case "--report"   -> report = Long.parseLong(args[++i]);
+                case "--ai-threads" -> { aiThreads = Integer.parseInt(args[++i]); aiThreadsSet = true; }
+                case "--matches"  -> matches = Integer.parseInt(args[++i]);
+                case "--realtime" -> realTime = true;
+                case "--quiet"    -> quiet = true;
+                case "--verify"   -> verify = true;
+                case "--bench-units" -> benchUnits = Integer.parseInt(args[++i]);
+                case "--help", "-h" -> { usage(); return; }
+                default -> { System.err.println("Unknown argument: " + args[i]); usage(); System.exit(2); }
+            }
+        }
+
+        java.io.PrintStream out = System.out;
+        if (benchUnits > 0) { UnitScanBench.run(out, benchUnits); return; }
+        if (quiet) System.setOut(new java.io.PrintStream(java.io.OutputStream.nullOutputStream()));
+
+        if (matches > 1 || realTime) {
+            runHosted(out, scenario, ticks, matches, realTime, aiThreadsSet ? aiThreads : 1, verify);
+            System.setOut(out);
+            return;
+        }
+
+        World world = Scenario.load(scenario);
+        world.setUnitMaskVerify(verify);
+        SimulationEngine engine = new SimulationEngine(world, aiThreads);
+        out.printf("scenario=%s map=%dx%d units=%d ticks=%d aiThreads=%d%n",
+                scenario, world.getHeight(), world.getWidth(), world.getUnits().size(), ticks, aiThreads);
+
+        long t0 = System.nanoTime();
+        for (long done = 0; done < ticks; ) {
+            long n = (report > 0) ? Math.min(report, ticks - done) : ticks - done;
+            engine.run(n);
+            done += n;
+            if (report > 0) {
+                out.printf("tick %d  sim %.1fs  step %.3fms  thinks %d  %s%n",
+                        world.getClock().tick(), world.nowSeconds(), engine.getEmaStepMs(),
+                        engine.getAiThinksLastStep(), teamCounts(world));
+            }
+        }
+        long wall = System.nanoTime() - t0;
+        engine.close();
+        System.setOut(out);
+
+        double wallSec = wall / 1e9;
+        out.printf("ran %d ticks (%.1f sim s) in %.3f s wall: %.1f ticks/s, %.3f ms/tick%n",
+                ticks, world.nowSeconds(), wallSec, ticks / wallSec, wall / 1e6 / Math.max(1, ticks));
+        out.printf("alive %s  chunked %d KB%n", teamCounts(world), world.chunkedBytes() / 1024);
+    }
+
+    private static void runHosted(java.io.PrintStream out, String scenario, long ticks, int matches,
+                                  boolean realTime, int aiThreads, boolean verify) throws Exception {
+        java.util.List<MatchHost.Match> running = new java.util.ArrayList<>();
+        try (MatchHost host = new MatchHost(Runtime.getRuntime().availableProcessors(), Math.max(64, matches), 0.8)) {
+            out.printf("scenario=%s matches=%d ticks=%d carriers=%d aiThreads=%d%s%n",
+                    scenario, matches, ticks, host.getCarriers(), aiThreads, realTime ? " realtime" : "");
+            long t0 = System.nanoTime();
+            for (int i = 0; i < matches; i++) {
+                World world = Scenario.load(scenario);
+                world.setUnitMaskVerify(verify);
+                MatchHost.Match m = host.submit("match-" + (i + 1), world, aiThreads, ticks, realTime);
+                if (m == null) { out.printf("match-%d turned away (load %.2f)%n", i + 1, host.getLoad()); continue; }
+                running.add(m);
+            }
+            for (MatchHost.Match m : running) m.await();
+            long wall = System.nanoTime() - t0;
+
+            long total = 0;
+            for (MatchHost.Match m : running) {
+                out.println(m);
+                total += m.getTicks();
+            }
+            double wallSec = wall / 1e9;
+            out.printf("ran %d matches, %d ticks in %.3f s wall: %.1f ticks/s overall%n",
+                    running.size(), total, wallSec, total / wallSec);
+        }
+    }
+
+    private static String teamCounts(World world) {
+        int[] n = new int[Team.values().length];
+        for (Unit u : world.getUnits()) if (!u.isDead()) n[u.getTeam().ordinal()]++;
+        StringBuilder sb = new StringBuilder();
+        for (Team t : Team.values()) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(t).append('=').append(n[t.ordinal()]);
+        }
+        return sb.toString();
+    }
+
+    private static void usage() {
+        System.out.println("usage: HeadlessMain [--scenario demo|skirmish|file.properties] [--ticks N] [--report EVERY] [--ai-threads N] [--quiet] [--matches N [--realtime]] [--verify]");
+        System.out.println("       HeadlessMain --bench-units N");
+    }
+}
@@ -1,9 +1,5 @@
 package org.example;
 
-import characters.Horse;
-import characters.Human;
-import characters.Team;
-import characters.Unit;
 import world.World;
 import world.WorldPanel;
 
@@ -17,53 +13,7 @@ public class Main {
 
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
-            World world = new World(100, 160, 2); // bigger map to test camera
-            // Generate 5 patches, try 24 blocks each, leave corridor every 4th row/col
-            world.generateWoods(10, 24, 2, 12345L);
-            world.generateStones(20, 24, 2, 12345L);
-            var horse = world.spawnActor(new Horse(), 6, 6);
-            horse.setTeam(Team.RED);
-            // spawn a deer using spawnActor (no team set)
-            int r = 12, c = 18;
-            if (!world.isBlocked(r, c, null)) {
-                characters.Unit deer = world.spawnActor(new characters.Deer(), r, c);
-                deer.__engine_setLength(2);                 // so it renders with the capsule shape
-                deer.setAI(new intelligence.DeerAI());      // wandering/fleeing brain
-                deer.setTeam(Team.NEUTRAL);
-                // no team call — deer stays neutral / teamless per your setup
-            }
-            if (!world.isBlocked(r, c, null)) {
-                characters.Unit deer = world.spawnActor(new characters.Deer(), r+2, c);
-                deer.__engine_setLength(2);                 // so it renders with the capsule shape
-                deer.setAI(new intelligence.DeerAI());      // wandering/fleeing brain
-                deer.setTeam(Team.NEUTRAL);
-                // no team call — deer stays neutral / teamless per your setup
-            }
-
-            Human archer = Human.basicFootman();
-            archer.setName("Archer");
-            archer.setHasShortBow(true);
-//            world.spawnActor(archer, 6, 8).setTeam(Team.BLUE);
-
-            Human redFoot = Human.basicFootman();
-            redFoot.setName("Red Footman");
-            world.spawnActor(redFoot, 3, 3).setTeam(Team.RED);
-
-            Human blueFoot = Human.basicFootman();
-            blueFoot.setName("Blue Footman");
-            world.spawnActor(blueFoot, 7, 5).setTeam(Team.BLUE);
-
-            Human builder = Human.basicFootman();
-            builder.setName("Builder");
-            builder.setCanBuildWalls(true);
-            world.spawnActor(builder, 4, 5).setTeam(Team.RED);
-            // --- NEW: drop a wolf den + 3 wolves somewhere open ---
-            // Example: try a few random clear spots near the middle-right
-          // 3x3 or 3x4 depending on your Type
-//            world.generateWolfDenAndPack(30, 40);                 // spawns 3 wolves, sets AI with den id
-
-            // Control point
-//            world.addControlPoint(new world.ControlPoint(1, 5, 8, 5, 1.5));
+            World world = Scenario.demo();
 
             // Frame
             JFrame frame = new JFrame("World Grid");
@@ -0,0 +1,169 @@
+package org.example;
+
+import characters.Horse;
+import characters.Human;
+import characters.Team;
+import characters.Unit;
+import world.Building;
+import world.World;
+
+/**
+ * Starting setups, shared by the Swing app (Main) and the headless runner (HeadlessMain).
+ *
+ * load() takes a built-in name ("demo", "skirmish") or a path to a .properties file:
+ *
+ *   height=200  width=300  seed=1
+ *   woods=20  stones=20          # patches
+ *   deer=10  wolfDens=2
+ *   menAtArms=20  lumberjacks=4  # per team (RED top-left, BLUE bottom-right)
+ *
+ * Missing keys fall back to the skirmish defaults above.
+ */
+public final class Scenario {
+    private Scenario() {}
+
+    public static World load(String spec) throws java.io.IOException {
+        switch (spec) {
+            case "demo":     return demo();
+            case "skirmish": return fromProperties(new java.util.Properties());
+            default:
+                java.util.Properties p = new java.util.Properties();
+                try (var in = java.nio.file.Files.newBufferedReader(java.nio.file.Path.of(spec))) {
+                    p.load(in);
+                }
+                return fromProperties(p);
+        }
+    }
+
+    /** The small hand-placed map the Swing app opens with. */
+    public static World demo() {
+        World world = new World(100, 160, 2); // bigger map to test camera
+        // Generate 5 patches, try 24 blocks each, leave corridor every 4th row/col
+        world.generateWoods(10, 24, 2, 12345L);
+        world.generateStones(20, 24, 2, 12345L);
+        var horse = world.spawnActor(new Horse(), 6, 6);
+        horse.setTeam(Team.RED);
+        // spawn a deer using spawnActor (no team set)
+        int r = 12, c = 18;
+        if (!world.isBlocked(r, c, null)) spawnDeer(world, r, c);
+        if (!world.isBlocked(r, c, null)) spawnDeer(world, r + 2, c);
+
+        Human archer = Human.basicFootman();
+        archer.setName("Archer");
+        archer.setHasShortBow(true);
+//            world.spawnActor(archer, 6, 8).setTeam(Team.BLUE);
+
+        Human redFoot = Human.basicFootman();
+        redFoot.setName("Red Footman");
+        world.spawnActor(redFoot, 3, 3).setTeam(Team.RED);
+
+        Human blueFoot = Human.basicFootman();
+        blueFoot.setName("Blue Footman");
+        world.spawnActor(blueFoot, 7, 5).setTeam(Team.BLUE);
+
+        Human builder = Human.basicFootman();
+        builder.setName("Builder");
+        builder.setCanBuildWalls(true);
+        world.spawnActor(builder, 4, 5).setTeam(Team.RED);
+        // --- NEW: drop a wolf den + 3 wolves somewhere open ---
+//            world.generateWolfDenAndPack(30, 40);                 // spawns 3 wolves, sets AI with den id
+
+        // Control point
+//            world.addControlPoint(new world.ControlPoint(1, 5, 8, 5, 1.5));
+        return world;
+    }
+
+    /** Generated two-team map (see class doc for keys). */
+    public static World fromProperties(java.util.Properties p) {
+        int height = intProp(p, "height", 200), width = intProp(p, "width", 300);
+        long seed = Long.parseLong(p.getProperty("seed", "1").trim());
+        World world = new World(height, width, 2);
+        world.generateWoods(intProp(p, "woods", 20), 24, 2, seed);
+        world.generateStones(intProp(p, "stones", 20), 24, 2, seed + 1);
+
+        java.util.Random rng = new java.util.Random(seed);
+        int menAtArms = intProp(p, "menAtArms", 20), lumberjacks = intProp(p, "lumberjacks", 4);
+        placeBase(world, Team.RED, 10, 10, menAtArms, lumberjacks);
+        placeBase(world, Team.BLUE, height - 20, width - 30, menAtArms, lumberjacks);
+
+        for (int i = 0, n = intProp(p, "deer", 10); i < n; i++) {
+            int[] t = freeTileNear(world, rng.nextInt(height), rng.nextInt(width));
+            if (t != null) spawnDeer(world, t[0], t[1]);
+        }
+        for (int i = 0, n = intProp(p, "wolfDens", 2), tries = 0; i < n && tries < 50 * n; tries++) {
+            if (world.generateWolfDenAndPack(rng.nextInt(height), rng.nextInt(width)) != null) i++;
+        }
+        return world;
+    }
+
+    // ---------------- helpers ----------------
+
+    private static void spawnDeer(World world, int r, int c) {
+        Unit deer = world.spawnActor(new characters.Deer(), r, c);
+        deer.__engine_setLength(2);                 // so it renders with the capsule shape
+        deer.setAI(new intelligence.DeerAI());      // wandering/fleeing brain
+        deer.setTeam(Team.NEUTRAL);
+    }
+
+    /** Barracks + men-at-arms, logging camp + lumberjacks, around (r,c). */
+    private static void placeBase(World world, Team team, int r, int c, int menAtArms, int lumberjacks) {
+        Building barracks = placeNear(world, Building.Type.BARRACKS, team, r, c);
+        Building camp = placeNear(world, Building.Type.LOGGING_CAMP, team, r, c + 8);
+        for (int i = 0; i < menAtArms; i++) {
+            Unit u = spawnFootman(world, team, r + 4, c);
+            if (u != null && barracks != null) world.promoteToManAtArms(u, barracks);
+        }
+        for (int i = 0; i < lumberjacks; i++) {
+            Unit u = spawnFootman(world, team, r + 4, c + 8);
+            if (u != null && camp != null) world.assignLumberWorker(u, camp);
+        }
+    }
+
+    private static Unit spawnFootman(World world, Team team, int r, int c) {
+        int[] t = freeTileNear(world, r, c);
+        if (t == null) return null;
+        Unit u = world.spawnActor(Human.basicFootman(), t[0], t[1]);
+        u.setTeam(team);
+        return u;
+    }
+
+    /** Places a building of 'type' at the first free spot in growing rings around (r,c). */
+    private static Building placeNear(World world, Building.Type type, Team team, int r, int c) {
+        for (int rad = 0; rad < 40; rad++) {
+            for (int dr = -rad; dr <= rad; dr++) {
+                for (int dc = -rad; dc <= rad; dc++) {
+                    if (Math.max(Math.abs(dr), Math.abs(dc)) != rad) continue;
+                    int top = r + dr, left = c + dc;
+                    if (!world.canPlaceBuilding(type, top, left)) continue;
+                    boolean ok = switch (type) {
+                        case BARRACKS     -> world.addBarracks(top, left, team);
+                        case LOGGING_CAMP -> world.addLoggingCamp(top, left, team);
+                        default -> false;
+                    };
+                    if (ok) return world.buildingAt(top, left);
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Nearest tile to (r,c) nothing stands on (ring search), or null. */
+    private static int[] freeTileNear(World world, int r, int c) {
+        for (int rad = 0; rad < 40; rad++) {
+            for (int dr = -rad; dr <= rad; dr++) {
+                for (int dc = -rad; dc <= rad; dc++) {
+                    if (Math.max(Math.abs(dr), Math.abs(dc)) != rad) continue;
+                    int rr = r + dr, cc = c + dc;
+                    if (!world.inBoundsRC(rr, cc) || world.isBlocked(rr, cc, null)) continue;
+                    return new int[]{ rr, cc };
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int intProp(java.util.Properties p, String key, int def) {
+        String v = p.getProperty(key);
+        return (v == null) ? def : Integer.parseInt(v.trim());
+    }
+}
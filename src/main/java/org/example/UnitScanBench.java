@@ -0,0 +1,126 @@
+package org.example;
+
+import characters.Team;
+import characters.Unit;
+import world.UnitStore;
+import world.World;
+
+/**
+ * HeadlessMain --bench-units N: times the bulk unit scans the sim does every tick (team / life
+ * filter as in visibility and hasAnyUnits, tile probe as in isOccupiedByUnit) three ways over
+ * N units:
+ *
+ *   store    straight off the UnitStore columns, as World does now
+ *   objects  one Unit object per unit, fields read off the object (the layout before UnitStore)
+ *   handles  the same units through their getters while attached (what an outside caller pays)
+ *
+ * The object units are built one after another with their actors, like spawns, so they sit on the
+ * heap as they would in a game. Each scan runs a warm-up, then the best of several timed rounds
+ * is reported in ns per unit. No JMH: it is a plain loop with the usual JIT caveats, good for
+ * relative numbers on one machine.
+ */
+final class UnitScanBench {
+    private static final int ROUNDS = 15;
+    private static final int TEAMS = Team.values().length;
+
+    private UnitScanBench() {}
+
+    static void run(java.io.PrintStream out, int n) {
+        int side = (int) Math.ceil(Math.sqrt(n));
+        World world = new World(side, side, 2);
+        java.util.List<Unit> loose = new java.util.ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Team t = Team.values()[i % TEAMS];
+            Unit u = world.spawnActor(new characters.Wolf(characters.ActorType.WOLF), i / side, i % side);
+            u.setTeam(t);
+            Unit o = new Unit(new characters.Wolf(characters.ActorType.WOLF), i % side, i / side, t);   // spawnActor's argument order
+            loose.add(o);
+        }
+        UnitStore st = world.getUnitStore();
+        java.util.List<Unit> attached = world.getUnits();
+        int reps = Math.max(1, 20_000_000 / n);   // ~20M unit visits per round
+        int probeR = side / 2, probeC = side / 2;
+
+        out.printf("unit scan bench: %d units, %d reps per round, best of %d rounds (ns/unit)%n", n, reps, ROUNDS);
+        out.printf("%-12s %9s %9s %9s%n", "scan", "store", "objects", "handles");
+        report(out, "team/life", n, reps,
+                () -> teamStore(st, reps), () -> teamObjects(loose, reps), () -> teamObjects(attached, reps));
+        report(out, "tile probe", n, reps,
+                () -> probeStore(st, probeR, probeC, reps), () -> probeObjects(loose, probeR, probeC, reps),
+                () -> probeObjects(attached, probeR, probeC, reps));
+    }
+
+    private static void report(java.io.PrintStream out, String name, int n, int reps,
+                               java.util.function.LongSupplier store, java.util.function.LongSupplier objects,
+                               java.util.function.LongSupplier handles) {
+        long s = store.getAsLong(), o = objects.getAsLong(), h = handles.getAsLong();
+        if (s != o || s != h) throw new IllegalStateException(name + ": results differ " + s + " " + o + " " + h);
+        double visits = (double) n * reps;
+        out.printf("%-12s %9.3f %9.3f %9.3f%n", name,
+                best(store) / visits, best(objects) / visits, best(handles) / visits);
+    }
+
+    // warm-up, then the fastest of ROUNDS timed runs in ns
+    private static long best(java.util.function.LongSupplier scan) {
+        long sink = 0;
+        for (int i = 0; i < 3; i++) sink += scan.getAsLong();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long t0 = System.nanoTime();
+            sink += scan.getAsLong();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        if (sink == 42) System.out.print("");   // keep the results live
+        return best;
+    }
+
+    // ---------------- scans ----------------
+
+    // Live units per team, summed over the teams (every unit read once per team, like a per-viewer pass).
+    private static long teamStore(UnitStore st, int reps) {
+        int dead = Unit.LifeState.DEAD.ordinal();
+        long hits = 0;
+        for (int k = 0; k < reps; k++) {
+            int team = k % TEAMS;
+            for (int i = 0, n = st.size(); i < n; i++) {
+                if (st.team(i) == team && st.life(i) != dead) hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static long teamObjects(java.util.List<Unit> units, int reps) {
+        Team[] teams = Team.values();
+        long hits = 0;
+        for (int k = 0; k < reps; k++) {
+            Team team = teams[k % TEAMS];
+            for (int i = 0, n = units.size(); i < n; i++) {
+                Unit u = units.get(i);
+                if (u.getTeam() == team && !u.isDead()) hits++;
+            }
+        }
+        return hits;
+    }
+
+    // Units standing on one tile (the whole list is scanned, as isOccupiedByUnit does).
+    private static long probeStore(UnitStore st, int row, int col, int reps) {
+        long hits = 0;
+        for (int k = 0; k < reps; k++) {
+            for (int i = 0, n = st.size(); i < n; i++) {
+                if (Math.round(st.y(i)) == row && Math.round(st.x(i)) == col) hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static long probeObjects(java.util.List<Unit> units, int row, int col, int reps) {
+        long hits = 0;
+        for (int k = 0; k < reps; k++) {
+            for (int i = 0, n = units.size(); i < n; i++) {
+                Unit u = units.get(i);
+                if (Math.round(u.getY()) == row && Math.round(u.getX()) == col) hits++;
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,174 @@
+package world;
+
+import characters.Unit;
+
+/**
+ * The AI decision step of a tick, spread over a small worker pool.
+ *
+ * This tick's due units (World.aiDue: think timers that fired plus units woken by events) are
+ * cut into contiguous slices ("lanes"); each lane ticks its units' AIs in order on whichever
+ * worker picks it up. While the phase runs the world is treated as read-only:
+ * World.resolveMeleeHit / fireArrowShot / notifyUnit* see the lane bound to the current thread
+ * and queue a command instead of mutating (see CommandBuffer). Once every lane is done the
+ * buffers are merged by the id of the unit that issued each command and applied on the calling
+ * thread: units in id order, each unit's commands in the order its AI issued them. That order
+ * depends neither on where units sit in the due list (which swap-removes reshuffle) nor on the
+ * lane / thread count or scheduling. Then each unit that thought arms its next think timer.
+ *
+ * Each lane also carries its own LOS memo, so the parallel LOS queries don't share the world's.
+ *
+ * Not everything is buffered. Path and aim changes (World.commandMove / findPath, Unit.setPath,
+ * the aim override), think timers and the AI's own fields are written straight from the lane.
+ * That is only safe because each unit is ticked by exactly one lane, those writes touch nothing
+ * but that unit's own Unit object (path search allocates its own scratch), and no AI reads
+ * another unit's path or aim during the phase (movement runs after it). Anything that writes
+ * shared state -- grids, indexes, sighting boards, another unit -- needs a CommandBuffer kind.
+ *
+ * With one thread (or too few units to be worth splitting) everything runs inline on the caller,
+ * through the same buffers.
+ *
+ * Units waiting out their think rate (Unit.UnitAI.thinkEvery) aren't visited at all, which is
+ * what keeps big idle populations cheap.
+ */
+final class AIPhase implements AutoCloseable {
+    private static final int MIN_BATCH = 16;         // units per lane at least
+    private static final int LANES_PER_THREAD = 4;   // a few extra lanes so stealing evens out hot spots
+
+    /** Per-slice state: queued commands + private LOS memo. */
+    static final class Lane {
+        final CommandBuffer commands = new CommandBuffer();
+        final LosCache los = new LosCache();
+        int from, to;   // unit index range [from, to)
+        int issuer;     // id of the unit whose AI is running (tags its commands)
+    }
+
+    private static final ThreadLocal<Lane> CURRENT = new ThreadLocal<>();
+
+    /** Lane bound to this thread while the phase runs, else null. */
+    static Lane current() { return CURRENT.get(); }
+
+    private final int threads;
+    private final java.util.concurrent.ForkJoinPool pool;   // null when single-threaded
+    private Lane[] lanes = new Lane[0];
+    private final CommandBuffer merged = new CommandBuffer();
+    private final java.util.ArrayList<Unit> thinking = new java.util.ArrayList<>();
+    private int lastThinks;
+    private final java.util.ArrayList<java.util.concurrent.Callable<Void>> tasks = new java.util.ArrayList<>();
+
+    AIPhase(int threads) {
+        this.threads = Math.max(1, threads);
+        if (this.threads == 1) {
+            pool = null;
+        } else {
+            java.util.concurrent.atomic.AtomicInteger seq = new java.util.concurrent.atomic.AtomicInteger();
+            pool = new java.util.concurrent.ForkJoinPool(this.threads, p -> {
+                java.util.concurrent.ForkJoinWorkerThread t =
+                        java.util.concurrent.ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                t.setName("ai-worker-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }, null, false);
+        }
+    }
+
+    int threads() { return threads; }
+
+    /** How many AIs ran in the last phase (see Unit.UnitAI.thinkEvery). */
+    int lastThinks() { return lastThinks; }
+
+    /** Tick every due unit's AI, then apply what they asked of the world. */
+    void run(World world) {
+        // claim the due list (drops stale entries: units that left, or were queued twice)
+        java.util.ArrayList<Unit> due = world.aiDue();
+        thinking.clear();
+        for (int i = 0, m = due.size(); i < m; i++) {
+            Unit u = due.get(i);
+            if (u.__engine_claimThink(world)) thinking.add(u);
+        }
+        due.clear();
+        java.util.List<Unit> units = thinking;
+        int n = units.size();
+        lastThinks = n;
+        if (n == 0) return;
+
+        int laneCount = (pool == null) ? 1
+                : Math.max(1, Math.min(threads * LANES_PER_THREAD, n / MIN_BATCH));
+        ensureLanes(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i].from = (int) ((long) n * i / laneCount);
+            lanes[i].to   = (int) ((long) n * (i + 1) / laneCount);
+            lanes[i].commands.clear();   // leftovers only if a previous phase threw
+            lanes[i].los.invalidate();   // forget last tick's answers
+        }
+
+        world.setAIDeferring(true);
+        try {
+            if (laneCount == 1) {
+                tickLane(lanes[0], units, world);
+            } else {
+                tasks.clear();
+                for (int i = 0; i < laneCount; i++) {
+                    Lane lane = lanes[i];
+                    tasks.add(() -> { tickLane(lane, units, world); return null; });
+                }
+                for (java.util.concurrent.Future<Void> f : pool.invokeAll(tasks)) {
+                    try {
+                        f.get();
+                    } catch (java.util.concurrent.ExecutionException e) {
+                        Throwable c = e.getCause();
+                        if (c instanceof RuntimeException re) throw re;
+                        if (c instanceof Error err) throw err;
+                        throw new IllegalStateException(c);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("AI phase interrupted", e);
+        } finally {
+            world.setAIDeferring(false);
+        }
+
+        // Serial apply, in issuing-unit id order.
+        merged.clear();
+        for (int i = 0; i < laneCount; i++) {
+            Lane lane = lanes[i];
+            merged.addAll(lane.commands);
+            lane.commands.clear();
+            world.absorbLosCounts(lane.los);
+        }
+        merged.sortByIssuer();
+        try {
+            world.applyDeferred(merged);
+        } finally {
+            merged.clear();
+        }
+        for (int i = 0; i < n; i++) units.get(i).__engine_scheduleThink();
+        thinking.clear();
+    }
+
+    private static void tickLane(Lane lane, java.util.List<Unit> units, World world) {
+        CURRENT.set(lane);
+        try {
+            for (int i = lane.from; i < lane.to; i++) {
+                Unit u = units.get(i);
+                lane.issuer = u.getId();
+                u.tickAI(world);
+            }
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    private void ensureLanes(int n) {
+        if (lanes.length >= n) return;
+        Lane[] grown = java.util.Arrays.copyOf(lanes, n);
+        for (int i = lanes.length; i < n; i++) grown[i] = new Lane();
+        lanes = grown;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) pool.shutdownNow();
+    }
+}
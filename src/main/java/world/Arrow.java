@@ -1,10 +1,11 @@
 package world;
 
 public class Arrow {
-    public final double sx, sy, tx, ty;
-    public final double speedCellsPerSec;
-    public final int shooterId;
-    public final Integer targetId; // nullable
+    // Reused: the world keeps finished arrows in a pool and re-aims them (see World.fireArrowShot)
+    public double sx, sy, tx, ty;
+    public double speedCellsPerSec;
+    public int shooterId;
+    public int targetId; // 0 = purely visual (ids are never 0)
     public double dist;
     public double t; // 0..1 param along the segment
 
@@ -14,7 +15,13 @@ public class Arrow {
     public double getY(){ return (t >= 1.0 ? ty : cy); }
 
     public Arrow(double sx, double sy, double tx, double ty, double speedCellsPerSec,
-                 int shooterId, Integer targetId) {
+                 int shooterId, int targetId) {
+        set(sx, sy, tx, ty, speedCellsPerSec, shooterId, targetId);
+    }
+
+    /** (Re)launch this arrow from (sx,sy) toward (tx,ty). */
+    final Arrow set(double sx, double sy, double tx, double ty, double speedCellsPerSec,
+              int shooterId, int targetId) {
         this.sx = sx; this.sy = sy; this.tx = tx; this.ty = ty;
         this.speedCellsPerSec = speedCellsPerSec;
         this.shooterId = shooterId;
@@ -22,6 +29,7 @@ public class Arrow {
         this.dist = Math.hypot(tx - sx, ty - sy);
         this.t = 0.0;
         this.cx = sx; this.cy = sy;
+        return this;
     }
 
     /** advance; returns true when reached target */
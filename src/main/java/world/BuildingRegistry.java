@@ -0,0 +1,104 @@
+package world;
+
+import characters.Team;
+
+/**
+ * World's building index: id -> Building, tile -> building id, per-(team, type) live lists, and
+ * BUCKET x BUCKET spatial buckets (by top-left tile) for window queries.
+ *
+ * The tile grid is stamped alongside the BUILDING tile flag, so buildingAt(r,c) is one array read.
+ * Per-(team, type) lists are handed out as cached read-only views and counts are kept up to
+ * date on add, so "does RED have a FARM?" costs nothing and allocates nothing.
+ */
+final class BuildingRegistry {
+    private static final int TYPES = Building.Type.values().length;
+    private static final int BUCKET = 8;
+    private static final int MAX_H, MAX_W;   // largest footprint, how far a window query looks back
+    static {
+        int h = 1, w = 1;
+        for (Building.Type t : Building.Type.values()) { h = Math.max(h, t.h); w = Math.max(w, t.w); }
+        MAX_H = h; MAX_W = w;
+    }
+
+    private final int height, width;
+    private final ChunkedIntGrid tileIds;        // 0 = no building; chunks only under buildings
+    private Building[] byId = new Building[32];  // ids are dense, starting at 1
+    private int nextId = 1;
+    private final int bw, bh;
+    private final Building[][] buckets;          // allocated on first building in the bucket
+    private final int[] bucketCounts;
+
+    // indexed by slot(team, type)
+    private final java.util.List<java.util.List<Building>> lists = new java.util.ArrayList<>();
+    private final java.util.List<java.util.List<Building>> views = new java.util.ArrayList<>();
+
+    BuildingRegistry(int height, int width) {
+        this.height = height; this.width = width;
+        this.tileIds = new ChunkedIntGrid(height, width, 0);
+        this.bw = Math.max(1, (width + BUCKET - 1) / BUCKET);
+        this.bh = Math.max(1, (height + BUCKET - 1) / BUCKET);
+        this.buckets = new Building[bw * bh][];
+        this.bucketCounts = new int[bw * bh];
+        int n = Team.values().length * TYPES;
+        for (int i = 0; i < n; i++) {
+            java.util.List<Building> list = new java.util.ArrayList<>();
+            lists.add(list);
+            views.add(java.util.Collections.unmodifiableList(list));
+        }
+    }
+
+    private static int slot(Team team, Building.Type t) { return team.ordinal() * TYPES + t.ordinal(); }
+
+    /** Gives b its id, stamps its footprint and files it under (team, type) and its bucket. */
+    void add(Building b) {
+        int id = nextId++;
+        b.__engine_setId(id);
+        if (id >= byId.length) byId = java.util.Arrays.copyOf(byId, byId.length * 2);
+        byId[id] = b;
+        stamp(b, id);
+        lists.get(slot(b.getTeam(), b.getType())).add(b);
+
+        int k = clamp(b.getRow() / BUCKET, bh) * bw + clamp(b.getCol() / BUCKET, bw);
+        Building[] arr = buckets[k];
+        if (arr == null) arr = buckets[k] = new Building[4];
+        else if (bucketCounts[k] == arr.length) arr = buckets[k] = java.util.Arrays.copyOf(arr, arr.length * 2);
+        arr[bucketCounts[k]++] = b;
+    }
+
+    private void stamp(Building b, int id) {
+        tileIds.fillRect(b.getRow(), b.getCol(), b.getType().h, b.getType().w, id);
+    }
+
+    Building get(int id) { return (id > 0 && id < nextId) ? byId[id] : null; }
+
+    Building at(int r, int c) {
+        if (r < 0 || c < 0 || r >= height || c >= width) return null;
+        int id = tileIds.get(r, c);
+        return (id == 0) ? null : byId[id];
+    }
+
+    java.util.List<Building> of(Team team, Building.Type t) { return views.get(slot(team, t)); }
+
+    int count(Team team, Building.Type t) { return lists.get(slot(team, t)).size(); }
+
+    /** Appends the buildings touching rows [r0, rEnd) x cols [c0, cEnd) to out. */
+    void inRect(int r0, int c0, int rEnd, int cEnd, java.util.List<? super Building> out) {
+        if (r0 >= rEnd || c0 >= cEnd) return;
+        int bra = clamp((r0 - MAX_H + 1) / BUCKET, bh), brb = clamp((rEnd - 1) / BUCKET, bh);
+        int bca = clamp((c0 - MAX_W + 1) / BUCKET, bw), bcb = clamp((cEnd - 1) / BUCKET, bw);
+        for (int br = bra; br <= brb; br++) {
+            for (int bc = bca; bc <= bcb; bc++) {
+                int k = br * bw + bc;
+                Building[] arr = buckets[k];
+                for (int i = 0, n = bucketCounts[k]; i < n; i++) {
+                    Building b = arr[i];
+                    Building.Type t = b.getType();
+                    if (b.getRow() + t.h <= r0 || b.getRow() >= rEnd || b.getCol() + t.w <= c0 || b.getCol() >= cEnd) continue;
+                    out.add(b);
+                }
+            }
+        }
+    }
+
+    private static int clamp(int v, int n) { return v < 0 ? 0 : (v >= n ? n - 1 : v); }
+}
@@ -0,0 +1,91 @@
+package world;
+
+/**
+ * One bit per tile in lazily allocated 32x32 chunks (16 longs each; see ChunkedGrid).
+ *
+ * Used for the fog / visibility grids: only chunks something has been seen in get storage,
+ * and clearing a scratch grid costs the chunks it touched, not the map area.
+ */
+public final class ChunkedBitGrid extends ChunkedGrid {
+    private static final int WORDS = CHUNK * CHUNK / 64;
+
+    private final long[][] chunks;
+
+    ChunkedBitGrid(int height, int width) {
+        super(height, width);
+        this.chunks = new long[chunksW * chunksH][];
+    }
+
+    /** Bit at (r,c); out of bounds reads as false. */
+    public boolean get(int r, int c) {
+        if (r < 0 || c < 0 || r >= height || c >= width) return false;
+        long[] ch = chunks[chunkOf(r, c)];
+        if (ch == null) return false;
+        int i = local(r, c);
+        return (ch[i >> 6] & (1L << i)) != 0;
+    }
+
+    /** Sets/clears (r,c); returns true if the bit changed. Must be in bounds. */
+    boolean set(int r, int c, boolean on) {
+        int k = chunkOf(r, c);
+        long[] ch = chunks[k];
+        if (ch == null) {
+            if (!on) return false;
+            ch = chunks[k] = new long[WORDS];
+            countAllocated(1);
+        }
+        int i = local(r, c);
+        long w = ch[i >> 6], m = 1L << i;
+        long nw = on ? (w | m) : (w & ~m);
+        if (nw == w) return false;
+        ch[i >> 6] = nw;
+        touch(k);
+        return true;
+    }
+
+    /** All bits off; storage is dropped. */
+    void clear() {
+        for (int k = 0; k < chunks.length; k++) {
+            if (chunks[k] == null) continue;
+            chunks[k] = null;
+            touch(k);
+        }
+        countAllocated(-allocatedChunks());
+    }
+
+    /** Appends r*width + c of every set tile to out (walks allocated chunks only). */
+    void collect(World.IntList out) {
+        for (int k = 0; k < chunks.length; k++) {
+            long[] ch = chunks[k];
+            if (ch == null) continue;
+            int r0 = (k / chunksW) << SHIFT, c0 = (k % chunksW) << SHIFT;
+            for (int wi = 0; wi < WORDS; wi++) {
+                long bits = ch[wi];
+                while (bits != 0) {
+                    int i = (wi << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    out.add((r0 + (i >> SHIFT)) * width + c0 + (i & MASK));
+                }
+            }
+        }
+    }
+
+    /** Frees chunks with no bits set. Returns how many were freed. */
+    int trim() {
+        int freed = 0;
+        for (int k = 0; k < chunks.length; k++) {
+            long[] ch = chunks[k];
+            if (ch == null) continue;
+            boolean blank = true;
+            for (long w : ch) if (w != 0) { blank = false; break; }
+            if (!blank) continue;
+            chunks[k] = null;
+            freed++;
+        }
+        countAllocated(-freed);
+        return freed;
+    }
+
+    @Override
+    public long allocatedBytes() { return (long) allocatedChunks() * (WORDS * 8L + 16); }
+}
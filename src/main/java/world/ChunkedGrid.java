@@ -0,0 +1,79 @@
+package world;
+
+/**
+ * Chunk geometry and bookkeeping shared by the lazily allocated grids (ChunkedIntGrid, ChunkedBitGrid).
+ *
+ * The map is cut into CHUNK x CHUNK tiles. A chunk's storage only exists once something
+ * non-default is written into it, so a big, mostly empty map costs a directory of null refs.
+ * Every write that changes a value bumps the chunk's version and sets its dirty bit: caches keyed
+ * on (chunk, version) can tell what to redo, and incremental consumers can drain the dirty set.
+ */
+public abstract class ChunkedGrid {
+    public static final int SHIFT = 5;
+    public static final int CHUNK = 1 << SHIFT;   // 32x32 tiles
+    static final int MASK = CHUNK - 1;
+
+    final int height, width;
+    final int chunksW, chunksH;
+    private final int[] versions;
+    private final long[] dirty;       // one bit per chunk
+    private int allocated;
+
+    ChunkedGrid(int height, int width) {
+        this.height = height; this.width = width;
+        this.chunksW = Math.max(1, (width + MASK) >> SHIFT);
+        this.chunksH = Math.max(1, (height + MASK) >> SHIFT);
+        this.versions = new int[chunksW * chunksH];
+        this.dirty = new long[(versions.length + 63) >> 6];
+    }
+
+    public int getHeight() { return height; }
+    public int getWidth()  { return width; }
+
+    /** Chunk index of tile (r,c): (r / CHUNK) * chunksW + (c / CHUNK). */
+    public final int chunkOf(int r, int c) { return (r >> SHIFT) * chunksW + (c >> SHIFT); }
+    /** Offset of (r,c) inside its chunk (row-major CHUNK x CHUNK). */
+    static int local(int r, int c) { return ((r & MASK) << SHIFT) | (c & MASK); }
+
+    public int chunkCount()   { return versions.length; }
+    public int chunksWide()   { return chunksW; }
+    public int chunksHigh()   { return chunksH; }
+    public int chunkVersion(int chunk) { return versions[chunk]; }
+
+    /** Chunks currently backed by storage. */
+    public int allocatedChunks() { return allocated; }
+    /** Rough bytes held by chunk storage (directory not included). */
+    public abstract long allocatedBytes();
+
+    public boolean isDirty(int chunk) { return (dirty[chunk >> 6] & (1L << chunk)) != 0; }
+
+    /** First dirty chunk with index >= from, or -1. */
+    public int nextDirty(int from) {
+        if (from >= versions.length) return -1;
+        int w = from >> 6;
+        long bits = dirty[w] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                int k = (w << 6) + Long.numberOfTrailingZeros(bits);
+                return (k < versions.length) ? k : -1;
+            }
+            if (++w == dirty.length) return -1;
+            bits = dirty[w];
+        }
+    }
+
+    public void clearDirty(int chunk) { dirty[chunk >> 6] &= ~(1L << chunk); }
+    public void clearAllDirty() { java.util.Arrays.fill(dirty, 0L); }
+
+    /** A value in 'chunk' changed. */
+    final void touch(int chunk) {
+        versions[chunk]++;
+        dirty[chunk >> 6] |= 1L << chunk;
+    }
+
+    final void touchAll() {
+        for (int k = 0; k < versions.length; k++) touch(k);
+    }
+
+    final void countAllocated(int delta) { allocated += delta; }
+}
@@ -0,0 +1,148 @@
+package world;
+
+/**
+ * int per tile, stored in lazily allocated 32x32 chunks (see ChunkedGrid).
+ *
+ * Reads of an unallocated chunk return the grid's default; writing the default into one is a
+ * no-op, so only chunks that ever held something else cost memory. trim() hands back chunks
+ * that have drifted back to all-default (e.g. where units used to stand).
+ */
+final class ChunkedIntGrid extends ChunkedGrid {
+    private static final int AREA = CHUNK * CHUNK;
+
+    private final int[][] chunks;
+    private int def;
+
+    ChunkedIntGrid(int height, int width, int defaultValue) {
+        super(height, width);
+        this.def = defaultValue;
+        this.chunks = new int[chunksW * chunksH][];
+    }
+
+    int getDefault() { return def; }
+
+    int get(int r, int c) {
+        int[] ch = chunks[chunkOf(r, c)];
+        return (ch == null) ? def : ch[local(r, c)];
+    }
+
+    void set(int r, int c, int v) {
+        int k = chunkOf(r, c);
+        int[] ch = chunks[k];
+        if (ch == null) {
+            if (v == def) return;
+            ch = allocate(k);
+        }
+        int i = local(r, c);
+        if (ch[i] == v) return;
+        ch[i] = v;
+        touch(k);
+    }
+
+    /** Adds delta to (r,c) and returns the new value. */
+    int add(int r, int c, int delta) {
+        int v = get(r, c) + delta;
+        set(r, c, v);
+        return v;
+    }
+
+    private int[] allocate(int k) {
+        int[] ch = new int[AREA];
+        if (def != 0) java.util.Arrays.fill(ch, def);
+        chunks[k] = ch;
+        countAllocated(1);
+        return ch;
+    }
+
+    /** Every tile becomes v: all storage is dropped and v is the new default. */
+    void reset(int v) {
+        if (v != def) {
+            def = v;
+            touchAll();
+        }
+        for (int k = 0; k < chunks.length; k++) {
+            if (chunks[k] == null) continue;
+            chunks[k] = null;
+            touch(k);
+        }
+        countAllocated(-allocatedChunks());
+    }
+
+    /** Fill rows [r0, r0+h) x cols [c0, c0+w), clipped to the map. */
+    void fillRect(int r0, int c0, int h, int w, int v) {
+        int ra = Math.max(0, r0), rb = Math.min(height, r0 + h);
+        int ca = Math.max(0, c0), cb = Math.min(width, c0 + w);
+        for (int r = ra; r < rb; r++) {
+            for (int c = ca; c < cb; ) {
+                // run to the end of this chunk's columns
+                int k = chunkOf(r, c);
+                int end = Math.min(cb, (c | MASK) + 1);
+                int[] ch = chunks[k];
+                if (ch == null) {
+                    if (v == def) { c = end; continue; }
+                    ch = allocate(k);
+                }
+                int base = (r & MASK) << SHIFT;
+                java.util.Arrays.fill(ch, base + (c & MASK), base + ((end - 1) & MASK) + 1, v);
+                touch(k);
+                c = end;
+            }
+        }
+    }
+
+    /** Copies rows [r0, r0+h) x cols [c0, c0+w) into dst (row-major h x w), a chunk row-run at a time. Must be in bounds. */
+    void copyRect(int r0, int c0, int h, int w, int[] dst) {
+        for (int r = 0; r < h; r++) {
+            int row = r0 + r, base = (row & MASK) << SHIFT;
+            for (int c = c0, i = r * w, cb = c0 + w; c < cb; ) {
+                int end = Math.min(cb, (c | MASK) + 1);
+                int[] ch = chunks[chunkOf(row, c)];
+                if (ch == null) java.util.Arrays.fill(dst, i, i + end - c, def);
+                else System.arraycopy(ch, base + (c & MASK), dst, i, end - c);
+                i += end - c;
+                c = end;
+            }
+        }
+    }
+
+    /** Overwrites every tile from src (row-major, length >= height*width); all-default runs stay unallocated. */
+    void copyFrom(int[] src) {
+        for (int r = 0; r < height; r++) {
+            int base = (r & MASK) << SHIFT;
+            for (int c = 0, i = r * width; c < width; ) {
+                int end = Math.min(width, (c | MASK) + 1), n = end - c;
+                int k = chunkOf(r, c);
+                int[] ch = chunks[k];
+                if (ch == null) {
+                    boolean blank = true;
+                    for (int j = i; j < i + n; j++) if (src[j] != def) { blank = false; break; }
+                    if (blank) { i += n; c = end; continue; }
+                    ch = allocate(k);
+                }
+                System.arraycopy(src, i, ch, base + (c & MASK), n);
+                touch(k);
+                i += n;
+                c = end;
+            }
+        }
+    }
+
+    /** Frees chunks whose tiles all equal the default again. Returns how many were freed. */
+    int trim() {
+        int freed = 0;
+        for (int k = 0; k < chunks.length; k++) {
+            int[] ch = chunks[k];
+            if (ch == null) continue;
+            boolean blank = true;
+            for (int i = 0; i < AREA; i++) if (ch[i] != def) { blank = false; break; }
+            if (!blank) continue;
+            chunks[k] = null;
+            freed++;
+        }
+        countAllocated(-freed);
+        return freed;
+    }
+
+    @Override
+    public long allocatedBytes() { return (long) allocatedChunks() * (AREA * 4L + 16); }
+}
@@ -0,0 +1,71 @@
+package world;
+
+import characters.Team;
+import characters.Unit;
+import intelligence.TeamSightings;
+
+/**
+ * World-visible side effects an AI asked for while the AI phase was running in parallel.
+ *
+ * During the phase the world is a read-only snapshot: resolveMeleeHit / fireArrowShot and the
+ * unit -> world notifications (facing, team, death) land here instead of touching shared state,
+ * and so do sighting (un)subscriptions, since the boards' subscriber lists are shared too.
+ * Each worker task fills its own buffer, tagging every command with the id of the unit whose AI
+ * issued it; AIPhase merges the buffers by that id (stable, so a unit's own commands keep the
+ * order it issued them) and applies the result.
+ *
+ * A unit's own state (path, aim, timers, AI fields) is written directly by its AI; see AIPhase
+ * for why that is safe and when something has to come through here instead.
+ */
+final class CommandBuffer {
+    static final byte ATTACK = 0;   // resolveMeleeHit(actor, target)
+    static final byte FIRE   = 1;   // fireArrowShot(actor, target)
+    static final byte MOVED  = 2;   // notifyUnitMoved(actor) (facing / tail changed)
+    static final byte TEAM   = 3;   // notifyUnitTeamChanged(actor, oldTeam)
+    static final byte DIED   = 4;   // notifyUnitDied(actor)
+    static final byte SUBSCRIBE   = 5;   // teamSightings.subscribe(team, actor, listener)
+    static final byte UNSUBSCRIBE = 6;   // teamSightings.unsubscribe(team, listener)
+
+    static final class Command {
+        final byte kind;
+        final int issuer;   // id of the unit whose AI was running
+        final Unit actor, target;
+        final Team team;   // TEAM: the old team; (UN)SUBSCRIBE: the viewer team
+        final TeamSightings.VisionListener listener;
+        Command(byte kind, int issuer, Unit actor, Unit target, Team team, TeamSightings.VisionListener listener) {
+            this.kind = kind; this.issuer = issuer; this.actor = actor; this.target = target; this.team = team; this.listener = listener;
+        }
+    }
+
+    private Command[] items = new Command[32];
+    private int size;
+
+    private static final java.util.Comparator<Command> BY_ISSUER = (a, b) -> Integer.compare(a.issuer, b.issuer);
+
+    void add(byte kind, int issuer, Unit actor, Unit target, Team team, TeamSightings.VisionListener listener) {
+        if (size == items.length) items = java.util.Arrays.copyOf(items, size * 2);
+        items[size++] = new Command(kind, issuer, actor, target, team, listener);
+    }
+
+    /** Appends other's commands (other is left as is). */
+    void addAll(CommandBuffer other) {
+        if (size + other.size > items.length) {
+            items = java.util.Arrays.copyOf(items, Math.max(size + other.size, items.length * 2));
+        }
+        System.arraycopy(other.items, 0, items, size, other.size);
+        size += other.size;
+    }
+
+    /** Stable sort by issuing unit id: units in id order, each one's commands in issue order. */
+    void sortByIssuer() {
+        java.util.Arrays.sort(items, 0, size, BY_ISSUER);
+    }
+
+    int size() { return size; }
+    Command get(int i) { return items[i]; }
+
+    void clear() {
+        java.util.Arrays.fill(items, 0, size, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,128 @@
+package world;
+
+import characters.Team;
+import characters.Unit;
+
+/**
+ * Per-control-point, per-team unit counts, kept up to date incrementally.
+ *
+ * Tiles inside a control point's Manhattan diamond remember which points cover them (a sparse
+ * tile -> points map, so the rest of a large map costs nothing). A unit is counted on
+ * its rounded tile (Unit.__engine_*OccTile); when that tile changes (World.notifyUnitMoved) or
+ * the unit changes team, only the control points covering the old/new tile are touched.
+ * Ownership is then a lookup of two counters instead of a scan of nearby units.
+ *
+ * Like the old scan, units count until World takes them out of the unit list (dead included).
+ */
+final class ControlOccupancy {
+    private static final int TEAMS = Team.values().length;
+
+    private final int height, width;
+    // row-major tile -> control points covering it; sparse (only tiles inside some diamond have an entry)
+    private final intelligence.IntMap<ControlPoint[]> covering = new intelligence.IntMap<>();
+    private final java.util.IdentityHashMap<ControlPoint, int[]> counts = new java.util.IdentityHashMap<>();
+
+    ControlOccupancy(int height, int width) {
+        this.height = height; this.width = width;
+    }
+
+    private int tileOf(Unit u) {
+        int r = u.getRowRounded(), c = u.getColRounded();
+        return (r < 0 || c < 0 || r >= height || c >= width) ? -1 : r * width + c;
+    }
+
+    /** Starts tracking cp; 'units' seeds its counters with whoever already stands inside. */
+    void addPoint(ControlPoint cp, java.util.List<Unit> units) {
+        if (counts.containsKey(cp)) return;
+        int[] cnt = new int[TEAMS];
+        counts.put(cp, cnt);
+        int rad = cp.getRadius();
+        for (int dr = -rad; dr <= rad; dr++) {
+            int r = cp.getRow() + dr;
+            if (r < 0 || r >= height) continue;
+            int span = rad - Math.abs(dr);
+            for (int c = Math.max(0, cp.getCol() - span), c1 = Math.min(width - 1, cp.getCol() + span); c <= c1; c++) {
+                int t = r * width + c;
+                ControlPoint[] arr = covering.get(t);
+                if (arr == null) covering.put(t, new ControlPoint[]{ cp });
+                else {
+                    arr = java.util.Arrays.copyOf(arr, arr.length + 1);
+                    arr[arr.length - 1] = cp;
+                    covering.put(t, arr);
+                }
+            }
+        }
+        for (Unit u : units) {
+            int t = u.__engine_getOccTile();
+            if (t >= 0 && covers(cp, t)) cnt[u.getTeam().ordinal()]++;
+        }
+    }
+
+    void removePoint(ControlPoint cp) {
+        if (counts.remove(cp) == null) return;
+        int rad = cp.getRadius();
+        for (int dr = -rad; dr <= rad; dr++) {
+            int r = cp.getRow() + dr;
+            if (r < 0 || r >= height) continue;
+            int span = rad - Math.abs(dr);
+            for (int c = Math.max(0, cp.getCol() - span), c1 = Math.min(width - 1, cp.getCol() + span); c <= c1; c++) {
+                int t = r * width + c;
+                ControlPoint[] arr = covering.get(t);
+                if (arr == null) continue;
+                int n = 0;
+                ControlPoint[] keep = new ControlPoint[arr.length];
+                for (ControlPoint o : arr) if (o != cp) keep[n++] = o;
+                if (n == 0) covering.remove(t);
+                else covering.put(t, java.util.Arrays.copyOf(keep, n));
+            }
+        }
+    }
+
+    private boolean covers(ControlPoint cp, int tile) {
+        ControlPoint[] arr = covering.get(tile);
+        if (arr == null) return false;
+        for (ControlPoint o : arr) if (o == cp) return true;
+        return false;
+    }
+
+    private void count(int tile, Team team, int delta) {
+        if (tile < 0) return;
+        ControlPoint[] arr = covering.get(tile);
+        if (arr == null) return;
+        for (ControlPoint cp : arr) counts.get(cp)[team.ordinal()] += delta;
+    }
+
+    void insert(Unit u) {
+        if (u.__engine_getOccTile() >= 0) return;
+        int t = tileOf(u);
+        u.__engine_setOccTile(t);
+        count(t, u.getTeam(), +1);
+    }
+
+    void remove(Unit u) {
+        count(u.__engine_getOccTile(), u.getTeam(), -1);
+        u.__engine_setOccTile(-1);
+    }
+
+    /** Call after u moved; no-op unless its rounded tile changed. */
+    void moved(Unit u) {
+        int old = u.__engine_getOccTile();
+        int t = tileOf(u);
+        if (t == old) return;
+        count(old, u.getTeam(), -1);
+        count(t, u.getTeam(), +1);
+        u.__engine_setOccTile(t);
+    }
+
+    void teamChanged(Unit u, Team oldTeam) {
+        int t = u.__engine_getOccTile();
+        count(t, oldTeam, -1);
+        count(t, u.getTeam(), +1);
+    }
+
+    /** Units of 'team' currently inside cp (0 if cp isn't tracked). */
+    int count(ControlPoint cp, Team team) {
+        int[] cnt = counts.get(cp);
+        return (cnt == null) ? 0 : cnt[team.ordinal()];
+    }
+}
@@ -0,0 +1,343 @@
+package world;
+
+import characters.Unit;
+
+/**
+ * Hands out tree / stone blocks to LUMBER / MINER workers, one reservation per block.
+ *
+ * Workers that are looking for work (SEEK_TREE / SEEK_STONE) are collected during the job pass
+ * and assigned together: one multi-source BFS grows out from all of them at once, and the first
+ * wave to reach a stand tile next to a free block wins that block for its worker, which then
+ * stops searching. A wave that runs into tiles of a worker already served keeps going through
+ * them, so nobody is walled off by a neighbour's search. Stones keep the old preference for
+ * orthogonal stands (see freeStoneNextTo). The winner gets one A* to its stand tile (the BFS
+ * already proved it reachable) instead of one per candidate.
+ *
+ * A reservation names the holder's unit id. It is dropped when the block is cleared, when the
+ * holder dies or leaves the world, and -- checked lazily on the next lookup -- when the holder
+ * stopped working that block (promoted, reassigned, gave up).
+ */
+final class JobBoard {
+    private final World world;
+    private final ResourceIndex<Terrain.TreeBlock> trees;
+    private final ResourceIndex<Terrain.StoneBlock> stones;
+    private final int width;
+
+    // block id -> holder unit id (0 = free); ids of cleared blocks are never reused
+    private int[] treeHolder = new int[64], stoneHolder = new int[64];
+
+    // BFS scratch: tile -> index of the worker whose wave reached it, this search only
+    private final Reached reached = new Reached();
+    private int[] queue = new int[256];
+    private boolean[] served = new boolean[16], hemmed = new boolean[16];
+    // per worker (seekers index): block won and its stand tile; stones: diagonal fallback (see freeStoneNextTo)
+    private Terrain.ResourceBlock[] won = new Terrain.ResourceBlock[16];
+    private Terrain.StoneBlock[] fallback = new Terrain.StoneBlock[16];
+    private int[] standAt = new int[16], fallbackAt = new int[16];
+    private final java.util.ArrayList<Unit> seekers = new java.util.ArrayList<>();
+
+    JobBoard(World world, ResourceIndex<Terrain.TreeBlock> trees, ResourceIndex<Terrain.StoneBlock> stones, int width) {
+        this.world = world;
+        this.trees = trees;
+        this.stones = stones;
+        this.width = width;
+    }
+
+    /** Queue a worker for the next assign(); call once per tick per seeking worker. */
+    void seek(Unit u) { seekers.add(u); }
+
+    // ---------------- reservations ----------------
+
+    private boolean isFree(Terrain.ResourceBlock b, boolean tree) {
+        int[] holders = tree ? treeHolder : stoneHolder;
+        if (b.id >= holders.length || holders[b.id] == 0) return true;
+        Unit h = world.unitById(holders[b.id]);
+        if (h != null && !h.isDead() && stillWorking(h, b, tree)) return false;
+        holders[b.id] = 0;   // holder gone or moved on
+        return true;
+    }
+
+    private static boolean stillWorking(Unit h, Terrain.ResourceBlock b, boolean tree) {
+        if (tree) {
+            Unit.LumberState s = h.getLumberState();
+            return h.getRole() == Unit.UnitRole.LUMBER
+                    && (s == Unit.LumberState.MOVE_TO_TREE || s == Unit.LumberState.CHOPPING)
+                    && h.getTreeTop() == b.r && h.getTreeLeft() == b.c;
+        }
+        Unit.MinerState s = h.getMinerState();
+        return h.getRole() == Unit.UnitRole.MINER
+                && (s == Unit.MinerState.MOVE_TO_STONE || s == Unit.MinerState.CHOPPING)
+                && h.getStoneTop() == b.r && h.getStoneLeft() == b.c;
+    }
+
+    private void reserve(Terrain.ResourceBlock b, boolean tree, Unit u) {
+        if (tree) {
+            if (b.id >= treeHolder.length) treeHolder = java.util.Arrays.copyOf(treeHolder, Math.max(b.id + 1, treeHolder.length * 2));
+            treeHolder[b.id] = u.getId();
+        } else {
+            if (b.id >= stoneHolder.length) stoneHolder = java.util.Arrays.copyOf(stoneHolder, Math.max(b.id + 1, stoneHolder.length * 2));
+            stoneHolder[b.id] = u.getId();
+        }
+    }
+
+    /** The block is about to leave its index (cut / mined): forget who held it. */
+    void blockCleared(Terrain.ResourceBlock b, boolean tree) {
+        int[] holders = tree ? treeHolder : stoneHolder;
+        if (b.id > 0 && b.id < holders.length) holders[b.id] = 0;
+    }
+
+    /** Drop whatever u holds (it died or left the world). */
+    void release(Unit u) {
+        int id = u.getId();
+        Terrain.TreeBlock t = trees.anchoredAt(u.getTreeTop(), u.getTreeLeft());
+        if (t != null && t.id < treeHolder.length && treeHolder[t.id] == id) treeHolder[t.id] = 0;
+        Terrain.StoneBlock s = stones.anchoredAt(u.getStoneTop(), u.getStoneLeft());
+        if (s != null && s.id < stoneHolder.length && stoneHolder[s.id] == id) stoneHolder[s.id] = 0;
+    }
+
+    // ---------------- batch assignment ----------------
+
+    /**
+     * Assign every queued worker a free block of the given kind and send it on its way
+     * (MOVE_TO_TREE / MOVE_TO_STONE); workers with no reachable free block go IDLE.
+     */
+    void assign(boolean tree) {
+        int n = seekers.size();
+        if (n == 0) return;
+        if (served.length < n) {
+            int cap = Math.max(n, served.length * 2);
+            served = new boolean[cap];
+            hemmed = new boolean[cap];
+            won = new Terrain.ResourceBlock[cap];
+            fallback = new Terrain.StoneBlock[cap];
+            standAt = new int[cap];
+            fallbackAt = new int[cap];
+        }
+        java.util.Arrays.fill(served, 0, n, false);
+        java.util.Arrays.fill(hemmed, 0, n, false);
+
+        reached.clear();
+        int head = 0, tail = 0, left = n;
+        for (int i = 0; i < n; i++) {
+            Unit u = seekers.get(i);
+            int r = u.getRowRounded(), c = u.getColRounded();
+            if (!world.inBoundsRC(r, c)) continue;
+            int idx = r * width + c;
+            if (reached.get(idx) >= 0) continue;   // shares a tile: next tick
+            reached.put(idx, i);
+            if (tail == queue.length) queue = java.util.Arrays.copyOf(queue, tail * 2);
+            queue[tail++] = idx;
+        }
+
+        while (head < tail && left > 0) {
+            int idx = queue[head++];
+            int r = idx / width, c = idx % width;
+            int w = reached.get(idx);
+            if (served[w]) continue;   // that worker is done; others may walk through here
+            Unit u = seekers.get(w);
+
+            Terrain.ResourceBlock b = tree ? freeTreeNextTo(r, c) : freeStoneNextTo(r, c, w, u);
+            if (b != null) {
+                win(w, b, idx, tree);
+                left--;
+                continue;
+            }
+            for (int d = 0; d < 4; d++) {
+                int nr = r + DR[d], nc = c + DC[d];
+                if (world.isBlocked(nr, nc, u)) continue;
+                int nidx = nr * width + nc, ow = reached.get(nidx);
+                if (ow >= 0 && !served[ow]) {
+                    if (ow != w) hemmed[w] = true;   // another search is still live there
+                    continue;
+                }
+                reached.put(nidx, w);
+                if (tail == queue.length) {
+                    // compact the consumed head before growing
+                    System.arraycopy(queue, head, queue, 0, tail - head);
+                    tail -= head; head = 0;
+                    if (tail == queue.length) queue = java.util.Arrays.copyOf(queue, queue.length * 2);
+                }
+                queue[tail++] = nidx;
+            }
+        }
+
+        // Miners the search found nothing better for: a diagonal stand they passed on the way
+        // (its stone's orthogonal stands turned out to be out of reach), first come first served.
+        // A hemmed one that will search again next tick (see below) keeps looking instead.
+        boolean anyServed = left < n;
+        for (int i = 0; i < n && !tree; i++) {
+            if (served[i] || fallback[i] == null || (hemmed[i] && anyServed)) continue;
+            if (isFree(fallback[i], false)) {
+                win(i, fallback[i], fallbackAt[i], false);
+                left--;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            Unit u = seekers.get(i);
+            Terrain.ResourceBlock b = won[i];
+            if (b == null) {
+                int r = u.getRowRounded(), c = u.getColRounded();
+                if (!world.inBoundsRC(r, c)) { idle(u, tree); continue; }
+                int owner = reached.get(r * width + c);   // != i: it shared a start tile with 'owner'
+                // Nothing free within reach. If a search that got served stood in its way (or
+                // started on its tile) it stays seeking and goes again next tick, when the served
+                // ones are out of the batch; otherwise there is nothing for it.
+                boolean retry = (owner != i && served[owner]) || (hemmed[i] && left < n);
+                if (!retry) idle(u, tree);
+                continue;
+            }
+            int sr = standAt[i] / width, sc = standAt[i] % width;
+            int ur = u.getRowRounded(), uc = u.getColRounded();
+            var path = (ur == sr && uc == sc) ? java.util.List.<java.awt.Point>of()   // already there
+                    : world.findPathAStar(ur, uc, sr, sc, u);
+            if (path == null) {
+                blockCleared(b, tree);   // hand it back
+                idle(u, tree);
+                continue;
+            }
+            u.setStandTile(sr, sc);
+            u.setPath(path);
+        }
+        java.util.Arrays.fill(won, 0, n, null);
+        java.util.Arrays.fill(fallback, 0, n, null);
+        seekers.clear();
+        reached.trim();
+    }
+
+    private void win(int w, Terrain.ResourceBlock b, int stand, boolean tree) {
+        Unit u = seekers.get(w);
+        reserve(b, tree, u);
+        claim(u, b, tree);   // holder now counts as working it (see stillWorking)
+        won[w] = b;
+        standAt[w] = stand;
+        served[w] = true;
+    }
+
+    private static void claim(Unit u, Terrain.ResourceBlock b, boolean tree) {
+        if (tree) {
+            u.setTreeTarget(b.r, b.c);
+            u.setLumberState(Unit.LumberState.MOVE_TO_TREE);
+        } else {
+            u.setStoneTarget(b.r, b.c);
+            u.setMinerState(Unit.MinerState.MOVE_TO_STONE);
+        }
+    }
+
+    private static void idle(Unit u, boolean tree) {
+        if (tree) u.setLumberState(Unit.LumberState.IDLE);
+        else u.setMinerState(Unit.MinerState.IDLE);
+    }
+
+    /**
+     * Tile -> wave index for one search: open addressing over primitive arrays, cleared by
+     * bumping a stamp (like LosCache). It grows with the search, and trim() drops a table that a
+     * big search blew up back to its starting size, so memory follows the last search rather than
+     * every tile any search ever reached.
+     */
+    private static final class Reached {
+        private static final int INITIAL = 1 << 10, KEEP = 1 << 14;   // slots
+        private int[] keys, waves, stamps;
+        private int stamp = 1, size, mask;
+
+        Reached() { alloc(INITIAL); }
+
+        private void alloc(int cap) {
+            keys = new int[cap]; waves = new int[cap]; stamps = new int[cap];
+            mask = cap - 1; size = 0; stamp = 1;
+        }
+
+        private static int slotOf(int k) {
+            int h = k * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        void clear() {
+            size = 0;
+            if (++stamp == Integer.MAX_VALUE) {
+                java.util.Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+        }
+
+        void trim() {
+            if (keys.length > KEEP) alloc(INITIAL);
+        }
+
+        /** Wave index of tile, or -1 if this search hasn't reached it. */
+        int get(int tile) {
+            for (int i = slotOf(tile) & mask; stamps[i] == stamp; i = (i + 1) & mask) {
+                if (keys[i] == tile) return waves[i];
+            }
+            return -1;
+        }
+
+        void put(int tile, int wave) {
+            if ((size + 1) * 2 > keys.length) grow();
+            int i = slotOf(tile) & mask;
+            for (; stamps[i] == stamp; i = (i + 1) & mask) {
+                if (keys[i] == tile) { waves[i] = wave; return; }
+            }
+            keys[i] = tile; waves[i] = wave; stamps[i] = stamp;
+            size++;
+        }
+
+        private void grow() {
+            int[] ok = keys, ow = waves, os = stamps;
+            int live = stamp;
+            alloc(ok.length * 2);
+            for (int i = 0; i < ok.length; i++) if (os[i] == live) put(ok[i], ow[i]);
+        }
+    }
+
+    private static final int[] DR = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] DC = {0, 0, -1, 1, -1, 1, -1, 1};
+
+    // A stand tile is any tile 8-adjacent to the 2x2 block.
+    private Terrain.TreeBlock freeTreeNextTo(int r, int c) {
+        for (int d = 0; d < 8; d++) {
+            Terrain.TreeBlock b = trees.at(r + DR[d], c + DC[d]);
+            if (b != null && isFree(b, true)) return b;
+        }
+        return null;
+    }
+
+    // A stone's diagonal stands only count when none of its orthogonal stands can be reached, as
+    // in the old per-worker search. Orthogonal first; among equals the clumpier stone. A diagonal
+    // stand is taken on the spot only if all of that stone's orthogonal neighbours are blocked;
+    // otherwise the wave walks on (it reaches an open orthogonal stand later if there is a way)
+    // and remembers the first such stand as worker w's fallback in case there isn't.
+    private Terrain.StoneBlock freeStoneNextTo(int r, int c, int w, Unit u) {
+        Terrain.StoneBlock best = null;
+        int bestClump = -1;
+        for (int d = 0; d < 8; d++) {
+            if (d == 4 && best != null) break;
+            Terrain.StoneBlock s = stones.at(r + DR[d], c + DC[d]);
+            if (s == null || !isFree(s, false)) continue;
+            if (d >= 4 && hasOpenOrthogonalStand(s, u)) {
+                if (fallback[w] == null) { fallback[w] = s; fallbackAt[w] = r * width + c; }
+                continue;
+            }
+            int clump = clumpScore(s);
+            if (clump > bestClump) { best = s; bestClump = clump; }
+        }
+        return best;
+    }
+
+    private boolean hasOpenOrthogonalStand(Terrain.StoneBlock s, Unit u) {
+        for (int d = 0; d < 4; d++) {
+            if (!world.isBlocked(s.r + DR[d], s.c + DC[d], u)) return true;
+        }
+        return false;
+    }
+
+    // neighbouring stones of the same patch (8-neighbourhood)
+    private int clumpScore(Terrain.StoneBlock s) {
+        int score = 0;
+        for (int d = 0; d < 8; d++) {
+            Terrain.StoneBlock t = stones.at(s.r + DR[d], s.c + DC[d]);
+            if (t != null && t.patch == s.patch) score++;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,140 @@
+package world;
+
+/**
+ * Layered tile store, dense or sparse depending on map size.
+ *
+ * Maps up to DENSE_MAX_TILES tiles keep the planar int[] layout: index(r, c, z) =
+ * z * height * width + r * width + c, so a cell read is one array access and whole-layer
+ * copies are System.arraycopy. Bigger maps use one chunked plane per layer (see
+ * ChunkedIntGrid): each plane has a default value (fillLayer sets it) and only allocates
+ * 32x32 chunks that hold something else, so a 4096x4096 map of plain grass with no units
+ * costs next to nothing; a read there is a directory load plus an array load.
+ *
+ * Either way every changed cell bumps its chunk's version / dirty bit (chunks(z)), so a
+ * renderer or snapshot can redo only the chunks that changed.
+ */
+public final class LayerGrid {
+    /** Largest map (height * width) kept dense: 1024 x 1024, 4 MB per layer. */
+    static final int DENSE_MAX_TILES = 1 << 20;
+
+    private final int height, width, layers, area;
+    private final int[] data;                // dense planes, or null
+    private final ChunkedIntGrid[] planes;   // sparse planes, or null
+    private final ChunkedGrid[] marks;       // chunk versions / dirty bits per layer
+
+    public LayerGrid(int height, int width, int layers) {
+        this.height = height; this.width = width; this.layers = layers;
+        this.area = height * width;
+        this.marks = new ChunkedGrid[layers];
+        if ((long) height * width <= DENSE_MAX_TILES) {
+            data = new int[area * layers];
+            planes = null;
+            for (int z = 0; z < layers; z++) marks[z] = new DenseMarks(height, width);
+        } else {
+            data = null;
+            planes = new ChunkedIntGrid[layers];
+            for (int z = 0; z < layers; z++) marks[z] = planes[z] = new ChunkedIntGrid(height, width, 0);
+        }
+    }
+
+    public int getHeight() { return height; }
+    public int getWidth()  { return width; }
+    public int getLayers() { return layers; }
+
+    /** True when the layers are flat arrays (small maps), false when chunked. */
+    public boolean isDense() { return data != null; }
+
+    /** Flat index of (r,c) within a layer plane (row-major). */
+    public int tileIndex(int r, int c) { return r * width + c; }
+
+    public int get(int r, int c, int z) {
+        int[] d = data;
+        return (d != null) ? d[z * area + r * width + c] : planes[z].get(r, c);
+    }
+
+    public void set(int r, int c, int z, int v) {
+        int[] d = data;
+        if (d == null) { planes[z].set(r, c, v); return; }
+        int i = z * area + r * width + c;
+        if (d[i] == v) return;
+        d[i] = v;
+        marks[z].touch(marks[z].chunkOf(r, c));
+    }
+
+    /** Read by flat tile index (see tileIndex). */
+    public int getAt(int tile, int z) {
+        int[] d = data;
+        if (d != null) return d[z * area + tile];
+        int r = tile / width;
+        return planes[z].get(r, tile - r * width);
+    }
+
+    // ---------------- bulk ----------------
+
+    /** Whole layer becomes v (sparse: storage dropped, v is the layer's new default). */
+    public void fillLayer(int z, int v) {
+        if (data == null) { planes[z].reset(v); return; }
+        java.util.Arrays.fill(data, z * area, (z + 1) * area, v);
+        marks[z].touchAll();
+    }
+
+    /** Fill rows [r0, r0+h) x cols [c0, c0+w) of layer z, clipped to the map. */
+    public void fillRect(int z, int r0, int c0, int h, int w, int v) {
+        if (data == null) { planes[z].fillRect(r0, c0, h, w, v); return; }
+        int ra = Math.max(0, r0), rb = Math.min(height, r0 + h);
+        int ca = Math.max(0, c0), cb = Math.min(width, c0 + w);
+        if (ca >= cb || ra >= rb) return;
+        for (int r = ra; r < rb; r++) {
+            int base = z * area + r * width;
+            java.util.Arrays.fill(data, base + ca, base + cb, v);
+        }
+        touchRect(z, ra, ca, rb - ra, cb - ca);
+    }
+
+    /** Copies layer z into dst (row-major, length >= height*width). */
+    public void copyLayerTo(int z, int[] dst) {
+        if (data != null) System.arraycopy(data, z * area, dst, 0, area);
+        else planes[z].copyRect(0, 0, height, width, dst);
+    }
+
+    /** Overwrites layer z from src (row-major, length >= height*width). */
+    public void copyLayerFrom(int z, int[] src) {
+        if (data == null) { planes[z].copyFrom(src); return; }
+        System.arraycopy(src, 0, data, z * area, area);
+        marks[z].touchAll();
+    }
+
+    /** Copies rows [r0, r0+h) x cols [c0, c0+w) of layer z into dst (row-major h x w). Must be in bounds. */
+    public void copyRect(int z, int r0, int c0, int h, int w, int[] dst) {
+        if (data == null) { planes[z].copyRect(r0, c0, h, w, dst); return; }
+        for (int r = 0; r < h; r++) {
+            System.arraycopy(data, z * area + (r0 + r) * width + c0, dst, r * w, w);
+        }
+    }
+
+    private void touchRect(int z, int r0, int c0, int h, int w) {
+        ChunkedGrid m = marks[z];
+        for (int cr = r0 >> ChunkedGrid.SHIFT; cr <= (r0 + h - 1) >> ChunkedGrid.SHIFT; cr++)
+            for (int cc = c0 >> ChunkedGrid.SHIFT; cc <= (c0 + w - 1) >> ChunkedGrid.SHIFT; cc++)
+                m.touch(cr * m.chunksW + cc);
+    }
+
+    // ---------------- chunks ----------------
+
+    /** Chunk bookkeeping (versions, dirty bits) of layer z. */
+    public ChunkedGrid chunks(int z) { return marks[z]; }
+
+    /** Bytes held by the layers (dense: the whole array; sparse: allocated chunks). */
+    public long allocatedBytes() {
+        if (data != null) return data.length * 4L;
+        long n = 0;
+        for (ChunkedIntGrid p : planes) n += p.allocatedBytes();
+        return n;
+    }
+
+    /** Versions / dirty bits only, for a dense layer (the values live in 'data'). */
+    private static final class DenseMarks extends ChunkedGrid {
+        DenseMarks(int height, int width) { super(height, width); }
+        @Override public long allocatedBytes() { return 0; }
+    }
+}
@@ -0,0 +1,82 @@
+package world;
+
+/**
+ * Per-tick memo of tile LOS answers, keyed by packed (origin tile, target tile, mode).
+ *
+ * Open addressing over primitive arrays; "clearing" is just bumping the stamp, so a new
+ * tick (or an opacity change) costs O(1). When a probe run is full we simply don't cache.
+ */
+final class LosCache {
+    private static final int CAPACITY = 1 << 13;  // 8192 slots, power of two
+    private static final int MAX_PROBE = 8;
+
+    private final long[] keys = new long[CAPACITY];
+    private final int[] stamps = new int[CAPACITY];
+    private final boolean[] vals = new boolean[CAPACITY];
+    private int stamp = 1;
+
+    // metrics (last finished tick + running totals)
+    private long hits, misses, tickHits, tickMisses;
+    private long lastTickHits, lastTickMisses;
+
+    static long key(int originIdx, int targetIdx, int mode) {
+        return ((((long) originIdx << 1) | mode) << 32) | (targetIdx & 0xffffffffL);
+    }
+
+    /** Start a new tick: forget everything, roll per-tick counters. */
+    void newTick() {
+        lastTickHits = tickHits; lastTickMisses = tickMisses;
+        tickHits = tickMisses = 0;
+        invalidate();
+    }
+
+    /** Opacity/walls changed: cached rays are stale. */
+    void invalidate() {
+        if (++stamp == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+    }
+
+    private static int slotOf(long k) {
+        long h = k * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 51) & (CAPACITY - 1);
+    }
+
+    /** -1 = miss, 0 = blocked, 1 = clear. */
+    int get(long k) {
+        int s = slotOf(k);
+        for (int i = 0; i < MAX_PROBE; i++, s = (s + 1) & (CAPACITY - 1)) {
+            if (stamps[s] != stamp) break;
+            if (keys[s] == k) { hits++; tickHits++; return vals[s] ? 1 : 0; }
+        }
+        misses++; tickMisses++;
+        return -1;
+    }
+
+    void put(long k, boolean v) {
+        int s = slotOf(k);
+        for (int i = 0; i < MAX_PROBE; i++, s = (s + 1) & (CAPACITY - 1)) {
+            if (stamps[s] != stamp || keys[s] == k) {
+                stamps[s] = stamp; keys[s] = k; vals[s] = v;
+                return;
+            }
+        }
+    }
+
+    /** Fold another memo's counts for the current tick into this one (AI lanes -> world). */
+    void absorbCounts(LosCache o) {
+        hits += o.tickHits; misses += o.tickMisses;
+        tickHits += o.tickHits; tickMisses += o.tickMisses;
+        o.tickHits = o.tickMisses = 0;
+    }
+
+    long getHits() { return hits; }
+    long getMisses() { return misses; }
+
+    /** Hit rate of the last finished tick (0..1), or 0 if it asked nothing. */
+    double lastTickHitRate() {
+        long n = lastTickHits + lastTickMisses;
+        return n == 0 ? 0.0 : (double) lastTickHits / n;
+    }
+}
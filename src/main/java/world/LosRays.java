@@ -0,0 +1,111 @@
+package world;
+
+/**
+ * Precomputed Bresenham rays for one radius.
+ *
+ * For every target offset (dr,dc) inside the (2R+1)x(2R+1) box we store the tiles
+ * strictly between the origin and the target, already flattened to row-major deltas
+ * (dr*width + dc) for the owning world. Walking a ray is then just
+ * "origin index + delta" against a flat mask, no error terms, no bounds checks
+ * (intermediate Bresenham tiles always lie inside the endpoints' bounding box).
+ *
+ * Tables are translation-invariant, so the tiles visited are exactly the ones
+ * World.hasLineOfSight used to walk from scratch.
+ */
+public final class LosRays {
+    private final int radius;
+    private final int side;      // 2R+1
+    private final int[] start;   // per target slot: first index into cells (slot+1 = end)
+    private final int[] cells;   // flattened row-major deltas of in-between tiles
+
+    // disk order for FOV: target slots sorted by distance, only those within radius (Euclid)
+    private final int[] diskDr, diskDc, diskSlot;
+
+    LosRays(int radius, int width) {
+        this.radius = radius;
+        this.side = 2 * radius + 1;
+        int slots = side * side;
+        this.start = new int[slots + 1];
+
+        // pass 1: count, pass 2: fill (avoids boxing / growable lists)
+        int total = 0;
+        for (int dr = -radius; dr <= radius; dr++) {
+            for (int dc = -radius; dc <= radius; dc++) {
+                start[slot(dr, dc)] = total;
+                total += walk(dr, dc, null, 0, width);
+            }
+        }
+        start[slots] = total;
+        this.cells = new int[total];
+        for (int dr = -radius; dr <= radius; dr++) {
+            for (int dc = -radius; dc <= radius; dc++) {
+                walk(dr, dc, cells, start[slot(dr, dc)], width);
+            }
+        }
+
+        // disk (Euclidean) list, nearest first so callers can early-out by distance
+        int R2 = radius * radius, n = 0;
+        for (int dr = -radius; dr <= radius; dr++)
+            for (int dc = -radius; dc <= radius; dc++)
+                if (dr * dr + dc * dc <= R2) n++;
+        long[] keyed = new long[n];
+        int k = 0;
+        for (int dr = -radius; dr <= radius; dr++)
+            for (int dc = -radius; dc <= radius; dc++)
+                if (dr * dr + dc * dc <= R2)
+                    keyed[k++] = ((long) (dr * dr + dc * dc) << 32) | slot(dr, dc);
+        java.util.Arrays.sort(keyed);
+        diskDr = new int[n]; diskDc = new int[n]; diskSlot = new int[n];
+        for (int i = 0; i < n; i++) {
+            int s = (int) keyed[i];
+            diskSlot[i] = s;
+            diskDr[i] = s / side - radius;
+            diskDc[i] = s % side - radius;
+        }
+    }
+
+    /** Bresenham from (0,0) to (dr,dc), writing in-between deltas into out (if non-null). Returns count. */
+    private static int walk(int dr, int dc, int[] out, int at, int width) {
+        int x = 0, y = 0;
+        int dx = Math.abs(dc), sx = 0 < dc ? 1 : -1;
+        int dy = -Math.abs(dr), sy = 0 < dr ? 1 : -1;
+        int err = dx + dy, n = 0;
+        while (true) {
+            if (!(x == 0 && y == 0) && !(x == dc && y == dr)) {
+                if (out != null) out[at + n] = y * width + x;
+                n++;
+            }
+            if (x == dc && y == dr) break;
+            int e2 = 2 * err;
+            if (e2 >= dy) { err += dy; x += sx; }
+            if (e2 <= dx) { err += dx; y += sy; }
+        }
+        return n;
+    }
+
+    public int getRadius() { return radius; }
+
+    /** True if (dr,dc) fits in this table (Chebyshev). */
+    public boolean covers(int dr, int dc) {
+        return dr >= -radius && dr <= radius && dc >= -radius && dc <= radius;
+    }
+
+    int slot(int dr, int dc) { return (dr + radius) * side + (dc + radius); }
+
+    /**
+     * Walks the ray from origin index o to slot s; true if no in-between tile has any of 'mask' bits.
+     * Caller guarantees both endpoints are in bounds.
+     */
+    boolean clear(byte[] flags, int o, int s, int mask) {
+        for (int i = start[s], end = start[s + 1]; i < end; i++) {
+            if ((flags[o + cells[i]] & mask) != 0) return false;
+        }
+        return true;
+    }
+
+    // --- disk iteration (FOV) ---
+    int diskSize() { return diskSlot.length; }
+    int diskDr(int i) { return diskDr[i]; }
+    int diskDc(int i) { return diskDc[i]; }
+    int diskSlot(int i) { return diskSlot[i]; }
+}
@@ -0,0 +1,253 @@
+package world;
+
+/**
+ * Runs many independent matches (one World + SimulationEngine each) in one JVM.
+ *
+ * Each match gets its own virtual thread, so a parked match costs next to nothing. How many
+ * matches step at the same moment is bounded by 'carriers' permits: a match takes one for a
+ * turn of stepping and hands it back before it parks (the virtual threads themselves run on
+ * the JVM's carrier pool, one per core unless jdk.virtualThreadScheduler.parallelism says
+ * otherwise). Real-time matches run on a tick-deadline scheduler: tick n is due at
+ * start + n * stepNanos, the match steps whatever is due (up to the clock's max catch-up, the
+ * rest is dropped) and parks until its next deadline. Fast matches step in short slices and
+ * queue up for a permit again behind everyone else (the permits are fair), so one batch job
+ * can't starve the others.
+ *
+ * Worlds share nothing (no mutable statics anywhere in the sim), so matches never lock against
+ * each other; a match's own steps never overlap because only its own thread steps it.
+ *
+ * Admission control: submit() turns a match away (returns null) when the host is at its match
+ * limit or the real-time load -- step time over tick budget, summed over real-time matches and
+ * divided by the carrier count -- would go past maxLoad.
+ */
+public final class MatchHost implements AutoCloseable {
+    private static final int FAST_SLICE = 16;     // steps per turn for as-fast-as-possible matches
+    private static final double EMA = 0.1;
+
+    /** One hosted match; the stats are safe to read from any thread. */
+    public static final class Match {
+        private final MatchHost host;
+        private final String name;
+        private final SimulationEngine engine;
+        private final long maxTicks;          // <= 0: until stopped
+        private final boolean realTime;
+        private final long stepNanos;
+        private long startNanos;              // match-thread bookkeeping
+        private long nextTick = 1;            // next tick's index, for its deadline
+        private volatile Thread thread;
+        private final java.util.concurrent.CountDownLatch done = new java.util.concurrent.CountDownLatch(1);
+
+        private volatile boolean stopRequested;
+        private volatile long ticks;
+        private volatile double emaStepMs, maxStepMs;
+        private volatile double emaLateMs, maxLateMs;   // how long after its deadline a tick began
+        private volatile long missedDeadlines;          // ticks begun more than one step late
+        private volatile long droppedTicks;             // deadlines skipped to catch up
+        private volatile Throwable failure;
+
+        private Match(MatchHost host, String name, World world, int aiThreads, long maxTicks, boolean realTime) {
+            this.host = host;
+            this.name = name;
+            this.engine = new SimulationEngine(world, aiThreads);
+            this.maxTicks = maxTicks;
+            this.realTime = realTime;
+            this.stepNanos = world.getClock().stepNanos();
+        }
+
+        public String getName() { return name; }
+        public World getWorld() { return engine.getWorld(); }
+        public boolean isRealTime() { return realTime; }
+        public long getTicks() { return ticks; }
+        public double getEmaStepMs() { return emaStepMs; }
+        public double getMaxStepMs() { return maxStepMs; }
+        public double getEmaLatenessMs() { return emaLateMs; }
+        public double getMaxLatenessMs() { return maxLateMs; }
+        public long getMissedDeadlines() { return missedDeadlines; }
+        public long getDroppedTicks() { return droppedTicks; }
+        /** What stopped the match early, or null. */
+        public Throwable getFailure() { return failure; }
+        public boolean isDone() { return done.getCount() == 0; }
+
+        /** Share of one carrier this match needs to keep up (real time only). */
+        double load() { return realTime ? emaStepMs * 1e6 / stepNanos : 0.0; }
+
+        /** Ask the match to end after its current step. */
+        public void stop() {
+            stopRequested = true;
+            Thread t = thread;
+            if (t != null) java.util.concurrent.locks.LockSupport.unpark(t);   // cut a deadline wait short
+        }
+
+        public void await() throws InterruptedException { done.await(); }
+
+        public boolean await(long timeout, java.util.concurrent.TimeUnit unit) throws InterruptedException {
+            return done.await(timeout, unit);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d ticks, step %.3f ms (max %.3f), late %.3f ms (max %.3f), missed %d, dropped %d%s",
+                    name, ticks, emaStepMs, maxStepMs, emaLateMs, maxLateMs, missedDeadlines, droppedTicks,
+                    failure == null ? "" : ", failed: " + failure);
+        }
+
+        // The match's virtual thread: turns of stepping, each under a carrier permit, with the
+        // deadline waits (real time) in between.
+        private void run() {
+            try {
+                if (realTime) parkUntil(startNanos + stepNanos);
+                while (!stopRequested && (maxTicks <= 0 || ticks < maxTicks)) {
+                    host.permits.acquire();
+                    try {
+                        if (realTime) stepDue(); else stepFast();
+                    } finally {
+                        host.permits.release();
+                    }
+                    if (realTime) parkUntil(startNanos + nextTick * stepNanos);
+                    else Thread.yield();   // virtual threads aren't preempted: let the others have the carrier
+                }
+            } catch (InterruptedException e) {
+                failure = e;   // host closed under it
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                finish();
+            }
+        }
+
+        private void parkUntil(long deadline) {
+            long wait;
+            while (!stopRequested && (wait = deadline - System.nanoTime()) > 0) {
+                java.util.concurrent.locks.LockSupport.parkNanos(this, wait);
+            }
+        }
+
+        private void stepFast() {
+            for (int i = 0; i < FAST_SLICE && !stopRequested && (maxTicks <= 0 || ticks < maxTicks); i++) {
+                timedStep(0);
+            }
+        }
+
+        private void stepDue() {
+            long now = System.nanoTime();
+            long due = (now - startNanos) / stepNanos + 1 - nextTick;   // deadlines already passed
+            int cap = engine.getWorld().getClock().getMaxCatchUp();
+            if (due > cap) {
+                // too far behind: give up the oldest deadlines instead of snowballing
+                droppedTicks += due - cap;
+                nextTick += due - cap;
+                due = cap;
+            }
+            for (long i = 0; i < due && !stopRequested && (maxTicks <= 0 || ticks < maxTicks); i++) {
+                long late = System.nanoTime() - (startNanos + nextTick * stepNanos);
+                timedStep(Math.max(0, late));
+                nextTick++;
+            }
+        }
+
+        private void timedStep(long lateNanos) {
+            long t0 = System.nanoTime();
+            engine.step();
+            double ms = (System.nanoTime() - t0) / 1e6;
+            double lateMs = lateNanos / 1e6;
+            emaStepMs = (ticks == 0) ? ms : (1 - EMA) * emaStepMs + EMA * ms;
+            if (ms > maxStepMs) maxStepMs = ms;
+            if (realTime) {
+                emaLateMs = (1 - EMA) * emaLateMs + EMA * lateMs;
+                if (lateMs > maxLateMs) maxLateMs = lateMs;
+                if (lateNanos > stepNanos) missedDeadlines++;
+            }
+            ticks++;
+        }
+
+        private void finish() {
+            engine.close();
+            host.retire(this);
+            done.countDown();
+        }
+    }
+
+    private final int carriers;
+    private final int maxMatches;
+    private final double maxLoad;
+    private final java.util.concurrent.Semaphore permits;   // one per match allowed to step at once
+    private final Thread.Builder threads;
+    private final java.util.List<Match> matches = new java.util.ArrayList<>();   // guarded by 'matches'
+    private boolean closed;                                                      // guarded by 'matches'
+
+    /** One carrier per core, up to 64 matches, real-time load capped at 80% of the carriers. */
+    public MatchHost() {
+        this(Runtime.getRuntime().availableProcessors(), 64, 0.8);
+    }
+
+    public MatchHost(int carriers, int maxMatches, double maxLoad) {
+        this.carriers = Math.max(1, carriers);
+        this.maxMatches = Math.max(1, maxMatches);
+        this.maxLoad = maxLoad;
+        this.permits = new java.util.concurrent.Semaphore(this.carriers, true);
+        this.threads = Thread.ofVirtual().name("match-", 1);
+    }
+
+    public int getCarriers() { return carriers; }
+
+    /** Matches admitted and not finished yet. */
+    public java.util.List<Match> getMatches() {
+        synchronized (matches) { return new java.util.ArrayList<>(matches); }
+    }
+
+    /** Carrier time the real-time matches need, as a fraction of all carriers (1.0 = saturated). */
+    public double getLoad() {
+        synchronized (matches) { return loadLocked(); }
+    }
+
+    private double loadLocked() {
+        double sum = 0;
+        for (Match m : matches) sum += m.load();
+        return sum / carriers;
+    }
+
+    /**
+     * Start running world as a match (maxTicks <= 0: until stopped). aiThreads is the match's own
+     * AI pool; 1 is usually right here, since the matches already keep the carriers busy.
+     * Returns null if admission control turns it away.
+     */
+    public Match submit(String name, World world, int aiThreads, long maxTicks, boolean realTime) {
+        Match m;
+        synchronized (matches) {
+            if (closed || matches.size() >= maxMatches) return null;
+            if (realTime) {
+                // a newcomer's cost is unknown until it has run: guess the average real-time match
+                double sum = 0; int rt = 0;
+                for (Match o : matches) if (o.realTime) { sum += o.load(); rt++; }
+                double guess = (rt == 0) ? 0 : sum / rt / carriers;
+                if (loadLocked() + guess > maxLoad) return null;
+            }
+            m = new Match(this, name, world, aiThreads, maxTicks, realTime);
+            matches.add(m);
+            m.startNanos = System.nanoTime();
+            m.thread = threads.unstarted(m::run);
+        }
+        m.thread.start();
+        return m;
+    }
+
+    private void retire(Match m) {
+        synchronized (matches) { matches.remove(m); }
+    }
+
+    /** Stop every match and wait for them to wind down; no new ones are admitted. */
+    @Override
+    public void close() {
+        synchronized (matches) { closed = true; }
+        for (Match m : getMatches()) m.stop();
+        for (Match m : getMatches()) {
+            try {
+                m.await(5, java.util.concurrent.TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (Match m : getMatches()) m.thread.interrupt();   // stragglers: interrupt whatever they wait on
+    }
+}
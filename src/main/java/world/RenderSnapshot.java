@@ -0,0 +1,246 @@
+package world;
+
+import characters.Team;
+import characters.Unit;
+
+/**
+ * What the painter needs from one simulation frame, copied into flat primitive arrays.
+ *
+ * The sim thread fills one in after its steps (SimulationEngine.publishSnapshot) and hands it
+ * over; the EDT paints only from it and never touches World. Once published a snapshot is not
+ * written again until the painter has given it back, so both sides run without locks.
+ *
+ * Tiles cover just the camera window (plus a one-tile margin for the fog edge sampling);
+ * units and arrows are pre-filtered to what the player can currently see.
+ */
+public final class RenderSnapshot {
+    // tile bits
+    static final byte T_VISIBLE = 1, T_EXPLORED = 2, T_GROUND = 4;
+    // unit bits
+    static final byte U_SELECTED = 1, U_LOG = 2, U_STONE = 4;
+
+    private static final Team[] TEAMS = Team.values();
+    static final byte NO_TEAM = -1;
+
+    long tick;
+    double viewX, viewY;          // camera top-left in pixels, as of capture
+    double stepMs, losHitRate;    // for the OSD
+
+    // tile window [r0, r0 + rows) x [c0, c0 + cols)
+    int r0, c0, rows, cols;
+    byte[] tiles = new byte[0];
+    byte[] fog = new byte[0];     // feather distance, capped at Byte.MAX_VALUE
+
+    int unitCount;
+    double[] unitX = new double[0], unitY = new double[0], unitOrient = new double[0];
+    byte[] unitLen = new byte[0], unitTeam = new byte[0], unitFlags = new byte[0];
+
+    int arrowCount;
+    double[] arrowX = new double[0], arrowY = new double[0], arrowUx = new double[0], arrowUy = new double[0];
+
+    int cpCount;
+    int[] cpId = new int[0], cpRow = new int[0], cpCol = new int[0], cpRadius = new int[0];
+    byte[] cpOwner = new byte[0];
+
+    int treeCount, stoneCount;
+    int[] treeR = new int[0], treeC = new int[0], stoneR = new int[0], stoneC = new int[0];
+
+    int buildingCount;
+    int[] bRow = new int[0], bCol = new int[0];
+    byte[] bType = new byte[0], bTeam = new byte[0];
+
+    // capture scratch for the index window queries
+    private final java.util.ArrayList<Terrain.TreeBlock> treeHits = new java.util.ArrayList<>();
+    private final java.util.ArrayList<Terrain.StoneBlock> stoneHits = new java.util.ArrayList<>();
+    private final java.util.ArrayList<Building> buildingHits = new java.util.ArrayList<>();
+
+    RenderSnapshot() {}
+
+    public long getTick() { return tick; }
+    public int getUnitCount() { return unitCount; }
+    public int getArrowCount() { return arrowCount; }
+
+    static Team team(byte ordinal) { return ordinal < 0 ? null : TEAMS[ordinal]; }
+
+    /** Tile bits inside the captured window; 0 (unexplored) outside it. */
+    byte tileAt(int r, int c) {
+        int rr = r - r0, cc = c - c0;
+        if (rr < 0 || cc < 0 || rr >= rows || cc >= cols) return 0;
+        return tiles[rr * cols + cc];
+    }
+
+    int fogAt(int r, int c) {
+        int rr = r - r0, cc = c - c0;
+        if (rr < 0 || cc < 0 || rr >= rows || cc >= cols) return Byte.MAX_VALUE;
+        return fog[rr * cols + cc];
+    }
+
+    // ---------------- capture (sim thread) ----------------
+
+    /** Copy everything paintable; the tile window is [firstRow..lastRow] x [firstCol..lastCol]. */
+    void capture(World w, int firstRow, int firstCol, int lastRow, int lastCol, double viewX, double viewY) {
+        tick = w.getClock().tick();
+        this.viewX = viewX; this.viewY = viewY;
+        losHitRate = w.getLosCacheHitRate();
+
+        r0 = Math.max(0, firstRow - 1);
+        c0 = Math.max(0, firstCol - 1);
+        rows = Math.max(0, Math.min(w.getHeight() - 1, lastRow + 1) - r0 + 1);
+        cols = Math.max(0, Math.min(w.getWidth() - 1, lastCol + 1) - c0 + 1);
+        captureTiles(w);
+        captureUnits(w);
+        captureArrows(w);
+        captureStatic(w);
+    }
+
+    private void captureTiles(World w) {
+        int area = rows * cols;
+        if (tiles.length < area) { tiles = new byte[area]; fog = new byte[area]; }
+        for (int rr = 0, i = 0; rr < rows; rr++) {
+            int r = r0 + rr;
+            for (int cc = 0; cc < cols; cc++, i++) {
+                int c = c0 + cc;
+                byte bits = 0;
+                if (w.isVisible(r, c)) bits |= T_VISIBLE;
+                if (w.isExplored(r, c)) bits |= T_EXPLORED;
+                if (w.getCell(r, c, World.LAYER_GROUND) != 0) bits |= T_GROUND;
+                tiles[i] = bits;
+                fog[i] = (byte) Math.min(Byte.MAX_VALUE, w.getFogDist(r, c));
+            }
+        }
+    }
+
+    // Straight off the world's UnitStore columns; only the per-unit flags touch the Unit objects.
+    private void captureUnits(World w) {
+        UnitStore st = w.getUnitStore();
+        int n = st.size();
+        if (unitX.length < n) {
+            int cap = Math.max(n, unitX.length * 2);
+            unitX = new double[cap]; unitY = new double[cap]; unitOrient = new double[cap];
+            unitLen = new byte[cap]; unitTeam = new byte[cap]; unitFlags = new byte[cap];
+        }
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            double x = st.x(i), y = st.y(i);
+            // single-tile units: the head tile decides, no need to look at the object at all
+            if (st.length(i) <= 1 ? !w.isVisible((int) Math.floor(y), (int) Math.floor(x))
+                                  : !isUnitVisible(w, st.unit(i))) continue;   // hidden in fog
+            Unit u = st.unit(i);
+            unitX[k] = x; unitY[k] = y; unitOrient[k] = st.orient(i);
+            unitLen[k] = (byte) st.length(i);
+            unitTeam[k] = (byte) st.team(i);
+            byte f = 0;
+            if (u.isSelected()) f |= U_SELECTED;
+            if (u.getRole() == Unit.UnitRole.LUMBER && u.isCarryingLog()) f |= U_LOG;
+            if (u.getRole() == Unit.UnitRole.MINER && u.isCarryingStone()) f |= U_STONE;
+            unitFlags[k] = f;
+            k++;
+        }
+        unitCount = k;
+    }
+
+    private void captureArrows(World w) {
+        java.util.List<Arrow> arrows = w.getArrows();
+        int n = arrows.size();
+        if (arrowX.length < n) {
+            int cap = Math.max(n, arrowX.length * 2);
+            arrowX = new double[cap]; arrowY = new double[cap]; arrowUx = new double[cap]; arrowUy = new double[cap];
+        }
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            Arrow a = arrows.get(i);
+            double dx = a.tx - a.sx, dy = a.ty - a.sy;
+            double len = Math.hypot(dx, dy);
+            if (len < 1e-6 || !isArrowVisible(w, a, dx / len, dy / len)) continue;
+            arrowX[k] = a.getX(); arrowY[k] = a.getY();
+            arrowUx[k] = dx / len; arrowUy[k] = dy / len;
+            k++;
+        }
+        arrowCount = k;
+    }
+
+    /**
+     * Control points, resource blocks and buildings touching the window. Blocks and buildings come
+     * from the world's bucketed indexes, so the cost follows the window, not the map.
+     */
+    private void captureStatic(World w) {
+        int rEnd = r0 + rows, cEnd = c0 + cols;
+
+        java.util.List<ControlPoint> cps = w.getControlPoints();
+        if (cpId.length < cps.size()) {
+            int cap = cps.size();
+            cpId = new int[cap]; cpRow = new int[cap]; cpCol = new int[cap]; cpRadius = new int[cap]; cpOwner = new byte[cap];
+        }
+        int k = 0;
+        for (ControlPoint cp : cps) {
+            Team owner = w.evaluateOwner(cp);
+            cpId[k] = cp.getId(); cpRow[k] = cp.getRow(); cpCol[k] = cp.getCol(); cpRadius[k] = cp.getRadius();
+            cpOwner[k] = (owner == null) ? NO_TEAM : (byte) owner.ordinal();
+            k++;
+        }
+        cpCount = k;
+
+        treeHits.clear();
+        w.treeIndex().inRect(r0, c0, rEnd, cEnd, treeHits);
+        k = 0;
+        for (Terrain.TreeBlock b : treeHits) {
+            if (k == treeR.length) { treeR = grow(treeR); treeC = grow(treeC); }
+            treeR[k] = b.r; treeC[k] = b.c; k++;
+        }
+        treeCount = k;
+        treeHits.clear();
+
+        stoneHits.clear();
+        w.stoneIndex().inRect(r0, c0, rEnd, cEnd, stoneHits);
+        k = 0;
+        for (Terrain.StoneBlock b : stoneHits) {
+            if (k == stoneR.length) { stoneR = grow(stoneR); stoneC = grow(stoneC); }
+            stoneR[k] = b.r; stoneC[k] = b.c; k++;
+        }
+        stoneCount = k;
+        stoneHits.clear();
+
+        buildingHits.clear();
+        w.buildingRegistry().inRect(r0, c0, rEnd, cEnd, buildingHits);
+        k = 0;
+        for (Building b : buildingHits) {
+            Building.Type t = b.getType();
+            if (k == bRow.length) {
+                bRow = grow(bRow); bCol = grow(bCol);
+                bType = java.util.Arrays.copyOf(bType, bRow.length); bTeam = java.util.Arrays.copyOf(bTeam, bRow.length);
+            }
+            bRow[k] = b.getRow(); bCol[k] = b.getCol();
+            bType[k] = (byte) t.ordinal();
+            bTeam[k] = (b.getTeam() == null) ? NO_TEAM : (byte) b.getTeam().ordinal();
+            k++;
+        }
+        buildingCount = k;
+        buildingHits.clear();
+    }
+
+    private static int[] grow(int[] a) { return java.util.Arrays.copyOf(a, Math.max(16, a.length * 2)); }
+
+    // A long unit shows if any tile of its footprint (or its head/tail along orientation) is visible.
+    private static boolean isUnitVisible(World w, Unit u) {
+        for (int[] cell : w.footprintCells(u.getRowRounded(), u.getColRounded(), u.getFacing(), u.getLength())) {
+            if (w.isVisible(cell[0], cell[1])) return true;
+        }
+        int hr = (int) Math.floor(u.getY()), hc = (int) Math.floor(u.getX());
+        double ux = Math.cos(u.getOrientRad()), uy = Math.sin(u.getOrientRad());
+        int tr = (int) Math.floor(u.getY() - uy), tc = (int) Math.floor(u.getX() - ux); // one tile behind
+        return w.isVisible(hr, hc) || w.isVisible(tr, tc);
+    }
+
+    // An arrow shows if any sampled point along the last half tile of its shaft is visible.
+    private static boolean isArrowVisible(World w, Arrow a, double ux, double uy) {
+        double sx = a.getX(), sy = a.getY();
+        double hx = sx - ux * 0.5, hy = sy - uy * 0.5;
+        final int SAMPLES = 4;
+        for (int i = 0; i <= SAMPLES; i++) {
+            double t = (double) i / SAMPLES;
+            int r = (int) Math.floor(hy * (1 - t) + sy * t), c = (int) Math.floor(hx * (1 - t) + sx * t);
+            if (w.isVisible(r, c)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,173 @@
+package world;
+
+/**
+ * Index over one kind of harvestable block (trees or stones).
+ *
+ * - tile -> block id grid, so "which block covers (r,c)" is one array read
+ * - BUCKET x BUCKET spatial buckets (by top-left tile) for nearest-first searches and
+ *   window queries (the render snapshot's camera window)
+ * - every block remembers its bucket slot and its slot in its patch list, so removal is a
+ *   swap-remove in both and costs the same whether the forest has 10 blocks or 10,000
+ *
+ * The patch lists (TreePatch.trees(), StonePatch.stones()) stay the source of truth for
+ * rendering; add/remove keep them in sync, so don't edit them directly once indexed.
+ */
+final class ResourceIndex<B extends Terrain.ResourceBlock> {
+    static final int BUCKET = 8;
+
+    private final int height, width, blockSize;
+    private final int bw, bh;
+    private final ChunkedIntGrid tileIds;               // 0 = none; chunks only where blocks stand
+    private Terrain.ResourceBlock[] byId = new Terrain.ResourceBlock[64];
+    private int nextId = 1;
+    private final Terrain.ResourceBlock[][] buckets;
+    private final int[] counts;
+    private int live;
+
+    ResourceIndex(int height, int width, int blockSize) {
+        this.height = height; this.width = width; this.blockSize = blockSize;
+        this.bw = Math.max(1, (width + BUCKET - 1) / BUCKET);
+        this.bh = Math.max(1, (height + BUCKET - 1) / BUCKET);
+        this.tileIds = new ChunkedIntGrid(height, width, 0);
+        this.buckets = new Terrain.ResourceBlock[bw * bh][];
+        this.counts = new int[bw * bh];
+    }
+
+    int size() { return live; }
+
+    /** Appends b to its patch list and indexes it. */
+    void add(java.util.List<B> patch, B b) {
+        if (b.id != 0) return;
+        int id = nextId++;
+        if (id >= byId.length) byId = java.util.Arrays.copyOf(byId, byId.length * 2);
+        byId[id] = b;
+        b.id = id;
+        b.patch = patch;
+        b.patchSlot = patch.size();
+        patch.add(b);
+        stamp(b, id);
+
+        int k = bucketOf(b);
+        Terrain.ResourceBlock[] arr = buckets[k];
+        if (arr == null) arr = buckets[k] = new Terrain.ResourceBlock[8];
+        else if (counts[k] == arr.length) arr = buckets[k] = java.util.Arrays.copyOf(arr, arr.length * 2);
+        b.bucketSlot = counts[k]++;
+        arr[b.bucketSlot] = b;
+        live++;
+    }
+
+    /** Un-indexes b and swap-removes it from its patch list. False if it wasn't indexed. */
+    boolean remove(B b) {
+        int id = b.id;
+        if (id <= 0 || byId[id] != b) return false;
+        byId[id] = null;
+        stamp(b, 0);
+
+        int k = bucketOf(b);
+        Terrain.ResourceBlock[] arr = buckets[k];
+        int last = --counts[k];
+        if (b.bucketSlot != last) {
+            arr[b.bucketSlot] = arr[last];
+            arr[b.bucketSlot].bucketSlot = b.bucketSlot;
+        }
+        arr[last] = null;
+
+        swapRemove(b.patch, b.patchSlot);
+
+        b.id = 0; b.bucketSlot = -1; b.patchSlot = -1; b.patch = null;
+        live--;
+        return true;
+    }
+
+    private static <T extends Terrain.ResourceBlock> void swapRemove(java.util.List<T> list, int i) {
+        int last = list.size() - 1;
+        if (i != last) {
+            T moved = list.get(last);
+            list.set(i, moved);
+            moved.patchSlot = i;
+        }
+        list.remove(last);
+    }
+
+    /** Block covering tile (r,c), or null. */
+    @SuppressWarnings("unchecked")
+    B at(int r, int c) {
+        if (r < 0 || c < 0 || r >= height || c >= width) return null;
+        int id = tileIds.get(r, c);
+        return (id == 0) ? null : (B) byId[id];
+    }
+
+    /** Block anchored exactly at (top,left), or null. */
+    B anchoredAt(int top, int left) {
+        B b = at(top, left);
+        return (b != null && b.r == top && b.c == left) ? b : null;
+    }
+
+    /** Number of blocks still standing in b's patch. */
+    static int patchCount(Terrain.ResourceBlock b) { return b.patch == null ? 0 : b.patch.size(); }
+
+    private void stamp(Terrain.ResourceBlock b, int id) {
+        tileIds.fillRect(b.r, b.c, blockSize, blockSize, id);
+    }
+
+    private int bucketOf(Terrain.ResourceBlock b) {
+        int br = clamp(b.r / BUCKET, bh), bc = clamp(b.c / BUCKET, bw);
+        return br * bw + bc;
+    }
+
+    // ---------------- window query ----------------
+
+    /**
+     * Appends the blocks touching rows [r0, rEnd) x cols [c0, cEnd) to out. Only the buckets
+     * that can hold such a block are looked at, so the cost follows the window, not the map.
+     */
+    @SuppressWarnings("unchecked")
+    void inRect(int r0, int c0, int rEnd, int cEnd, java.util.List<? super B> out) {
+        if (r0 >= rEnd || c0 >= cEnd) return;
+        int bra = clamp((r0 - blockSize + 1) / BUCKET, bh), brb = clamp((rEnd - 1) / BUCKET, bh);
+        int bca = clamp((c0 - blockSize + 1) / BUCKET, bw), bcb = clamp((cEnd - 1) / BUCKET, bw);
+        for (int br = bra; br <= brb; br++) {
+            for (int bc = bca; bc <= bcb; bc++) {
+                int k = br * bw + bc;
+                Terrain.ResourceBlock[] arr = buckets[k];
+                for (int i = 0, n = counts[k]; i < n; i++) {
+                    Terrain.ResourceBlock b = arr[i];
+                    if (b.r + blockSize <= r0 || b.r >= rEnd || b.c + blockSize <= c0 || b.c >= cEnd) continue;
+                    out.add((B) b);
+                }
+            }
+        }
+    }
+
+    // ---------------- nearest-first search ----------------
+
+    /** Rings needed to cover the whole map from any bucket. */
+    int maxRing() { return Math.max(bw, bh); }
+
+    /**
+     * Lower bound on the Manhattan distance from the query tile to any tile touching
+     * (or inside) a block found in bucket ring 'ring'. Once this exceeds the best answer so
+     * far, farther rings can't improve on it.
+     */
+    int ringMinDist(int ring) {
+        return (ring == 0) ? 0 : Math.max(0, (ring - 1) * BUCKET + 1 - blockSize);
+    }
+
+    /** Appends the blocks anchored in bucket ring 'ring' around tile (r,c) to out. */
+    @SuppressWarnings("unchecked")
+    void ring(int r, int c, int ring, java.util.List<B> out) {
+        int cbr = clamp(r / BUCKET, bh), cbc = clamp(c / BUCKET, bw);
+        for (int br = cbr - ring; br <= cbr + ring; br++) {
+            if (br < 0 || br >= bh) continue;
+            boolean edgeRow = (br == cbr - ring || br == cbr + ring);
+            for (int bc = cbc - ring; bc <= cbc + ring; bc += (edgeRow || ring == 0) ? 1 : 2 * ring) {
+                if (bc < 0 || bc >= bw) continue;
+                int k = br * bw + bc;
+                Terrain.ResourceBlock[] arr = buckets[k];
+                for (int i = 0, n = counts[k]; i < n; i++) out.add((B) arr[i]);
+            }
+        }
+    }
+
+    private static int clamp(int v, int n) { return v < 0 ? 0 : (v >= n ? n - 1 : v); }
+}
@@ -0,0 +1,75 @@
+package world;
+
+/**
+ * Simulation time, decoupled from the wall clock.
+ *
+ * The sim moves in fixed steps (60 Hz by default). A real-time driver feeds the wall-clock time
+ * that passed into advance(); the accumulator turns it into a number of whole steps to run now,
+ * so a slow frame runs several steps back to back (catch-up) instead of one stretched step.
+ * Anything that needs "now" -- cooldowns, sighting TTLs, AI timers -- reads nowNanos() /
+ * nowSeconds(), which only move in beginStep(): every system in a tick sees the same time.
+ *
+ * Headless / batch drivers skip advance() and call beginStep() as fast as they like.
+ */
+public final class SimulationClock {
+    public static final long DEFAULT_STEP_NANOS = 1_000_000_000L / 60;
+
+    private final long stepNanos;
+    private final double stepSeconds;
+    private long tick;              // steps begun so far
+    private long simNanos;          // tick * stepNanos
+    private long accNanos;          // real time owed to the sim, not yet stepped
+
+    private double timeScale = 1.0; // >1 fast-forward, 0 paused
+    private int maxCatchUp = 8;     // steps per advance(); beyond that we drop time (spiral guard)
+    private long droppedNanos;
+
+    public SimulationClock() { this(DEFAULT_STEP_NANOS); }
+
+    public SimulationClock(long stepNanos) {
+        if (stepNanos <= 0) throw new IllegalArgumentException("stepNanos must be > 0: " + stepNanos);
+        this.stepNanos = stepNanos;
+        this.stepSeconds = stepNanos / 1e9;
+    }
+
+    /**
+     * Bank realElapsedNanos of wall time (scaled by the time scale) and return how many steps
+     * are due now. The caller runs that many steps, each starting with beginStep().
+     */
+    public int advance(long realElapsedNanos) {
+        if (realElapsedNanos > 0) accNanos += (long) (realElapsedNanos * timeScale);
+        long due = accNanos / stepNanos;
+        if (due > maxCatchUp) {
+            // overloaded for a long stretch: batch what we can, don't let the backlog snowball
+            droppedNanos += (due - maxCatchUp) * stepNanos;
+            due = maxCatchUp;
+            accNanos = due * stepNanos + accNanos % stepNanos;
+        }
+        accNanos -= due * stepNanos;
+        return (int) due;
+    }
+
+    /** Start the next fixed step: sim time moves forward by one step. */
+    public void beginStep() {
+        tick++;
+        simNanos += stepNanos;
+    }
+
+    public long nowNanos()      { return simNanos; }
+    public double nowSeconds()  { return simNanos / 1e9; }
+    public long tick()          { return tick; }
+    public long stepNanos()     { return stepNanos; }
+    public double stepSeconds() { return stepSeconds; }
+
+    /** Fraction of a step banked but not yet simulated (0..1); for render interpolation. */
+    public double alpha() { return (double) accNanos / stepNanos; }
+
+    public double getTimeScale() { return timeScale; }
+    public void setTimeScale(double s) { timeScale = Math.max(0.0, s); }
+
+    public int getMaxCatchUp() { return maxCatchUp; }
+    public void setMaxCatchUp(int n) { maxCatchUp = Math.max(1, n); }
+
+    /** Wall time given up because more than maxCatchUp steps were due at once. */
+    public long getDroppedNanos() { return droppedNanos; }
+}
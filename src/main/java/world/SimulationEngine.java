@@ -0,0 +1,153 @@
+package world;
+
+import characters.Unit;
+
+/**
+ * The per-tick simulation pipeline, with no UI attached.
+ *
+ * WorldPanel drives it in real time (advance() with the wall time that passed); servers and batch
+ * jobs call step() / run() back to back as fast as the machine goes. Either way every step is
+ * one fixed SimulationClock step, so results don't depend on who is driving.
+ *
+ * The AI step runs on aiThreads workers (see AIPhase); the rest of the pipeline stays serial.
+ * close() stops the workers.
+ *
+ * A UI doesn't read World while the sim runs: after its steps the sim thread calls
+ * publishSnapshot(), and the painter takes the newest RenderSnapshot with takeSnapshot() and
+ * hands the one it's done with back through releaseSnapshot(). Three buffers at most, no locks.
+ * Input goes the other way through post(): the UI queues what a click should do to the world
+ * (selection, move orders, building placement), and step() runs it on the sim thread before
+ * anything else, so the world only ever changes between steps on the thread that steps it.
+ */
+public final class SimulationEngine implements AutoCloseable {
+    private final World world;
+    private final AIPhase aiPhase;
+
+    private double emaStepMs = 0;
+    private long totalStepNanos = 0;   // wall time spent inside step()
+    private static final double EMA = 0.1;
+
+    // render hand-off: 'fresh' is published but not yet taken; 'returned' is done being painted
+    private final java.util.concurrent.atomic.AtomicReference<RenderSnapshot> fresh =
+            new java.util.concurrent.atomic.AtomicReference<>();
+    private final java.util.concurrent.atomic.AtomicReference<RenderSnapshot> returned =
+            new java.util.concurrent.atomic.AtomicReference<>();
+    private RenderSnapshot spare;   // sim-thread only
+
+    // actions posted from other threads (the EDT), run at the start of the next step
+    private final java.util.concurrent.ConcurrentLinkedQueue<Runnable> input =
+            new java.util.concurrent.ConcurrentLinkedQueue<>();
+
+    /** One AI worker per core, capped at 8. */
+    public SimulationEngine(World world) {
+        this(world, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public SimulationEngine(World world, int aiThreads) {
+        this.world = world;
+        this.aiPhase = new AIPhase(aiThreads);
+    }
+
+    public World getWorld() { return world; }
+
+    /** One fixed simulation step. */
+    public void step() {
+        long t0 = System.nanoTime();
+        for (Runnable r; (r = input.poll()) != null; ) r.run();   // queued input, in posting order
+        SimulationClock clock = world.getClock();
+        clock.beginStep();
+        double dt = clock.stepSeconds();
+        world.getTimers().advanceTo(clock.tick()); // due callbacks: AI thinks, chop/mine completion
+
+        // ===== STEP START =====
+        world.beginLosTick(); // fresh LOS memo for this tick
+        // Snapshot current occupancy so AI & movement see a consistent world this tick.
+        world.rebuildUnitMask();
+
+        world.updateAllSightings();
+
+        // (B) AI decisions (no movement), in parallel; world-side effects applied at the end
+        aiPhase.run(world);
+        world.beginMoveReservations();
+
+        // (C) Movement
+        for (Unit u : world.getUnits()) u.update(world, dt);
+
+        // (D) Cleanup deaths
+        world.cleanupDead();
+
+        // (E) Publish occupancy for NEXT step & any post-sim systems
+        world.rebuildUnitMask();
+
+        // The rest (order here isn't critical)
+        // unit layer is kept in sync incrementally (World.syncUnitsToLayer only verifies)
+        world.updateArrows(dt);
+        world.trySpawnArrivalsForHouses();
+        world.updateLumberJobs(dt);
+        world.updateMinerJobs(dt);
+        world.payIncome(dt);
+
+        long spent = System.nanoTime() - t0;
+        totalStepNanos += spent;
+        emaStepMs = (1 - EMA) * emaStepMs + EMA * (spent / 1_000_000.0);
+    }
+
+    /** Runs n steps back to back (headless / fast-forward). */
+    public void run(long n) {
+        for (long i = 0; i < n; i++) step();
+    }
+
+    /**
+     * Real-time driving: bank the wall time that passed and run the fixed steps now due
+     * (several after a slow frame). Returns how many steps ran.
+     */
+    public int advance(long realElapsedNanos) {
+        int steps = world.getClock().advance(realElapsedNanos);
+        for (int i = 0; i < steps; i++) step();
+        return steps;
+    }
+
+    /**
+     * Any thread: run action on the sim thread at the start of the next step (posting order is
+     * kept). This is how a UI changes or reads the world while the sim runs; anything it has to
+     * show comes back through SwingUtilities.invokeLater or the next snapshot.
+     */
+    public void post(Runnable action) { input.add(action); }
+
+    /** Smoothed wall time of one step, in ms. */
+    public double getEmaStepMs() { return emaStepMs; }
+
+    /** Wall time spent in step() since this engine was made. */
+    public long getTotalStepNanos() { return totalStepNanos; }
+
+    public int getAiThreads() { return aiPhase.threads(); }
+
+    /** AIs that actually thought in the last step (idle ones run at a reduced rate). */
+    public int getAiThinksLastStep() { return aiPhase.lastThinks(); }
+
+    /**
+     * Sim thread: capture the world for painting (tile window [firstRow..lastRow] x
+     * [firstCol..lastCol], camera at viewX/viewY) and make it the newest snapshot.
+     */
+    public void publishSnapshot(int firstRow, int firstCol, int lastRow, int lastCol, double viewX, double viewY) {
+        RenderSnapshot s = spare;
+        if (s == null) s = returned.getAndSet(null);
+        if (s == null) s = new RenderSnapshot();
+        s.capture(world, firstRow, firstCol, lastRow, lastCol, viewX, viewY);
+        s.stepMs = emaStepMs;
+        // if the painter never took the previous one, nobody is reading it: reuse it next time
+        spare = fresh.getAndSet(s);
+    }
+
+    /** Painter: the snapshot published since the last call, or null if there's nothing new. */
+    public RenderSnapshot takeSnapshot() { return fresh.getAndSet(null); }
+
+    /** Painter: done with s (it will be overwritten by a later capture). */
+    public void releaseSnapshot(RenderSnapshot s) {
+        if (s != null) returned.set(s);
+    }
+
+    /** Stops the AI workers (they're daemons, so forgetting this only leaks idle threads). */
+    @Override
+    public void close() { aiPhase.close(); }
+}
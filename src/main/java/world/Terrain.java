@@ -2,14 +2,22 @@ package world;
 
 public class Terrain {
     private Terrain() {}
-    // Marker for a 2×2 tree block anchored at (topRow, leftCol)
-    public static final class TreeBlock {
+    /** Harvestable block anchored at (topRow, leftCol); ResourceIndex bookkeeping lives here too. */
+    public abstract static class ResourceBlock {
         public final int r, c; // top-left cell
-        public TreeBlock(int r, int c) { this.r = r; this.c = c; }
+        // ResourceIndex bookkeeping (0 / -1 = not indexed)
+        int id = 0, bucketSlot = -1, patchSlot = -1;
+        java.util.List<? extends ResourceBlock> patch;
+        protected ResourceBlock(int r, int c) { this.r = r; this.c = c; }
     }
-    public static final class StoneBlock {
-        public final int r, c; // top-left cell
-        public StoneBlock(int r, int c) { this.r = r; this.c = c; }
+
+    // Marker for a 2×2 tree block anchored at (topRow, leftCol)
+    public static final class TreeBlock extends ResourceBlock {
+        public TreeBlock(int r, int c) { super(r, c); }
+    }
+    // 1×1 stone tile
+    public static final class StoneBlock extends ResourceBlock {
+        public StoneBlock(int r, int c) { super(r, c); }
     }
 
     // A patch is a set of 2×2 trees + an associated control point id
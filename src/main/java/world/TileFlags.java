@@ -0,0 +1,90 @@
+package world;
+
+/**
+ * One byte of packed flags per tile (row-major, r*width + c): everything movement and sight
+ * need to know about a cell, answerable with a single load and a mask.
+ *
+ * World's mutators keep it current (setCell/setWall for WALL, tree/stone/building stamping,
+ * the unit occupancy tracker for UNIT_PRESENT, move reservations for RESERVED). OPAQUE is
+ * derived: set exactly while the tile holds a tree, stone or building.
+ */
+public final class TileFlags {
+    public static final int WALL         = 1;
+    public static final int TREE         = 1 << 1;
+    public static final int STONE        = 1 << 2;
+    public static final int BUILDING     = 1 << 3;
+    public static final int OPAQUE       = 1 << 4;
+    public static final int UNIT_PRESENT = 1 << 5;  // a live unit's footprint covers the tile
+    public static final int RESERVED     = 1 << 6;  // someone reserved it as a move anchor this frame
+
+    /** Never walkable, whoever asks. */
+    public static final int STATIC_BLOCK = WALL | TREE | STONE | BUILDING;
+    /** What makes a tile OPAQUE. */
+    public static final int SIGHT_BLOCK  = TREE | STONE | BUILDING;
+
+    private final int height, width;
+    private final byte[] bits;
+
+    TileFlags(int height, int width) {
+        this.height = height; this.width = width;
+        this.bits = new byte[height * width];
+    }
+
+    /** Raw row-major array (LOS ray tables walk it directly). Don't write through it. */
+    byte[] raw() { return bits; }
+
+    public int get(int r, int c) { return bits[r * width + c]; }
+    public int getAt(int tile) { return bits[tile]; }
+
+    /** Any of 'mask' set at (r,c)? Out of bounds counts as nothing set. */
+    public boolean has(int r, int c, int mask) {
+        if (r < 0 || c < 0 || r >= height || c >= width) return false;
+        return (bits[r * width + c] & mask) != 0;
+    }
+
+    /**
+     * Sets/clears 'mask' at tile and keeps OPAQUE in step with SIGHT_BLOCK.
+     * Returns the bits that changed (0 if none).
+     */
+    int set(int tile, int mask, boolean on) {
+        int old = bits[tile];
+        int f = on ? (old | mask) : (old & ~mask);
+        f = ((f & SIGHT_BLOCK) != 0) ? (f | OPAQUE) : (f & ~OPAQUE);
+        if (f == old) return 0;
+        bits[tile] = (byte) f;
+        return old ^ f;
+    }
+
+    // ---------------- bulk queries (clipped to the map) ----------------
+
+    /** True if any tile in rows [r0, r0+h) x cols [c0, c0+w) has any of 'mask'. */
+    public boolean anyInRect(int r0, int c0, int h, int w, int mask) {
+        int ra = Math.max(0, r0), rb = Math.min(height, r0 + h);
+        int ca = Math.max(0, c0), cb = Math.min(width, c0 + w);
+        for (int r = ra; r < rb; r++) {
+            for (int i = r * width + ca, e = r * width + cb; i < e; i++) {
+                if ((bits[i] & mask) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    /** Number of tiles in the rectangle with any of 'mask'. */
+    public int countInRect(int r0, int c0, int h, int w, int mask) {
+        int ra = Math.max(0, r0), rb = Math.min(height, r0 + h);
+        int ca = Math.max(0, c0), cb = Math.min(width, c0 + w);
+        int n = 0;
+        for (int r = ra; r < rb; r++) {
+            for (int i = r * width + ca, e = r * width + cb; i < e; i++) {
+                if ((bits[i] & mask) != 0) n++;
+            }
+        }
+        return n;
+    }
+
+    /** True if every tile of the rectangle is in bounds and has none of 'mask' (e.g. a free footprint). */
+    public boolean allClear(int r0, int c0, int h, int w, int mask) {
+        if (r0 < 0 || c0 < 0 || r0 + h > height || c0 + w > width) return false;
+        return !anyInRect(r0, c0, h, w, mask);
+    }
+}
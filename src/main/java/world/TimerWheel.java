@@ -0,0 +1,119 @@
+package world;
+
+/**
+ * Hierarchical timing wheel over simulation ticks: "call me back at tick T" for thousands of
+ * units without polling each of them every tick.
+ *
+ * Four levels of 64 slots; level L slots are 64^L ticks wide, so the wheel spans 2^24 ticks
+ * (~78 h at 60 Hz) and anything further out waits in an overflow list. A timer sits in the
+ * level where its deadline first differs from 'now'; when 'now' enters that block it cascades
+ * down a level, and it fires from level 0 on its exact tick. Schedule, cancel and each
+ * advanced tick are O(1) (plus the timers that actually cascade or fire).
+ *
+ * Timers are intrusive and reusable (a unit keeps one and reschedules it), so steady state
+ * allocates nothing. Single-threaded: only the sim thread's serial phases touch the wheel.
+ * Timers due on the same tick fire in the order they were scheduled.
+ */
+public final class TimerWheel {
+    private static final int BITS = 6, SLOTS = 1 << BITS, MASK = SLOTS - 1, LEVELS = 4;
+    private static final int OVERFLOW = LEVELS * SLOTS;   // bucket index of the overflow list
+
+    /** What a timer does when it comes due; tick is the tick it fired on. */
+    public interface Callback { void onTimer(Timer timer, long tick); }
+
+    /** A reusable timer; at most one pending deadline at a time. */
+    public static final class Timer {
+        private final Callback callback;
+        private long deadline;
+        private int bucket = -1;           // -1 = not scheduled
+        private Timer prev, next;
+        private TimerWheel wheel;
+
+        public Timer(Callback callback) { this.callback = callback; }
+
+        public boolean isScheduled() { return bucket >= 0; }
+        public long getDeadline() { return deadline; }
+
+        /** (Re)schedule for 'tick' (a tick that has already passed means the next one). */
+        public void scheduleAt(TimerWheel w, long tick) {
+            cancel();
+            w.insert(this, Math.max(tick, w.now + 1));
+            w.size++;
+        }
+
+        public void scheduleIn(TimerWheel w, long ticks) { scheduleAt(w, w.now + Math.max(1, ticks)); }
+
+        public void cancel() {
+            if (bucket < 0) return;
+            wheel.unlink(this);
+            wheel.size--;
+        }
+    }
+
+    private final Timer[] heads = new Timer[OVERFLOW + 1];
+    private final Timer[] tails = new Timer[OVERFLOW + 1];
+    private long now;     // every timer due at or before this tick has fired
+    private int size;
+
+    public long now() { return now; }
+    /** Timers currently scheduled. */
+    public int size() { return size; }
+
+    /** Move time forward to 'tick', firing everything due on the way. */
+    public void advanceTo(long tick) {
+        while (now < tick) {
+            now++;
+            // cascade the coarse levels whose block 'now' just entered, top-down
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((now & ((1L << (BITS * level)) - 1)) != 0) continue;
+                if (level == LEVELS - 1) drain(OVERFLOW);
+                drain(level * SLOTS + (int) ((now >>> (BITS * level)) & MASK));
+            }
+            drain((int) (now & MASK));
+        }
+    }
+
+    // Take a bucket's list and re-file or fire each timer (callbacks may reschedule freely).
+    private void drain(int bucket) {
+        Timer t = heads[bucket];
+        heads[bucket] = tails[bucket] = null;
+        while (t != null) {
+            Timer next = t.next;
+            t.prev = t.next = null;
+            t.bucket = -1;
+            if (t.deadline <= now) {
+                size--;
+                t.callback.onTimer(t, now);
+            } else {
+                insert(t, t.deadline);
+            }
+            t = next;
+        }
+    }
+
+    private void insert(Timer t, long deadline) {
+        t.deadline = deadline;
+        t.wheel = this;
+        long diff = deadline ^ now;
+        int bucket = OVERFLOW;
+        for (int level = 0; level < LEVELS; level++) {
+            if ((diff >>> (BITS * (level + 1))) == 0) {
+                bucket = level * SLOTS + (int) ((deadline >>> (BITS * level)) & MASK);
+                break;
+            }
+        }
+        t.bucket = bucket;
+        t.prev = tails[bucket];
+        t.next = null;
+        if (tails[bucket] != null) tails[bucket].next = t; else heads[bucket] = t;
+        tails[bucket] = t;
+    }
+
+    private void unlink(Timer t) {
+        int b = t.bucket;
+        if (t.prev != null) t.prev.next = t.next; else heads[b] = t.next;
+        if (t.next != null) t.next.prev = t.prev; else tails[b] = t.prev;
+        t.prev = t.next = null;
+        t.bucket = -1;
+    }
+}
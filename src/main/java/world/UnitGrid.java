@@ -0,0 +1,201 @@
+package world;
+
+import characters.ActorType;
+import characters.Team;
+import characters.Unit;
+
+/**
+ * Uniform-grid spatial hash of the world's units (BUCKET x BUCKET tiles per bucket, by rounded tile).
+ *
+ * Kept up to date incrementally: World inserts on spawn, removes on cleanup/mount, and
+ * Unit.update reports moves; a move only costs work when the unit crosses a bucket edge.
+ * Each unit remembers its bucket + slot (Unit.__engine_*GridSlot) so removal is a swap-remove.
+ *
+ * Dead units stay in the grid until World removes them from the unit list; the
+ * radius / nearest queries skip them, collect() does not (callers decide).
+ */
+public final class UnitGrid {
+    public static final int BUCKET = 8;
+
+    private final int bw, bh;
+    private final Unit[][] cells;
+    private final int[] counts;
+    private int size;
+
+    UnitGrid(int height, int width) {
+        this.bw = Math.max(1, (width + BUCKET - 1) / BUCKET);
+        this.bh = Math.max(1, (height + BUCKET - 1) / BUCKET);
+        this.cells = new Unit[bw * bh][];
+        this.counts = new int[bw * bh];
+    }
+
+    public int size() { return size; }
+
+    private int bucketOf(Unit u) {
+        int br = clamp(u.getRowRounded() / BUCKET, bh), bc = clamp(u.getColRounded() / BUCKET, bw);
+        return br * bw + bc;
+    }
+
+    void insert(Unit u) {
+        if (u.__engine_getGridBucket() >= 0) return; // already in
+        int b = bucketOf(u);
+        Unit[] arr = cells[b];
+        if (arr == null) arr = cells[b] = new Unit[4];
+        else if (counts[b] == arr.length) arr = cells[b] = java.util.Arrays.copyOf(arr, arr.length * 2);
+        int slot = counts[b]++;
+        arr[slot] = u;
+        u.__engine_setGridSlot(b, slot);
+        size++;
+    }
+
+    void remove(Unit u) {
+        int b = u.__engine_getGridBucket();
+        if (b < 0) return;
+        int slot = u.__engine_getGridSlot();
+        Unit[] arr = cells[b];
+        int last = --counts[b];
+        if (slot != last) {
+            Unit moved = arr[last];
+            arr[slot] = moved;
+            moved.__engine_setGridSlot(b, slot);
+        }
+        arr[last] = null;
+        u.__engine_setGridSlot(-1, -1);
+        size--;
+    }
+
+    /** Call after u's position changed; O(1), and a no-op unless it crossed into another bucket. */
+    void moved(Unit u) {
+        int b = u.__engine_getGridBucket();
+        if (b < 0 || b == bucketOf(u)) return;
+        remove(u);
+        insert(u);
+    }
+
+    void clear() {
+        for (int b = 0; b < cells.length; b++) {
+            Unit[] arr = cells[b];
+            for (int i = 0; i < counts[b]; i++) { arr[i].__engine_setGridSlot(-1, -1); arr[i] = null; }
+            counts[b] = 0;
+        }
+        size = 0;
+    }
+
+    // ---------------- queries ----------------
+
+    /** Appends every unit (dead included) whose bucket overlaps the square (r±radius, c±radius). */
+    public void collect(int r, int c, int radius, java.util.List<Unit> out) {
+        int br0 = clamp(Math.floorDiv(r - radius, BUCKET), bh), br1 = clamp(Math.floorDiv(r + radius, BUCKET), bh);
+        int bc0 = clamp(Math.floorDiv(c - radius, BUCKET), bw), bc1 = clamp(Math.floorDiv(c + radius, BUCKET), bw);
+        for (int br = br0; br <= br1; br++) {
+            for (int bc = bc0; bc <= bc1; bc++) {
+                int b = br * bw + bc;
+                Unit[] arr = cells[b];
+                for (int i = 0, n = counts[b]; i < n; i++) out.add(arr[i]);
+            }
+        }
+    }
+
+    /**
+     * Live units within 'radius' (Euclid, continuous x/y) of (x,y), optionally filtered by
+     * team and/or actor type (null = any). Returns how many were appended to out.
+     */
+    public int queryRadius(double x, double y, double radius, Team team, ActorType type, java.util.List<Unit> out) {
+        double r2 = radius * radius;
+        int added = 0;
+        int br0 = clamp((int)Math.floor((y - radius - 1) / BUCKET), bh), br1 = clamp((int)Math.floor((y + radius + 1) / BUCKET), bh);
+        int bc0 = clamp((int)Math.floor((x - radius - 1) / BUCKET), bw), bc1 = clamp((int)Math.floor((x + radius + 1) / BUCKET), bw);
+        for (int br = br0; br <= br1; br++) {
+            for (int bc = bc0; bc <= bc1; bc++) {
+                int b = br * bw + bc;
+                Unit[] arr = cells[b];
+                for (int i = 0, n = counts[b]; i < n; i++) {
+                    Unit u = arr[i];
+                    if (u.isDead()) continue;
+                    if (team != null && u.getTeam() != team) continue;
+                    if (type != null && (u.getActor() == null || u.getActor().getType() != type)) continue;
+                    double dx = u.getX() - x, dy = u.getY() - y;
+                    if (dx * dx + dy * dy > r2) continue;
+                    out.add(u);
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    /** Closest live unit within maxRadius passing filter (null = any), or null. Expands bucket rings. */
+    public Unit nearest(double x, double y, double maxRadius, java.util.function.Predicate<Unit> filter) {
+        Unit best = null;
+        double bestD2 = maxRadius * maxRadius;
+        int cbr = clamp((int)Math.round(y) / BUCKET, bh), cbc = clamp((int)Math.round(x) / BUCKET, bw);
+        int maxRing = (int)Math.ceil(maxRadius / BUCKET) + 1;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // everything in this ring is at least this far away (rounding slack of 1 tile)
+            double minD = (ring - 1) * BUCKET - 1;
+            if (best != null && minD > 0 && minD * minD > bestD2) break;
+            for (int br = cbr - ring; br <= cbr + ring; br++) {
+                if (br < 0 || br >= bh) continue;
+                boolean edgeRow = (br == cbr - ring || br == cbr + ring);
+                for (int bc = cbc - ring; bc <= cbc + ring; bc += (edgeRow || ring == 0) ? 1 : 2 * ring) {
+                    if (bc < 0 || bc >= bw) continue;
+                    int b = br * bw + bc;
+                    Unit[] arr = cells[b];
+                    for (int i = 0, n = counts[b]; i < n; i++) {
+                        Unit u = arr[i];
+                        if (u.isDead()) continue;
+                        double dx = u.getX() - x, dy = u.getY() - y, d2 = dx * dx + dy * dy;
+                        if (d2 > bestD2) continue;
+                        if (d2 == bestD2 && best != null && u.getId() > best.getId()) continue; // stable ties
+                        if (filter != null && !filter.test(u)) continue;
+                        best = u; bestD2 = d2;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Up to k closest live units within maxRadius passing filter, nearest first, appended to out.
+     * Returns how many were appended.
+     */
+    public int kNearest(double x, double y, int k, double maxRadius,
+                        java.util.function.Predicate<Unit> filter, java.util.List<Unit> out) {
+        if (k <= 0) return 0;
+        Unit[] pick = new Unit[k];
+        double[] pd = new double[k];
+        int n = 0;
+        double r2 = maxRadius * maxRadius;
+        int cbr = clamp((int)Math.round(y) / BUCKET, bh), cbc = clamp((int)Math.round(x) / BUCKET, bw);
+        int maxRing = (int)Math.ceil(maxRadius / BUCKET) + 1;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            double minD = (ring - 1) * BUCKET - 1;
+            if (n == k && minD > 0 && minD * minD > pd[k - 1]) break;
+            for (int br = cbr - ring; br <= cbr + ring; br++) {
+                if (br < 0 || br >= bh) continue;
+                boolean edgeRow = (br == cbr - ring || br == cbr + ring);
+                for (int bc = cbc - ring; bc <= cbc + ring; bc += (edgeRow || ring == 0) ? 1 : 2 * ring) {
+                    if (bc < 0 || bc >= bw) continue;
+                    int b = br * bw + bc;
+                    Unit[] arr = cells[b];
+                    for (int i = 0, cnt = counts[b]; i < cnt; i++) {
+                        Unit u = arr[i];
+                        if (u.isDead()) continue;
+                        double dx = u.getX() - x, dy = u.getY() - y, d2 = dx * dx + dy * dy;
+                        if (d2 > r2 || (n == k && d2 >= pd[k - 1])) continue;
+                        if (filter != null && !filter.test(u)) continue;
+                        // insertion into the small sorted window
+                        int at = (n < k) ? n++ : k - 1;
+                        while (at > 0 && pd[at - 1] > d2) { pick[at] = pick[at - 1]; pd[at] = pd[at - 1]; at--; }
+                        pick[at] = u; pd[at] = d2;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) out.add(pick[i]);
+        return n;
+    }
+
+    private static int clamp(int v, int n) { return v < 0 ? 0 : (v >= n ? n - 1 : v); }
+}
@@ -0,0 +1,25 @@
+package world;
+
+import characters.Unit;
+
+/**
+ * A unit's life in a World, as events: spawned (it joined and has its id), died (it stays in the
+ * world as a corpse until the end-of-step cleanup), despawned (it is leaving; its id goes stale
+ * right after the listeners ran).
+ *
+ * World delivers them synchronously on the sim thread, outside the parallel AI phase (deaths an
+ * AI causes arrive when its commands are applied). Spawn and death go to listeners in the order
+ * they were added, despawn in reverse, so a listener added after another can rely on it both
+ * ways round. The world's own indexes (spatial hash, occupancy, control points, job board,
+ * sightings) are listeners too, added when the world is built.
+ *
+ * A listener must not add or remove lifecycle listeners while an event is being delivered: the
+ * world walks the list by index with its size read up front, so a change mid-delivery skips or
+ * repeats listeners. Spawning or despawning units from inside a callback is not supported
+ * either.
+ */
+public interface UnitLifecycleListener {
+    default void unitSpawned(Unit u) {}
+    default void unitDied(Unit u) {}
+    default void unitDespawned(Unit u) {}
+}
@@ -0,0 +1,195 @@
+package world;
+
+import characters.Unit;
+
+/**
+ * Per-tile unit occupancy, maintained incrementally.
+ *
+ * Two tallies per tile (row-major): live units only (what movement / isBlocked care about) and
+ * all units in the world, corpses included (what the unit layer shows). Next to each count we
+ * keep the XOR of the occupants' ids, which is exactly the remaining occupant's id whenever the
+ * count is 1 -- that's all isOccupiedFast() and the layer need.
+ *
+ * The tallies live in chunked grids (both counts packed in one int: live in the low 16 bits,
+ * all in the high 16), so memory follows where units have been rather than the map area;
+ * trim() gives back chunks nobody stands in any more.
+ *
+ * The live tally also drives TileFlags.UNIT_PRESENT (set on 0 -> 1, cleared on 1 -> 0), so
+ * isBlocked() only asks us about tiles that actually hold someone.
+ *
+ * Each unit remembers the tiles it is stamped on (Unit.__engine_*Mask*), so an update only
+ * touches the cells a unit left / entered. World calls place() when a unit's rounded anchor,
+ * facing or length changes, died() on death, remove() when it leaves the world.
+ */
+final class UnitOccupancy {
+    private final World world;
+    private final int height, width;
+    private static final int ALL_ONE = 1 << 16;
+    private final ChunkedIntGrid counts, liveXor, allXor;
+
+    UnitOccupancy(World world, int height, int width) {
+        this.world = world;
+        this.height = height; this.width = width;
+        counts = new ChunkedIntGrid(height, width, 0);
+        liveXor = new ChunkedIntGrid(height, width, 0);
+        allXor = new ChunkedIntGrid(height, width, 0);
+    }
+
+    private int tile(int r, int c) {
+        return (r < 0 || c < 0 || r >= height || c >= width) ? -1 : r * width + c;
+    }
+
+    private int headTile(Unit u) { return tile(u.getRowRounded(), u.getColRounded()); }
+
+    private int tailTile(Unit u) {
+        if (u.getLength() < 2) return -1;
+        int[] off = World.facingOffset(u.getFacing());
+        // tail is one cell *behind* the head (opposite of facing)
+        return tile(u.getRowRounded() - off[0], u.getColRounded() - off[1]);
+    }
+
+    /** Re-stamp u at its current footprint. O(1); no-op unless the footprint changed. */
+    void place(Unit u) {
+        int h = headTile(u), t = tailTile(u);
+        boolean live = !u.isDead();
+        int oh = u.__engine_getMaskHead(), ot = u.__engine_getMaskTail();
+        boolean olive = u.__engine_isMaskLive();
+        if (h == oh && t == ot && live == olive) return;
+        unstamp(u, oh, ot, olive);
+        stamp(u, h, t, live);
+        u.__engine_setMask(h, t, live);
+    }
+
+    /** u died: it stays on the layer (corpse) but no longer blocks. */
+    void died(Unit u) {
+        if (!u.__engine_isMaskLive()) return;
+        int id = u.getId();
+        int h = u.__engine_getMaskHead(), t = u.__engine_getMaskTail();
+        if (h >= 0) unlive(h, id);
+        if (t >= 0 && t != h) unlive(t, id);
+        u.__engine_setMask(h, t, false);
+    }
+
+    private void unlive(int i, int id) {
+        int r = i / width, c = i - r * width;
+        int n = counts.add(r, c, -1);
+        liveXor.set(r, c, liveXor.get(r, c) ^ id);
+        if ((n & 0xFFFF) == 0) world.setUnitPresent(i, false);
+    }
+
+    void remove(Unit u) {
+        unstamp(u, u.__engine_getMaskHead(), u.__engine_getMaskTail(), u.__engine_isMaskLive());
+        u.__engine_setMask(-1, -1, false);
+    }
+
+    private void stamp(Unit u, int h, int t, boolean live) {
+        int id = u.getId();
+        if (h >= 0) add(h, id, live, +1);
+        if (t >= 0 && t != h) add(t, id, live, +1);
+    }
+
+    private void unstamp(Unit u, int h, int t, boolean live) {
+        int id = u.getId();
+        if (h >= 0) add(h, id, live, -1);
+        if (t >= 0 && t != h) add(t, id, live, -1);
+    }
+
+    private void add(int i, int id, boolean live, int delta) {
+        int r = i / width, c = i - r * width;
+        int packed = counts.add(r, c, live ? delta * (ALL_ONE + 1) : delta * ALL_ONE);
+        if (live) {
+            liveXor.set(r, c, liveXor.get(r, c) ^ id);
+            int lc = packed & 0xFFFF;
+            if (lc == 0 || (lc == 1 && delta > 0)) world.setUnitPresent(i, lc != 0);
+        }
+        int ax = allXor.get(r, c) ^ id;
+        allXor.set(r, c, ax);
+        int n = packed >>> 16;
+        if (n == 0) world.setCell(r, c, World.LAYER_UNIT, World.UNIT_NONE);
+        else if (n == 1) world.setCell(r, c, World.LAYER_UNIT, ax);
+        else if (delta > 0) world.setCell(r, c, World.LAYER_UNIT, id); // stacked: show the latest arrival
+        else if (world.getCell(r, c, World.LAYER_UNIT) == id) {
+            // the one shown left a stack: show someone still there (ids get reused, so never keep it)
+            world.setCell(r, c, World.LAYER_UNIT, otherOccupant(i, id));
+        }
+    }
+
+    private final java.util.ArrayList<Unit> scratch = new java.util.ArrayList<>();
+
+    // Id of a unit (live or dead) stamped on tile i other than 'leaving'. Rare: only when the
+    // unit the layer shows walks off a tile that still holds two or more.
+    private int otherOccupant(int i, int leaving) {
+        int r = i / width, c = i - r * width;
+        scratch.clear();
+        world.getUnitGrid().collect(r, c, 1, scratch);   // a tail is one tile from its head
+        int found = World.UNIT_NONE;
+        for (Unit o : scratch) {
+            if (o.getId() != leaving && (o.__engine_getMaskHead() == i || o.__engine_getMaskTail() == i)) {
+                found = o.getId();
+                break;
+            }
+        }
+        scratch.clear();
+        return found;
+    }
+
+    /** Blocked by a live unit other than 'ignore' (ignored only when it's the sole occupant). */
+    boolean occupied(int r, int c, Unit ignore) {
+        int cnt = counts.get(r, c) & 0xFFFF;
+        if (cnt == 0) return false;
+        return !(cnt == 1 && ignore != null && liveXor.get(r, c) == ignore.getId());
+    }
+
+    /** Frees chunks no unit (live or dead) stands in any more. */
+    int trim() {
+        return counts.trim() + liveXor.trim() + allXor.trim();
+    }
+
+    long allocatedBytes() {
+        return counts.allocatedBytes() + liveXor.allocatedBytes() + allXor.allocatedBytes();
+    }
+
+    /**
+     * Recompute the tallies from scratch and compare, along with UNIT_PRESENT and the unit layer
+     * (verify mode / tests). Throws IllegalStateException naming the first tile that disagrees.
+     */
+    void verify(java.util.List<Unit> units) {
+        int n = height * width;
+        short[] lc = new short[n], ac = new short[n];
+        int[] lx = new int[n], ax = new int[n];
+        for (Unit u : units) {
+            int h = headTile(u), t = tailTile(u), id = u.getId();
+            for (int k = 0; k < 2; k++) {
+                int i = (k == 0) ? h : t;
+                if (i < 0 || (k == 1 && t == h)) continue;
+                ac[i]++; ax[i] ^= id;
+                if (!u.isDead()) { lc[i]++; lx[i] ^= id; }
+            }
+        }
+        TileFlags flags = world.getTileFlags();
+        for (int i = 0; i < n; i++) {
+            int r = i / width, c = i % width;
+            int packed = counts.get(r, c), live = packed & 0xFFFF, all = packed >>> 16;
+            if (lc[i] != live || lx[i] != liveXor.get(r, c) || ac[i] != all || ax[i] != allXor.get(r, c)) {
+                throw new IllegalStateException("Unit occupancy out of sync at (" + r + "," + c
+                        + "): live " + live + " expected " + lc[i]
+                        + ", all " + all + " expected " + ac[i]);
+            }
+            if (((flags.getAt(i) & TileFlags.UNIT_PRESENT) != 0) != (lc[i] > 0)) {
+                throw new IllegalStateException("UNIT_PRESENT flag out of sync at (" + (i / width) + "," + (i % width) + ")");
+            }
+            int shown = world.getCell(r, c, World.LAYER_UNIT);
+            boolean layerOk;
+            if (ac[i] == 0) layerOk = shown == World.UNIT_NONE;
+            else if (ac[i] == 1) layerOk = shown == ax[i];
+            else {
+                Unit o = world.unitById(shown);   // stacked: any occupant will do
+                layerOk = o != null && (headTile(o) == i || tailTile(o) == i);
+            }
+            if (!layerOk) {
+                throw new IllegalStateException("Unit layer out of sync at (" + r + "," + c + "): shows "
+                        + shown + " with " + ac[i] + " occupant(s)");
+            }
+        }
+    }
+}
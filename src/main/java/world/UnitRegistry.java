@@ -0,0 +1,63 @@
+package world;
+
+import characters.Unit;
+
+/**
+ * Generational handle table: unit id -> Unit in O(1), allocation-free.
+ *
+ * An id packs (generation << SLOT_BITS) | slot. Slots are recycled through a free list and
+ * their generation bumped on release, so an id kept around after its unit left the world
+ * resolves to null instead of to whoever reuses the slot. Slot 0 is never handed out and the
+ * first generation is 0, so the first units still get the familiar ids 1, 2, 3...
+ */
+final class UnitRegistry {
+    static final int SLOT_BITS = 20;                  // ~1M live units
+    static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    static final int GEN_MASK  = (1 << (31 - SLOT_BITS)) - 1; // keep ids positive
+
+    private Unit[] slots = new Unit[256];
+    private int[] gens = new int[256];
+    private int[] free = new int[64];
+    private int freeTop = 0;
+    private int nextSlot = 1;
+
+    /** Gives u a fresh id (written via __engine_setId) and returns it. */
+    int register(Unit u) {
+        int slot;
+        if (freeTop > 0) {
+            slot = free[--freeTop];
+        } else {
+            slot = nextSlot++;
+            if (slot > SLOT_MASK) throw new IllegalStateException("Too many live units");
+            if (slot >= slots.length) {
+                int n = Math.min(SLOT_MASK + 1, slots.length * 2);
+                slots = java.util.Arrays.copyOf(slots, n);
+                gens = java.util.Arrays.copyOf(gens, n);
+            }
+        }
+        slots[slot] = u;
+        int id = (gens[slot] << SLOT_BITS) | slot;
+        u.__engine_setId(id);
+        return id;
+    }
+
+    /** u left the world: its id goes stale, slot is recycled. */
+    void release(Unit u) {
+        int id = u.getId();
+        int slot = id & SLOT_MASK;
+        if (slot <= 0 || slot >= nextSlot || slots[slot] != u) return; // not ours / already released
+        slots[slot] = null;
+        gens[slot] = (gens[slot] + 1) & GEN_MASK;
+        if (freeTop == free.length) free = java.util.Arrays.copyOf(free, freeTop * 2);
+        free[freeTop++] = slot;
+    }
+
+    /** Unit currently registered under id, or null if the id is unknown or stale. */
+    Unit get(int id) {
+        if (id <= 0) return null;
+        int slot = id & SLOT_MASK;
+        if (slot >= nextSlot) return null;
+        if (gens[slot] != (id >>> SLOT_BITS)) return null;
+        return slots[slot];
+    }
+}
@@ -0,0 +1,105 @@
+package world;
+
+import characters.Unit;
+
+/**
+ * Structure-of-arrays home for the hot per-unit fields: position, orientation, facing, team,
+ * life state, footprint length and id, one primitive array each, indexed by a dense slot.
+ *
+ * While a unit is in a world its Unit object is only a handle: the getters and setters read
+ * and write these arrays through the slot (Unit.__engine_setStore copies the values in on
+ * attach and back out on detach). Bulk passes that filter by team / life or look at positions
+ * (visibility, sightings, tile occupancy) scan the arrays front to back instead of chasing one heap
+ * object per unit.
+ *
+ * Slots are packed: removing a unit moves the last one into its hole, so [0, size) is always
+ * live. The slot order is the world's unit order: World.getUnits() is view() over this.
+ * Enums are stored as ordinals.
+ */
+public final class UnitStore {
+    private int size;
+    private Unit[] units = new Unit[64];
+    private double[] x = new double[64], y = new double[64], orient = new double[64];
+    private byte[] facing = new byte[64], team = new byte[64], life = new byte[64], len = new byte[64];
+    private int[] id = new int[64];
+
+    /** Units currently stored; slots [0, size) are live. */
+    public int size() { return size; }
+    public Unit unit(int slot) { return units[slot]; }
+
+    public double x(int slot) { return x[slot]; }
+    public double y(int slot) { return y[slot]; }
+    public double orient(int slot) { return orient[slot]; }
+    public int facing(int slot) { return facing[slot]; }
+    public int team(int slot) { return team[slot]; }
+    public int life(int slot) { return life[slot]; }
+    public int length(int slot) { return len[slot]; }
+    public int id(int slot) { return id[slot]; }
+
+    public void setX(int slot, double v) { x[slot] = v; }
+    public void setY(int slot, double v) { y[slot] = v; }
+    public void setOrient(int slot, double v) { orient[slot] = v; }
+    public void setFacing(int slot, int ordinal) { facing[slot] = (byte) ordinal; }
+    public void setTeam(int slot, int ordinal) { team[slot] = (byte) ordinal; }
+    public void setLife(int slot, int ordinal) { life[slot] = (byte) ordinal; }
+    public void setLength(int slot, int l) { len[slot] = (byte) Math.min(l, Byte.MAX_VALUE); }
+    public void setId(int slot, int v) { id[slot] = v; }
+
+    private final Units view = new Units();
+
+    /**
+     * Read-only live list of the stored units in slot order (no copy; changes as units come and
+     * go). Its iterators are fail-fast like ArrayList's: an add or remove during an iteration
+     * makes the next step throw ConcurrentModificationException.
+     */
+    java.util.List<Unit> view() { return view; }
+
+    private final class Units extends java.util.AbstractList<Unit> implements java.util.RandomAccess {
+        @Override public Unit get(int i) {
+            if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + size);
+            return units[i];
+        }
+        @Override public int size() { return size; }
+        void changed() { modCount++; }
+    }
+
+    /** Takes u in; its current field values move into the arrays. */
+    void add(Unit u) {
+        if (size == units.length) grow();
+        int slot = size++;
+        units[slot] = u;
+        u.__engine_setStore(this, slot);
+        view.changed();
+    }
+
+    /** Hands u's values back to the object and closes the hole with the last slot. */
+    void remove(Unit u) {
+        int slot = u.__engine_getStoreSlot();
+        if (slot < 0 || slot >= size || units[slot] != u) return;   // not ours
+        u.__engine_setStore(null, -1);
+        view.changed();
+        int last = --size;
+        if (slot != last) {
+            Unit moved = units[last];
+            units[slot] = moved;
+            x[slot] = x[last]; y[slot] = y[last]; orient[slot] = orient[last];
+            facing[slot] = facing[last]; team[slot] = team[last]; life[slot] = life[last]; len[slot] = len[last];
+            id[slot] = id[last];
+            moved.__engine_setStoreSlot(slot);
+        }
+        units[last] = null;
+    }
+
+    private void grow() {
+        int n = units.length * 2;
+        units = java.util.Arrays.copyOf(units, n);
+        x = java.util.Arrays.copyOf(x, n);
+        y = java.util.Arrays.copyOf(y, n);
+        orient = java.util.Arrays.copyOf(orient, n);
+        facing = java.util.Arrays.copyOf(facing, n);
+        team = java.util.Arrays.copyOf(team, n);
+        life = java.util.Arrays.copyOf(life, n);
+        len = java.util.Arrays.copyOf(len, n);
+        id = java.util.Arrays.copyOf(id, n);
+    }
+}
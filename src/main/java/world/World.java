@@ -8,8 +8,8 @@ import java.util.*;
 import java.util.List;
 
 
-public class World {
-    private final List<List<List<Integer>>> worldMap; // row, col, layer
+public final class World {
+    private final LayerGrid worldMap; // layer planes, row-major (one int per cell per layer)
     private final int height;
     private final int width;
     private final int layers;
@@ -22,16 +22,22 @@ public class World {
     public static final int UNIT_SOLDIER = 1;
     // FOW
     // World.java fields
-    private final int[][] fogDist;
-    private final boolean[][] explored; // seen at least once
-    private final boolean[][] visible;  // currently visible this tick
-
-    // Opaque mask cache (updated when trees/buildings change)
-    private final boolean[][] opaque;
+    // chunked: storage only where something has been seen (big maps stay cheap)
+    private final ChunkedIntGrid fogDist;   // feather distance; default = far (Integer.MAX_VALUE)
+    private final ChunkedBitGrid explored;  // seen at least once
+    private final ChunkedBitGrid visible;   // currently visible this tick
+
+    // Packed per-tile flags (walls, trees, stones, buildings, opacity, units, reservations).
+    // Every mutator below keeps it current; the LOS ray tables walk its raw array.
+    private final TileFlags tileFlags;
+    // Ray tables, built lazily per radius (see losRaysCovering)
+    private final java.util.concurrent.ConcurrentHashMap<Integer, LosRays> losTables = new java.util.concurrent.ConcurrentHashMap<>();
+    private static final int LOS_TABLE_SMALL = 16; // covers vision 12/15 and wolves (9)
+    private static final int LOS_TABLE_LARGE = 32; // long shots; beyond that we walk Bresenham live
     // --- One-frame move reservations (prevents two units claiming same anchor) ---
-    private int moveStamp = 1;
-    private int[][] resStamp;     // reservation epoch per cell
-    private int[][] resUnitId;    // which unit reserved it this frame
+    private ChunkedIntGrid resUnitId;      // which unit reserved it this frame (0 = free; ids are never 0)
+    private int[] resTiles = new int[64];  // tiles flagged RESERVED this frame (cleared next frame)
+    private int resTileCount = 0;
 
     // --- Melee logging controls ---
     private static final boolean LOG_MELEE = true;   // set true if you want sampled logs
@@ -50,8 +56,122 @@ public class World {
     private boolean meleeShouldLogSampled() {
         return LOG_MELEE && rng.nextDouble() < LOG_MELEE_SAMPLE_P;
     }
-    // NEW: units in the world
-    private final List<Unit> units = new ArrayList<>();
+    // NEW: units in the world. Hot fields live in the UnitStore (parallel arrays, packed by
+    // swap-remove); 'units' is its read-only view, so the order changes when units leave.
+    private final UnitStore unitStore = new UnitStore();
+    public UnitStore getUnitStore() { return unitStore; }
+    private final List<Unit> units = unitStore.view();
+    // who hears about spawns / deaths / despawns (the world's own indexes first, see World())
+    private final java.util.ArrayList<UnitLifecycleListener> lifecycle = new java.util.ArrayList<>();
+    // died since the last cleanupDead (corpses to take out), in death order
+    private final java.util.ArrayList<Unit> diedPending = new java.util.ArrayList<>();
+    // Spatial hash over 'units' (kept in sync by spawn/cleanup/mount and Unit.update)
+    private final UnitGrid unitGrid;
+    private final java.util.ArrayList<Unit> gridScratch = new java.util.ArrayList<>();
+    public UnitGrid getUnitGrid() { return unitGrid; }
+    /** Unit.update calls this after the unit's x/y changed. */
+    public void notifyUnitMoved(Unit u) {
+        if (aiDeferring && defer(CommandBuffer.MOVED, u, null, null, null)) return;
+        unitGrid.moved(u); controlOccupancy.moved(u); unitOccupancy.place(u);
+    }
+    public void notifyUnitDied(Unit u) {
+        if (aiDeferring && defer(CommandBuffer.DIED, u, null, null, null)) return;
+        diedPending.add(u);
+        for (int i = 0, n = lifecycle.size(); i < n; i++) lifecycle.get(i).unitDied(u);
+    }
+    public void notifyUnitTeamChanged(Unit u, Team oldTeam) {
+        if (aiDeferring && defer(CommandBuffer.TEAM, u, null, oldTeam, null)) return;
+        controlOccupancy.teamChanged(u, oldTeam);
+    }
+
+    // --- parallel AI phase (AIPhase): while set, world-side effects from AIs are queued ---
+    // Only flipped by the engine thread around the phase; the pool hand-off orders it for workers.
+    private boolean aiDeferring = false;
+
+    void setAIDeferring(boolean on) { aiDeferring = on; }
+
+    /** Queue into the lane bound to this thread; false if this thread isn't an AI lane. */
+    private boolean defer(byte kind, Unit actor, Unit target, Team team, TeamSightings.VisionListener l) {
+        AIPhase.Lane lane = AIPhase.current();
+        if (lane == null) return false;
+        lane.commands.add(kind, lane.issuer, actor, target, team, l);
+        return true;
+    }
+
+    /** Apply queued commands in buffer order (AIPhase hands them over merged by issuer id). */
+    void applyDeferred(CommandBuffer buf) {
+        for (int i = 0, n = buf.size(); i < n; i++) {
+            CommandBuffer.Command c = buf.get(i);
+            Unit a = c.actor;
+            switch (c.kind) {
+                case CommandBuffer.ATTACK -> { if (!a.isDead()) resolveMeleeHit(a, c.target); }
+                case CommandBuffer.FIRE   -> { if (!a.isDead()) fireArrowShot(a, c.target); }
+                case CommandBuffer.MOVED  -> { if (!a.isDead()) notifyUnitMoved(a); }
+                case CommandBuffer.TEAM   -> notifyUnitTeamChanged(a, c.team);
+                case CommandBuffer.DIED   -> notifyUnitDied(a);
+                case CommandBuffer.SUBSCRIBE   -> teamSightings.subscribe(c.team, a, c.listener);
+                case CommandBuffer.UNSUBSCRIBE -> teamSightings.unsubscribe(c.team, c.listener);
+                default -> throw new IllegalStateException("unknown command " + c.kind);
+            }
+        }
+    }
+
+    /** Unit enters the world: id, store slot, then the spawn event (spatial hash, counters, ...). */
+    private void attachUnit(Unit u) {
+        unitRegistry.register(u);
+        unitStore.add(u);
+        for (int i = 0, n = lifecycle.size(); i < n; i++) lifecycle.get(i).unitSpawned(u);
+        u.__engine_setWorld(this);
+    }
+
+    /** Unit leaves the world: despawn event, then its id and store slot are given up. */
+    private void detachUnit(Unit u) {
+        u.__engine_setWorld(null);
+        for (int i = lifecycle.size() - 1; i >= 0; i--) lifecycle.get(i).unitDespawned(u);
+        unitRegistry.release(u);
+        unitStore.remove(u);
+    }
+
+    /** Subscribe to unit spawn / death / despawn events (see UnitLifecycleListener). */
+    public void addUnitLifecycleListener(UnitLifecycleListener l) { lifecycle.add(l); }
+    public void removeUnitLifecycleListener(UnitLifecycleListener l) { lifecycle.remove(l); }
+
+    // The world's own indexes, in dependency order (despawn runs them backwards).
+    private void registerIndexListeners() {
+        lifecycle.add(new UnitLifecycleListener() {
+            @Override public void unitSpawned(Unit u) { unitGrid.insert(u); }
+            @Override public void unitDespawned(Unit u) { unitGrid.remove(u); }
+        });
+        lifecycle.add(new UnitLifecycleListener() {
+            @Override public void unitSpawned(Unit u) { controlOccupancy.insert(u); }
+            @Override public void unitDespawned(Unit u) { controlOccupancy.remove(u); }
+        });
+        lifecycle.add(new UnitLifecycleListener() {
+            @Override public void unitSpawned(Unit u) { unitOccupancy.place(u); }
+            @Override public void unitDied(Unit u) { unitOccupancy.died(u); } // stops blocking right away
+            @Override public void unitDespawned(Unit u) { unitOccupancy.remove(u); }
+        });
+        lifecycle.add(new UnitLifecycleListener() {
+            @Override public void unitDied(Unit u) { jobBoard.release(u); }
+            @Override public void unitDespawned(Unit u) { jobBoard.release(u); }
+        });
+        lifecycle.add(new UnitLifecycleListener() {
+            // melee pairs would go at the next melee pass anyway; don't keep timers for a unit that's gone
+            @Override public void unitDespawned(Unit u) {
+                if (engagements.isEmpty()) return;
+                int id = u.getId();
+                engagements.values().removeIf(e -> e.aId == id || e.bId == id);
+            }
+        });
+        lifecycle.add(new UnitLifecycleListener() {
+            // boards drop it now instead of at TTL expiry (its id is about to go stale); a unit that
+            // leaves alive (mounting) would otherwise keep its board listeners for the whole match
+            @Override public void unitDespawned(Unit u) {
+                for (Team t : Team.values()) teamSightings.forget(t, u.getId());
+                teamSightings.unsubscribeOwner(u);
+            }
+        });
+    }
     private final List<ControlPoint> controlPoints = new ArrayList<>();
     private final ResourceManager resources = new ResourceManager();
     private final java.util.List<Building> buildings = new java.util.ArrayList<>();
@@ -61,16 +181,22 @@ public class World {
 
     private final java.util.List<Terrain.StonePatch> stonePatches = new java.util.ArrayList<>();
     public java.util.List<Terrain.StonePatch> getStonePatches() { return stonePatches; }
-    public int getFogDist(int r, int c) { return fogDist[r][c]; }
-    private boolean[][] buildingMask;  // set true for any building footprint tile
-
-    // quick helper: check if a tile is inside any 2×2 tree
-    // World.java: fields
-    private boolean[][] treeMask;  // [height][width]
-    private boolean[][] stoneMask;
-    private int nextBuildingId = 1;
-
-    private void assignBuildingId(Building b) { b.__engine_setId(nextBuildingId++); }
+    public int getFogDist(int r, int c) { return fogDist.get(r, c); }
+
+    // tile -> block / bucketed lists over the patches' blocks (2×2 trees, 1×1 stones)
+    private ResourceIndex<Terrain.TreeBlock> treeIndex;
+    private ResourceIndex<Terrain.StoneBlock> stoneIndex;
+    private JobBoard jobBoard;   // tree / stone reservations, batch-assigns seeking workers
+    private BuildingRegistry buildingRegistry;   // id / tile / (team,type) index over 'buildings'
+    private ControlOccupancy controlOccupancy;   // per control point / team unit counts
+    private UnitOccupancy unitOccupancy;         // per-tile unit counts (blocking mask + unit layer)
+
+    /** Adds b to the world: id, footprint (collision mask + tile index) and registry. */
+    private void placeBuilding(Building b) {
+        buildings.add(b);
+        buildingRegistry.add(b);
+        stampBuilding(b.getRow(), b.getCol(), b.getType().h, b.getType().w, true);
+    }
     // world/World.java
     private characters.Team playerVisionTeam = characters.Team.RED;
 
@@ -81,8 +207,34 @@ public class World {
     }
 
     private final TeamSightings teamSightings = new TeamSightings();
+
+    /**
+     * Listen to a viewer team's sighting board (see TeamSightings.subscribe). Safe from an AI:
+     * during the parallel AI phase it is queued and takes effect when the commands are applied.
+     */
+    public void subscribeSightings(Team viewer, Unit owner, TeamSightings.VisionListener l) {
+        if (aiDeferring && defer(CommandBuffer.SUBSCRIBE, owner, null, viewer, l)) return;
+        teamSightings.subscribe(viewer, owner, l);
+    }
+
+    /** Counterpart of subscribeSightings; deferred the same way. */
+    public void unsubscribeSightings(Team viewer, Unit owner, TeamSightings.VisionListener l) {
+        if (aiDeferring && defer(CommandBuffer.UNSUBSCRIBE, owner, null, viewer, l)) return;
+        teamSightings.unsubscribe(viewer, l);
+    }
     // world/World.java
-    private final intelligence.PackSightings packSightings = new intelligence.PackSightings(/* ttlNanos= */5_000_000_000L);
+    // fixed-step sim time; everything below reads "now" from here, never from System.nanoTime()
+    private final SimulationClock clock = new SimulationClock();
+    public SimulationClock getClock() { return clock; }
+    // Tick-based callbacks (AI thinks, chop/mine completion); the engine advances it each step.
+    private final TimerWheel timers = new TimerWheel();
+    public TimerWheel getTimers() { return timers; }
+    // Units whose AI thinks this tick (their think timer fired, or something woke them).
+    private final java.util.ArrayList<Unit> aiDue = new java.util.ArrayList<>();
+    /** Queue u's AI for this tick's AI phase. Serial phases only (Unit.wakeAI / think timers). */
+    public void __engine_queueAI(Unit u) { aiDue.add(u); }
+    java.util.ArrayList<Unit> aiDue() { return aiDue; }
+    private final intelligence.PackSightings packSightings = new intelligence.PackSightings(/* ttlNanos= */5_000_000_000L, clock::nowNanos);
     public intelligence.PackSightings getPackSightings() { return packSightings; }
     public java.util.Map<Integer, TeamSightings.Sighting> getSightingsForTeam(characters.Team t) {
         return teamSightings.view(t);
@@ -90,68 +242,52 @@ public class World {
     public void setPlayerVisionTeam(characters.Team t) {
         playerVisionTeam = (t == null ? characters.Team.RED : t);
     }
-    // === Dynamic per-tile unit occupancy (O(1) lookup) ===
-// Stamp trick avoids clearing whole arrays every frame.
-    private int curUnitStamp = 1;
-    private int[][] unitStamp;      // when cell was last written (== curUnitStamp => valid this frame)
-    private short[][] unitCount;    // how many units occupy the cell this frame
-    private int[][] unitSingleId;   // the sole unit id if count==1, else -1
-    private boolean[][] visScratch;
+    // === Dynamic per-tile unit occupancy (O(1) lookup) === lives in unitOccupancy, kept incrementally
+    private boolean unitMaskVerify = false;
+    private ChunkedBitGrid visScratch;
+    private int framesSinceTrim = 0;
+    private static final int CHUNK_TRIM_FRAMES = 600;   // ~10 s at 60 fps
 
     // call when world is constructed (or whenever size known)
     private void initMasks() {
-        visScratch = new boolean[height][width];
-        stoneMask     = new boolean[height][width];
-        treeMask     = new boolean[height][width];
-        buildingMask = new boolean[height][width];
-        unitStamp    = new int[height][width];
-        unitCount    = new short[height][width];
-        unitSingleId = new int[height][width];
-        resStamp  = new int[height][width];
-        resUnitId = new int[height][width];
-        // IMPORTANT: default to -1 so “single id” logic works even if an id could be 0
-        for (int r = 0; r < height; r++) java.util.Arrays.fill(unitSingleId[r], -1);
-    }
-    /** Rebuild the unit occupancy mask for the current frame. O(#units * footprint). */
+        visScratch = new ChunkedBitGrid(height, width);
+        resUnitId = new ChunkedIntGrid(height, width, 0);
+    }
+    /**
+     * Occupancy is maintained incrementally (units report anchor / facing / length changes and
+     * deaths), so there is nothing to rebuild. Kept as the per-frame hook: in verify mode it
+     * recomputes the mask from scratch and throws if the incremental one drifted.
+     */
     public void rebuildUnitMask() {
-        curUnitStamp++;
-        if (curUnitStamp == Integer.MAX_VALUE) {
-            // rare wrap: hard reset
-            for (int r = 0; r < height; r++) {
-                java.util.Arrays.fill(unitStamp[r], 0);
-                java.util.Arrays.fill(unitCount[r], (short)0);
-                java.util.Arrays.fill(unitSingleId[r], -1);
-            }
-            curUnitStamp = 1;
-        }
+        if (unitMaskVerify) unitOccupancy.verify(units);
+        if (++framesSinceTrim >= CHUNK_TRIM_FRAMES) trimChunks();
+    }
 
-        for (characters.Unit u : units) {
-            if (u == null || u.isDead()) continue;
-            int ar = u.getRowRounded();
-            int ac = u.getColRounded();
-            java.util.List<int[]> cells = footprintCells(ar, ac, u.getFacing(), u.getLength());
-            for (int[] cell : cells) {
-                int r = cell[0], c = cell[1];
-                if (!inBoundsRC(r, c)) continue;
+    /**
+     * Hands back chunk storage that went back to all-default (tiles units walked off, reservations).
+     * Runs every CHUNK_TRIM_FRAMES from rebuildUnitMask(); cheap enough to call by hand too.
+     */
+    public void trimChunks() {
+        framesSinceTrim = 0;
+        unitOccupancy.trim();
+        resUnitId.trim();
+        visWas.trim();
+    }
 
-                if (unitStamp[r][c] != curUnitStamp) {
-                    unitStamp[r][c]    = curUnitStamp;
-                    unitCount[r][c]    = 1;
-                    unitSingleId[r][c] = u.getId();
-                } else {
-                    int cnt = unitCount[r][c] + 1;
-                    unitCount[r][c] = (short)cnt;
-                    if (cnt > 1) unitSingleId[r][c] = -1; // mark “multiple”
-                }
-            }
-        }
+    /** Bytes currently held by the chunked per-tile stores (layers, fog, occupancy, ...). */
+    public long chunkedBytes() {
+        return worldMap.allocatedBytes() + fogDist.allocatedBytes() + explored.allocatedBytes()
+                + visible.allocatedBytes() + visWas.allocatedBytes() + visScratch.allocatedBytes()
+                + unitOccupancy.allocatedBytes() + resUnitId.allocatedBytes();
     }
 
+    /** Verify mode for tests / debugging: rebuildUnitMask() and syncUnitsToLayer() cross-check the incremental mask. */
+    public void setUnitMaskVerify(boolean on) { unitMaskVerify = on; }
+    public boolean isUnitMaskVerify() { return unitMaskVerify; }
+
     // whenever you add/remove trees:
     private void addTreeBlock(int top, int left) {
-        for (int r = top; r < top + 2; r++)
-            for (int c = left; c < left + 2; c++)
-                treeMask[r][c] = true;
+        stampTreeBlock(top, left);
     }
     // Add once:
     private final java.util.EnumMap<characters.Team, boolean[][]> visByTeam = new java.util.EnumMap<>(characters.Team.class);
@@ -169,120 +305,112 @@ public class World {
     /** Compute visibility ONLY for rendering/HUD, using the current playerVisionTeam. */
     public void computeVisibilityForPlayer() {
         // 1) clear
-        clear(visible);
+        visible.clear();
 
         // 2) accumulate FOV of all units on the player's team (or allies if you want)
-        for (characters.Unit u : units) {
-            if (u.getTeam() != playerVisionTeam) continue; // or use isAllied(playerVisionTeam, u.getTeam())
-            applyUnitFOVShadowInto(u, visible);
+        int viewerOrd = (playerVisionTeam == null) ? -1 : playerVisionTeam.ordinal();
+        for (int i = 0, n = unitStore.size(); i < n; i++) {
+            if (unitStore.team(i) != viewerOrd) continue; // or use isAllied(playerVisionTeam, u.getTeam())
+            applyUnitFOVShadowInto(unitStore.unit(i), visible);
         }
+        resyncVisibleList();
 
         // 3) persist explored (fog of war)
-        for (int r = 0; r < height; r++) {
-            for (int c = 0; c < width; c++) {
-                if (visible[r][c]) explored[r][c] = true;
-            }
+        for (int i = 0; i < visList.size; i++) {
+            int idx = visList.data[i];
+            explored.set(idx / width, idx % width, true);
         }
 
-        // 4) optional: feathering for nicer fog edges (your existing function)
+        // 4) optional: feathering for nicer fog edges (grid was written wholesale: full rebuild)
         computeFogFeatherDistances(3);
     }
 
     // replace isTreeAt loop:
     private boolean isTreeAt(int r, int c) {
-        return treeMask[r][c];
+        return (tileFlags.get(r, c) & TileFlags.TREE) != 0;
     }
     private boolean isStoneAt(int r, int c) {
-        return stoneMask[r][c];
+        return (tileFlags.get(r, c) & TileFlags.STONE) != 0;
     }
     public World(int height, int width, int layers) {
         this.height = height;
         this.width = width;
         this.layers = layers;
-        fogDist = new int[height][width];
-        explored = new boolean[height][width];
-        visible  = new boolean[height][width];
-        opaque   = new boolean[height][width];
-        worldMap = new ArrayList<>();
-        for (int r = 0; r < height; r++) {
-            List<List<Integer>> row = new ArrayList<>();
-            for (int c = 0; c < width; c++) {
-                List<Integer> cell = new ArrayList<>();
-                for (int z = 0; z < layers; z++) {
-                    if (z == LAYER_GROUND) cell.add(TILE_GRASS);
-                    else cell.add(UNIT_NONE);
-                }
-                row.add(cell);
-            }
-            initMasks();
-            rebuildOpaqueMask();
-            worldMap.add(row);
-        }
+        fogDist  = new ChunkedIntGrid(height, width, Integer.MAX_VALUE);
+        explored = new ChunkedBitGrid(height, width);
+        visible  = new ChunkedBitGrid(height, width);
+        tileFlags = new TileFlags(height, width);
+        visWas   = new ChunkedBitGrid(height, width);
+        unitGrid = new UnitGrid(height, width);
+        buildingRegistry = new BuildingRegistry(height, width);
+        controlOccupancy = new ControlOccupancy(height, width);
+        unitOccupancy = new UnitOccupancy(this, height, width);
+        treeIndex = new ResourceIndex<>(height, width, 2);
+        stoneIndex = new ResourceIndex<>(height, width, 1);
+        jobBoard = new JobBoard(this, treeIndex, stoneIndex, width);
+        registerIndexListeners();
+        worldMap = new LayerGrid(height, width, layers);
+        for (int z = 0; z < layers; z++) {
+            worldMap.fillLayer(z, z == LAYER_GROUND ? TILE_GRASS : UNIT_NONE);
+        }
+        initMasks();
         teamSightings.setTtlSeconds(10.0);
     }
-    /** A tile blocks vision if any static blocker occupies it. */
-    private void rebuildOpaqueMask() {
-        for (int r = 0; r < height; r++) {
-            for (int c = 0; c < width; c++) {
-                boolean op = false;
-                if (treeMask[r][c]) op = true;
-                if (stoneMask[r][c]) op = true;
-                if (buildingMask[r][c]) {
-                    // If you want some buildings (e.g., FARM) not to block, keep a per-cell
-                    // building type map. Otherwise, treat any buildingMask as opaque:
-                    op = true;
-                }
-                opaque[r][c] = op;
-            }
-        }
+    /**
+     * Sets/clears 'mask' on (r,c) in the tile flags. OPAQUE follows along; when it flips, cached
+     * LOS answers are dropped and fog around the tile is rebuilt, so a felled tree or a new
+     * building changes sight the same tick.
+     */
+    private void setTileFlag(int r, int c, int mask, boolean on) {
+        if (!inBoundsRC(r, c)) return;
+        int changed = tileFlags.set(r * width + c, mask, on);
+        if ((changed & (TileFlags.OPAQUE | TileFlags.WALL)) != 0) losCache.invalidate();
+        if ((changed & TileFlags.OPAQUE) != 0) markFogDirty(r, c);
+    }
+
+    /** UnitOccupancy's hook: first live unit arrived on / last one left the tile. */
+    void setUnitPresent(int tile, boolean on) {
+        tileFlags.set(tile, TileFlags.UNIT_PRESENT, on);
     }
+
+    /** Packed per-tile flags (read-only use; see TileFlags for the bits). */
+    public TileFlags getTileFlags() { return tileFlags; }
+
     public boolean isOpaque(int r, int c) {
         if (!inBoundsRC(r,c)) return true;
-        return opaque[r][c];
+        return (tileFlags.get(r, c) & TileFlags.OPAQUE) != 0;
     }
 
     /** O(1) occupancy check using the mask. Ignores 'ignore' if it's the only occupant. */
     public boolean isOccupiedFast(int r, int c, characters.Unit ignore) {
-        if (unitStamp[r][c] != curUnitStamp) return false; // nobody wrote here this frame
-        int cnt = unitCount[r][c];
-        if (cnt == 0) return false;
-        if (cnt == 1 && ignore != null && unitSingleId[r][c] == ignore.getId()) return false;
-        return true;
+        return unitOccupancy.occupied(r, c, ignore);
     }
     // --- Fog arrays accessors for renderer ---
-    public boolean isVisible(int r, int c)  { return inBoundsRC(r,c) && visible[r][c]; }
-    public boolean isExplored(int r, int c) { return inBoundsRC(r,c) && explored[r][c]; }
+    public boolean isVisible(int r, int c)  { return visible.get(r, c); }
+    public boolean isExplored(int r, int c) { return explored.get(r, c); }
     // world/World.java
     public boolean addHuntingCamp(int top, int left, Team team) {
         if (!canPlaceBuilding(Building.Type.HUNTING_CAMP,top, left)) return false;
         var b = new Building(Building.Type.HUNTING_CAMP, top, left, team);
-        buildings.add(b);
-        stampBuilding(b.getRow(), b.getCol(), b.getType().h, b.getType().w, true);
-//        rebuildOpaqueMask();                 // single rebuild here
+        placeBuilding(b);
         return true;
     }
     public boolean addBarracks(int top, int left, Team team) {
         if (!canPlaceBuilding(Building.Type.BARRACKS,top, left)) return false;
         var b = new Building(Building.Type.BARRACKS, top, left, team);
-        buildings.add(b);
-        stampBuilding(b.getRow(), b.getCol(), b.getType().h, b.getType().w, true);
-//        rebuildOpaqueMask();                 // single rebuild here
+        placeBuilding(b);
         return true;
     }
     public boolean addArcheryRange(int top, int left, Team team) {
         if (!canPlaceBuilding(Building.Type.ARCHERY_RANGE,top, left)) return false;
         var b = new Building(Building.Type.ARCHERY_RANGE, top, left, team);
-        buildings.add(b);
-        stampBuilding(b.getRow(), b.getCol(), b.getType().h, b.getType().w, true);
-//        rebuildOpaqueMask();                 // single rebuild here
+        placeBuilding(b);
         return true;
     }
     public boolean addStable(int top, int left, Team team) {
         if (!canPlaceBuilding(Building.Type.STABLE,top, left)) return false;
         var b = new Building(Building.Type.STABLE, top, left, team);
-        buildings.add(b);
-        stampBuilding(b.getRow(), b.getCol(), b.getType().h, b.getType().w, true);
-//        rebuildOpaqueMask();                 // single rebuild here
+        placeBuilding(b);
         return true;
     }
     // Returns a walkable perimeter tile around the building (row,col), nearest to 'u'.
@@ -314,9 +442,7 @@ public class World {
     public boolean addWolfDen(int top, int left) {
         Building b = new Building(Building.Type.WOLF_DEN, top, left, characters.Team.NEUTRAL);
         if (!canPlaceBuilding(Building.Type.WOLF_DEN ,top, left)) return false;
-        buildings.add(b);
-        assignBuildingId(b);
-        stampBuilding(top, left, b.getType().h, b.getType().w, true);
+        placeBuilding(b);
         return true;
     }
     /** Place 1 den and 3 wolves around it. Returns the den building. */
@@ -359,7 +485,7 @@ public class World {
     }
     // world/World.java
     public void updateWolfPackSightings() {
-        long now = System.nanoTime();
+        long now = clock.nowNanos();
 
         for (characters.Unit spotter : units) {
             // only wolves report for their pack
@@ -370,8 +496,12 @@ public class World {
             if (den == null) continue;
             int packId = den.getId();
 
-            // scan possible targets: humans (RED/BLUE) & deer
-            for (characters.Unit target : units) {
+            // scan possible targets near this wolf: humans (RED/BLUE) & deer
+            gridScratch.clear();
+            unitGrid.collect(spotter.getRowRounded(), spotter.getColRounded(),
+                    (int)Math.ceil(spotter.getActor().getVisionRangeTiles()) + 1, gridScratch);
+            for (int i = 0, n = gridScratch.size(); i < n; i++) {
+                characters.Unit target = gridScratch.get(i);
                 if (target == spotter) continue;
                 if (target.isDead()) continue;
 
@@ -415,50 +545,87 @@ public class World {
     /** Call once per tick before painting. */
 // In world.World
 
-    private void clear(boolean[][] g){
-        for (int r=0;r<g.length;r++) java.util.Arrays.fill(g[r], false);
-    }
-
     /** Draw a single unit's FOV into the given grid (copy your existing applyUnitFOVShadow body,
      *  but write into `dest` instead of the global "visible"). */
     // World.java (inside your World class)
-    private void applyUnitFOVShadowInto(Unit u, boolean[][] dest) {
+    private void applyUnitFOVShadowInto(Unit u, ChunkedBitGrid dest) {
         // --- Choose/derive a vision radius (tiles). Replace with your own getter if you have one. ---
-        final int VISION_TILES = 12; // TODO: if you have u.getVisionTiles() or role-based ranges, use that.
+        final int VISION_TILES = SIGHT_TILES; // TODO: if you have u.getVisionTiles() or role-based ranges, use that.
 
         final int ur = u.getRowRounded(); // row (y)
         final int uc = u.getColRounded(); // col (x)
 
         // Always mark the unit's own tile as visible for its team
-        if (inBoundsRC(ur, uc)) dest[ur][uc] = true;
-
-        final int rMin = Math.max(0, ur - VISION_TILES);
-        final int rMax = Math.min(getHeight() - 1, ur + VISION_TILES);
-        final int cMin = Math.max(0, uc - VISION_TILES);
-        final int cMax = Math.min(getWidth()  - 1, uc + VISION_TILES);
+        if (inBoundsRC(ur, uc)) dest.set(ur, uc, true);
 
-        final int R2 = VISION_TILES * VISION_TILES;
-
-        // For each tile in a disk around the unit, mark visible if LOS is clear
-        for (int r = rMin; r <= rMax; r++) {
-            int dy = r - ur; int dy2 = dy * dy;
-            for (int c = cMin; c <= cMax; c++) {
-                // skip if already set by another friendly unit
-                if (dest[r][c]) continue;
+        if (!inBoundsRC(ur, uc)) return;
 
-                int dx = c - uc; int dx2 = dx * dx;
-                if (dx2 + dy2 > R2) continue; // outside circle
+        // Walk the precomputed disk for this radius; each tile is one table ray against the tile flags.
+        final LosRays rays = losRaysFor(VISION_TILES);
+        final int o = ur * width + uc;
+        final byte[] flags = tileFlags.raw();
+        for (int i = 0, n = rays.diskSize(); i < n; i++) {
+            int r = ur + rays.diskDr(i), c = uc + rays.diskDc(i);
+            if (!inBoundsRC(r, c)) continue;
+            // skip if already set by another friendly unit
+            if (dest.get(r, c)) continue;
+
+            // IMPORTANT: use tile LOS against opaque mask; do NOT use your player-visible[][] here.
+            if (rays.clear(flags, o, rays.diskSlot(i), TileFlags.WALL)) {
+                dest.set(r, c, true);
+            }
+        }
+    }
+    // Team sightings radius (tiles), shared by both sighting pipelines below.
+    private static final int SIGHT_TILES = 12;
 
-                // IMPORTANT: use tile LOS against opaque mask; do NOT use your player-visible[][] here.
-                if (hasLineOfSight(ur, uc, r, c)) {
-                    dest[r][c] = true;
+    /**
+     * FULL_GRID: build a per-team FOV grid and test the tiles units stand on (old path).
+     * TARGET_CENTRIC: per observer, bucket-query nearby units and test only those
+     * (same radius/LOS rules, so both produce the same boards). Full-grid FOV is then
+     * only built for the render team, in computeVisibility().
+     */
+    public enum SightingMode { FULL_GRID, TARGET_CENTRIC }
+    private SightingMode sightingMode = SightingMode.TARGET_CENTRIC;
+    public SightingMode getSightingMode() { return sightingMode; }
+    public void setSightingMode(SightingMode m) { sightingMode = (m == null ? SightingMode.TARGET_CENTRIC : m); }
+
+    private final java.util.ArrayList<Unit> sightCandidates = new java.util.ArrayList<>();
+
+    private void updateAllSightingsTargetCentric() {
+        final int R2 = SIGHT_TILES * SIGHT_TILES;
+
+        for (characters.Team viewer : characters.Team.values()) {
+            long now = clock.nowNanos();
+            for (characters.Unit obs : units) {
+                if (obs.getTeam() != viewer || obs.isDead()) continue;
+                int ur = obs.getRowRounded(), uc = obs.getColRounded();
+                if (!inBoundsRC(ur, uc)) continue;
+
+                sightCandidates.clear();
+                unitGrid.collect(ur, uc, SIGHT_TILES, sightCandidates);
+                for (int i = 0, n = sightCandidates.size(); i < n; i++) {
+                    characters.Unit t = sightCandidates.get(i);
+                    if (t.isDead()) continue;
+                    int tr = t.getRowRounded(), tc = t.getColRounded();
+                    if (!inBoundsRC(tr, tc)) continue;
+                    int dr = tr - ur, dc = tc - uc;
+                    if (dr * dr + dc * dc > R2) continue;
+                    if ((dr != 0 || dc != 0) && !wallLosCached(ur, uc, tr, tc)) continue;
+                    teamSightings.reportSeen(viewer, t, now);
                 }
             }
+            teamSightings.expireOld(viewer, now);
         }
     }
+
     public void updateAllSightings() {
+            if (sightingMode == SightingMode.TARGET_CENTRIC) {
+                updateAllSightingsTargetCentric();
+                return;
+            }
             for (characters.Team viewer : characters.Team.values()) {
-                clear(visScratch);
+                visScratch.clear();
                 // build FOV mask for this viewer team
                 int casters = 0;
                 for (characters.Unit u : units) {
@@ -467,15 +634,7 @@ public class World {
                     casters++;
                 }
 
-                // 👉 DEBUG: how many tiles are visible to this team this frame?
-                if (true) { // or remove this 'if' to log all teams
-                    int visCount = 0;
-                    for (int rr = 0; rr < visScratch.length; rr++)
-                        for (int cc = 0; cc < visScratch[0].length; cc++)
-                            if (visScratch[rr][cc]) visCount++;
-                }
-
-                long now = System.nanoTime();
+                long now = clock.nowNanos();
                 teamSightings.updateFromVisibility(this, viewer, visScratch, now);
                 teamSightings.expireOld(viewer, now);
 
@@ -485,42 +644,89 @@ public class World {
 
 
     private boolean hasAnyUnits(characters.Team t) {
-        for (characters.Unit u : units) if (!u.isDead() && u.getTeam() == t) return true;
+        int dead = Unit.LifeState.DEAD.ordinal(), team = t.ordinal();
+        for (int i = 0, n = unitStore.size(); i < n; i++) {
+            if (unitStore.team(i) == team && unitStore.life(i) != dead) return true;
+        }
         return false;
     }
 
     public void computeVisibility() {
-        // 1) clear current visibility
-        for (int r = 0; r < height; r++) {
-            java.util.Arrays.fill(visible[r], false);
+        // 1) clear current visibility: only the tiles we lit last tick (remember them in visWas)
+        IntList prev = visList;
+        visList = visListPrev;
+        visListPrev = prev;
+        visList.clear();
+        for (int i = 0; i < prev.size; i++) {
+            int idx = prev.data[i];
+            int r = idx / width, c = idx % width;
+            visible.set(r, c, false);
+            visWas.set(r, c, true);
         }
 
         // 2) cast FOV from units on the player's vision team
         characters.Team viewer = (playerVisionTeam != null) ? playerVisionTeam : characters.Team.RED;
-        for (characters.Unit u : units) {
-            if (u.isDead()) continue;
-            if (u.getTeam() != viewer) continue;   // only player team contributes to render FOV
-            applyUnitFOVShadow(u);                 // uses 'visible' internally
+        int dead = Unit.LifeState.DEAD.ordinal(), viewerOrd = viewer.ordinal();
+        for (int i = 0, n = unitStore.size(); i < n; i++) {
+            if (unitStore.life(i) == dead) continue;
+            if (unitStore.team(i) != viewerOrd) continue;   // only player team contributes to render FOV
+            applyUnitFOVShadow(unitStore.unit(i));          // uses 'visible' internally (via markVisible)
         }
 
-        // 3) explored := explored OR visible
-        for (int r = 0; r < height; r++) {
-            for (int c = 0; c < width; c++) {
-                if (visible[r][c]) explored[r][c] = true;
-            }
+        // 3) explored := explored OR visible; tiles that entered vision dirty their fog block
+        for (int i = 0; i < visList.size; i++) {
+            int idx = visList.data[i];
+            int r = idx / width, c = idx % width;
+            explored.set(r, c, true);
+            if (!visWas.get(r, c)) markFogDirty(r, c);
+        }
+        // ...and so do tiles that left vision
+        for (int i = 0; i < prev.size; i++) {
+            int idx = prev.data[i];
+            int r = idx / width, c = idx % width;
+            visWas.set(r, c, false);
+            if (!visible.get(r, c)) markFogDirty(r, c);
         }
 
         // optional: keep the soft edge for UI
-        computeFogFeatherDistances(3); // tweak radius to taste
+        updateFogFeatherIncremental(3); // tweak radius to taste
+    }
+
+    // ---- visible-tile bookkeeping (clearing/fog cost scales with what is lit, not map area) ----
+    /** Tiny growable primitive int list (no boxing). */
+    static final class IntList {
+        int[] data = new int[64];
+        int size;
+        void add(int v) {
+            if (size == data.length) data = java.util.Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+        void clear() { size = 0; }
+    }
+    private IntList visList = new IntList();      // flat indices lit this tick
+    private IntList visListPrev = new IntList();  // lit last tick
+    private final ChunkedBitGrid visWas;          // scratch: lit last tick, reset after each diff
+
+    private void markVisible(int r, int c) {
+        if (!visible.set(r, c, true)) return;
+        visList.add(r * width + c);
+    }
+
+    /** Re-derive visList from the grid after a path that wrote 'visible' wholesale. */
+    private void resyncVisibleList() {
+        visList.clear();
+        visible.collect(visList);
     }
+
     public void updateSightingsForTeam(characters.Team viewerTeam){
         for (Team viewer : Team.values()) {
-            clear(visScratch);
-            for (Unit u : units) {
-                if (u.getTeam() != viewer) continue; // contributors are only that team
-                applyUnitFOVShadowInto(u, visScratch);
+            visScratch.clear();
+            int viewerOrd = viewer.ordinal();
+            for (int i = 0, n = unitStore.size(); i < n; i++) {
+                if (unitStore.team(i) != viewerOrd) continue; // contributors are only that team
+                applyUnitFOVShadowInto(unitStore.unit(i), visScratch);
             }
-            long now = System.nanoTime();
+            long now = clock.nowNanos();
             teamSightings.updateFromVisibility(this, viewer, visScratch, now); // writes ALL visible types
             teamSightings.expireOld(viewer, now);
         }
@@ -618,38 +824,121 @@ public class World {
         u.__engine_setLength(2);
         return true;
     }
+    // ---- Fog feather distance field, maintained per dirty 16x16 block ----
+    private static final int FOG_BLOCK = 16;
+    private boolean[] fogBlockDirty;           // [blocksH * blocksW]
+    private final IntList fogDirtyBlocks = new IntList();
+    private boolean fogAllDirty = true;        // first frame (and opacity changes) rebuild everything
+    private int[] fogQueue = new int[0];       // ring buffer of flat indices (r*width + c)
+    private int[] fogScratch = new int[0];     // BFS distances for the region being rebuilt
+
+    /** Visibility of (r,c) changed: its feather neighbourhood needs recomputing. */
+    private void markFogDirty(int r, int c) {
+        if (fogAllDirty) return;
+        int bw = (width + FOG_BLOCK - 1) / FOG_BLOCK;
+        int b = (r / FOG_BLOCK) * bw + (c / FOG_BLOCK);
+        if (fogBlockDirty[b]) return;
+        fogBlockDirty[b] = true;
+        fogDirtyBlocks.add(b);
+    }
+
+    /** Opacity changed somewhere: rebuild the whole field next time. */
+    private void markFogAllDirty() { fogAllDirty = true; }
+
+    private void updateFogFeatherIncremental(int maxSteps) {
+        if (fogAllDirty) {
+            computeFogFeatherDistances(maxSteps);
+            return;
+        }
+        int bw = (width + FOG_BLOCK - 1) / FOG_BLOCK;
+        for (int i = 0; i < fogDirtyBlocks.size; i++) {
+            int b = fogDirtyBlocks.data[i];
+            fogBlockDirty[b] = false;
+            int r0 = (b / bw) * FOG_BLOCK, c0 = (b % bw) * FOG_BLOCK;
+            int r1 = Math.min(height - 1, r0 + FOG_BLOCK - 1), c1 = Math.min(width - 1, c0 + FOG_BLOCK - 1);
+            // a changed tile affects everything within maxSteps of it
+            featherRegion(r0 - maxSteps, c0 - maxSteps, r1 + maxSteps, c1 + maxSteps, maxSteps);
+        }
+        fogDirtyBlocks.clear();
+    }
+
+    /**
+     * Full rebuild of fogDist (first frame / wholesale visibility writes). Away from lit tiles
+     * every distance is "far" (the grid default), so drop it all and only feather the blocks
+     * that hold a visible tile -- no map-sized scratch.
+     */
     private void computeFogFeatherDistances(int maxSteps) {
-        java.util.ArrayDeque<int[]> q = new java.util.ArrayDeque<>();
-        // init
-        for (int r = 0; r < height; r++) {
-            for (int c = 0; c < width; c++) {
-                if (visible[r][c]) {
-                    fogDist[r][c] = 0;
-                    q.add(new int[]{r,c});
+        if (fogBlockDirty == null) {
+            int bw = (width + FOG_BLOCK - 1) / FOG_BLOCK, bh = (height + FOG_BLOCK - 1) / FOG_BLOCK;
+            fogBlockDirty = new boolean[bw * bh];
+        }
+        java.util.Arrays.fill(fogBlockDirty, false);
+        fogDirtyBlocks.clear();
+        fogAllDirty = false;
+        fogDist.reset(Integer.MAX_VALUE);
+        for (int i = 0; i < visList.size; i++) {
+            int idx = visList.data[i];
+            markFogDirty(idx / width, idx % width);
+        }
+        updateFogFeatherIncremental(maxSteps);
+    }
+
+    /**
+     * Recompute fogDist for tiles in [r0..r1]x[c0..c1] (clamped). The BFS runs over the region
+     * grown by maxSteps so seeds just outside still count; only the inner region is written back.
+     * 4-neighbor BFS; stop at opaque and clamp by maxSteps.
+     */
+    private void featherRegion(int r0, int c0, int r1, int c1, int maxSteps) {
+        r0 = Math.max(0, r0); c0 = Math.max(0, c0);
+        r1 = Math.min(height - 1, r1); c1 = Math.min(width - 1, c1);
+        if (r0 > r1 || c0 > c1) return;
+        final int er0 = Math.max(0, r0 - maxSteps), ec0 = Math.max(0, c0 - maxSteps);
+        final int er1 = Math.min(height - 1, r1 + maxSteps), ec1 = Math.min(width - 1, c1 + maxSteps);
+        final int ew = ec1 - ec0 + 1, eh = er1 - er0 + 1, area = ew * eh;
+        if (fogScratch.length < area) { fogScratch = new int[area]; fogQueue = new int[area]; }
+        final int[] dist = fogScratch, q = fogQueue;
+
+        // init; a tile is queued at most once (BFS), so 'area' slots are enough for the ring
+        int head = 0, tail = 0;
+        for (int r = er0; r <= er1; r++) {
+            int base = (r - er0) * ew - ec0;
+            for (int c = ec0; c <= ec1; c++) {
+                if (visible.get(r, c)) {
+                    dist[base + c] = 0;
+                    q[tail++] = r * width + c;
                 } else {
-                    fogDist[r][c] = Integer.MAX_VALUE;
+                    dist[base + c] = Integer.MAX_VALUE;
                 }
             }
         }
-        // 4-neighbor BFS; stop at opaque and clamp by maxSteps
-        final int[] DR = {1,-1,0,0};
-        final int[] DC = {0,0,1,-1};
-        while (!q.isEmpty()) {
-            int[] t = q.pollFirst();
-            int r = t[0], c = t[1];
-            int d = fogDist[r][c];
+        int queued = tail;
+        if (tail == area) tail = 0;
+        while (queued > 0) {
+            int idx = q[head++];
+            if (head == area) head = 0;
+            queued--;
+            int r = idx / width, c = idx % width;
+            int d = dist[(r - er0) * ew + (c - ec0)];
             if (d >= maxSteps) continue;
-            for (int k=0;k<4;k++) {
-                int rr = r + DR[k], cc = c + DC[k];
-                if (!inBoundsRC(rr, cc)) continue;
+            int nd = d + 1;
+            for (int k = 0; k < 4; k++) {
+                int rr = r, cc = c;
+                switch (k) { case 0 -> rr++; case 1 -> rr--; case 2 -> cc++; default -> cc--; }
+                if (rr < er0 || rr > er1 || cc < ec0 || cc > ec1) continue;
                 if (isOpaque(rr, cc)) continue;                 // <-- don’t feather through walls/trees
-                int nd = d + 1;
-                if (nd < fogDist[rr][cc]) {
-                    fogDist[rr][cc] = nd;
-                    q.addLast(new int[]{rr,cc});
+                int li = (rr - er0) * ew + (cc - ec0);
+                if (nd < dist[li]) {
+                    dist[li] = nd;
+                    q[tail++] = rr * width + cc;
+                    if (tail == area) tail = 0;
+                    queued++;
                 }
             }
         }
+        for (int r = r0; r <= r1; r++) {
+            int base = (r - er0) * ew - ec0;
+            for (int c = c0; c <= c1; c++) fogDist.set(r, c, dist[base + c]);
+        }
     }
     // World.java
     private void applyUnitFOVShadow(characters.Unit u) {
@@ -663,7 +952,7 @@ public class World {
         final int uc = (int)Math.floor(ux);
         if (!inBoundsRC(ur, uc)) return;
 
-        visible[ur][uc] = true;
+        markVisible(ur, uc);
 
         final double faceX = Math.cos(u.getOrientRad());
         final double faceY = Math.sin(u.getOrientRad());
@@ -671,25 +960,26 @@ public class World {
         final double range2 = range * range;
         final int radius = (int)Math.floor(range);
 
-        castOctant(uy, ux, radius, 1, 0, 0, 1,  1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
-        castOctant(uy, ux, radius, 0, 1, 1, 0,  1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
-        castOctant(uy, ux, radius, 0,-1, 1, 0,  1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
-        castOctant(uy, ux, radius,-1, 0, 0, 1,  1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
-        castOctant(uy, ux, radius,-1, 0, 0,-1,  1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
-        castOctant(uy, ux, radius, 0,-1,-1, 0,  1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
-        castOctant(uy, ux, radius, 0, 1,-1, 0,  1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
-        castOctant(uy, ux, radius, 1, 0, 0,-1,  1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
+        castOctant(uy, ux, radius, 1, 0, 0, 1,  1, 1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
+        castOctant(uy, ux, radius, 0, 1, 1, 0,  1, 1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
+        castOctant(uy, ux, radius, 0,-1, 1, 0,  1, 1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
+        castOctant(uy, ux, radius,-1, 0, 0, 1,  1, 1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
+        castOctant(uy, ux, radius,-1, 0, 0,-1,  1, 1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
+        castOctant(uy, ux, radius, 0,-1,-1, 0,  1, 1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
+        castOctant(uy, ux, radius, 0, 1,-1, 0,  1, 1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
+        castOctant(uy, ux, radius, 1, 0, 0,-1,  1, 1.0, 0.0, faceX, faceY, halfConeCos, useCone, range2);
     }
 
     /**
      * Recursive shadowcasting (RogueBasin-style), adapted for tile centers, range, and optional vision cone.
      * (xx,xy,yx,yy) map the octant; start=1.0,end=0.0 define the initial slopes.
+     * firstRow is where a recursive call picks up (the row after the blocker that split the arc).
      */
 
     private void castOctant(
             double oy, double ox, int radius,
             int xx, int xy, int yx, int yy,
-            double startSlope, double endSlope,
+            int firstRow, double startSlope, double endSlope,
             double faceX, double faceY, double halfConeCos, boolean useCone,
             double range2
     ) {
@@ -698,7 +988,7 @@ public class World {
         final int r0 = (int)Math.floor(oy);
         final int c0 = (int)Math.floor(ox);
 
-        for (int row = 1; row <= radius; row++) {
+        for (int row = firstRow; row <= radius; row++) {
             int dx = -row;
             int minCol = (int)Math.floor((row * endSlope) + 0.5);
             int maxCol = (int)Math.ceil ((row * startSlope) - 0.5);
@@ -725,7 +1015,7 @@ public class World {
                     double dot = (dxw*inv) * faceX + (dyw*inv) * faceY;
                     insideCone = (dot >= halfConeCos);
                 }
-                if (insideCone) visible[rr][cc] = true;
+                if (insideCone) markVisible(rr, cc);
 
                 boolean opaque = isOpaque(rr, cc);
                 if (!insideCone) opaque = false; // outside cone is transparent to shadows
@@ -742,7 +1032,7 @@ public class World {
                         blocked = true;
                         double newEnd = (col - 0.5) / (row + 0.5);
                         castOctant(oy, ox, radius, xx, xy, yx, yy,
-                                startSlope, newEnd, faceX, faceY, halfConeCos, useCone, range2);
+                                row + 1, startSlope, newEnd, faceX, faceY, halfConeCos, useCone, range2);
                         newStart = (col + 0.5) / (row - 0.5);
                     }
                 }
@@ -787,7 +1077,7 @@ public class World {
                 }
 
                 if (inBounds && withinRange && insideCone) {
-                    visible[rr][cc] = true;
+                    markVisible(rr, cc);
                 }
 
                 // Check blocking **only** if inside bounds and within range.
@@ -831,7 +1121,7 @@ public class World {
     private void stampBuilding(int top, int left, int h, int w, boolean value) {
         for (int r = top; r < top + h; r++) {
             for (int c = left; c < left + w; c++) {
-                if (inBoundsRC(r, c)) buildingMask[r][c] = value;
+                setTileFlag(r, c, TileFlags.BUILDING, value);
             }
         }
     }
@@ -839,78 +1129,65 @@ public class World {
 
 
     public boolean canPlaceBuilding(Building.Type type, int topRow, int leftCol) {
-        for (int r = topRow; r < topRow + type.h; r++) {
-            for (int c = leftCol; c < leftCol + type.w; c++) {
-                if (!inBoundsRC(r, c)) return false;
-                if (treeMask != null && treeMask[r][c]) return false;
-                if (stoneMask != null && stoneMask[r][c]) return false;
-                if (buildingMask != null && buildingMask[r][c]) return false;
-                // optional: disallow if a unit currently occupies it
-                // if (isUnitAt(r,c)) return false;
-            }
-        }
-        return true;
+        // optional: add TileFlags.UNIT_PRESENT to disallow placing on top of units
+        return tileFlags.allClear(topRow, leftCol, type.h, type.w,
+                TileFlags.TREE | TileFlags.STONE | TileFlags.BUILDING);
     }
 
+    /** Building covering tile (r,c), or null. O(1) via the tile index. */
     public Building buildingAt(int r, int c) {
-        for (Building b : buildings) {
-            int br = b.getRow(), bc = b.getCol();
-            if (r >= br && r < br + b.getType().h && c >= bc && c < bc + b.getType().w) return b;
-        }
-        return null;
+        return buildingRegistry.at(r, c);
+    }
+
+    public Building buildingById(int id) {
+        return buildingRegistry.get(id);
     }
 
+    /** Live read-only list of team's buildings of type t (no copy; don't hold on to it across placements). */
     public java.util.List<Building> buildingsOf(Team team, Building.Type t) {
-        java.util.ArrayList<Building> out = new java.util.ArrayList<>();
-        for (Building b : buildings) if (b.getTeam() == team && b.getType() == t) out.add(b);
-        return out;
+        return buildingRegistry.of(team, t);
     }
 
+    public int countBuildings(Team team, Building.Type t) {
+        return buildingRegistry.count(team, t);
+    }
+
+    // window queries for the render snapshot (package-private: indexes stay internal)
+    ResourceIndex<Terrain.TreeBlock> treeIndex() { return treeIndex; }
+    ResourceIndex<Terrain.StoneBlock> stoneIndex() { return stoneIndex; }
+    BuildingRegistry buildingRegistry() { return buildingRegistry; }
+
     // add a house, then spawn arrivals
     public boolean addHouse(int topRow, int leftCol, characters.Team team) {
         if (!canPlaceBuilding(Building.Type.HOUSE, topRow, leftCol)) return false;
         Building b = new Building(Building.Type.HOUSE, topRow, leftCol, team);
-        buildings.add(new Building(Building.Type.HOUSE, topRow, leftCol, team));
-        assignBuildingId(b);
-        stampBuilding(topRow, leftCol, Building.Type.HOUSE.h, Building.Type.HOUSE.w, true);
-//        rebuildOpaqueMask();
+        placeBuilding(b);
         return true; // spawning handled in trySpawnArrivalsForHouses()
     }
 
     public boolean addFarm(int topRow, int leftCol, characters.Team team) {
         if (!canPlaceBuilding(Building.Type.FARM, topRow, leftCol)) return false;
         Building b = new Building(Building.Type.FARM, topRow, leftCol, team);
-        buildings.add(b);
-        assignBuildingId(b);
-        stampBuilding(topRow, leftCol, Building.Type.FARM.h, Building.Type.FARM.w, true);
+        placeBuilding(b);
         return true;
     }
 
     public boolean addBarn(int topRow, int leftCol, characters.Team team) {
         if (!canPlaceBuilding(Building.Type.BARN, topRow, leftCol)) return false;
         Building b = new Building(Building.Type.BARN, topRow, leftCol, team);
-        buildings.add(b);
-        assignBuildingId(b);
-        stampBuilding(topRow, leftCol, Building.Type.BARN.h, Building.Type.BARN.w, true);
-//        rebuildOpaqueMask();
+        placeBuilding(b);
         return true;
     }
     public boolean addLoggingCamp(int topRow, int leftCol, characters.Team team) {
         if (!canPlaceBuilding(Building.Type.LOGGING_CAMP, topRow, leftCol)) return false;
         Building b = new Building(Building.Type.LOGGING_CAMP, topRow, leftCol, team);
-        buildings.add(b);
-        assignBuildingId(b);
-        // stamp to building mask for collision:
-        stampBuilding(topRow, leftCol, Building.Type.LOGGING_CAMP.h, Building.Type.LOGGING_CAMP.w, true);
-//        rebuildOpaqueMask();
+        placeBuilding(b); // also stamps the building mask for collision
         return true;
     }
     public boolean addMiningCamp(int top, int left, Team team) {
         if (!canPlaceBuilding(Building.Type.MINING_CAMP,top, left)) return false;
         var b = new Building(Building.Type.MINING_CAMP, top, left, team);
-        buildings.add(b);
-        stampBuilding(b.getRow(), b.getCol(), b.getType().h, b.getType().w, true);
-//        rebuildOpaqueMask();                 // single rebuild here
+        placeBuilding(b);
         return true;
     }
     // Return all control points that belong to tree patches (forests)
@@ -966,178 +1243,28 @@ public class World {
         u.setMinerState(Unit.MinerState.SEEK_STONE);
         return true;
     }
-    // Search all tree blocks, pick nearest by manhattan/chebyshev, then find an adjacent stand tile
-    private static final int[][] ADJ8 = {
-            {-1,0},{1,0},{0,-1},{0,1},{-1,-1},{-1,1},{1,-1},{1,1}
-    };
-
-    // returns int[]{top,left, standR, standC} or null if none
-    private int[] findNearestTreeAndStand(characters.Unit u) {
-        int ur = u.getRowRounded(), uc = u.getColRounded();
-
-        Terrain.TreePatch bestPatch = null;
-        Terrain.TreeBlock bestBlock = null;
-        int bestDist = Integer.MAX_VALUE;
-        int bestStandR = -1, bestStandC = -1;
-
-        // iterate all tree blocks
-        for (Terrain.TreePatch patch : treePatches) {
-            for (Terrain.TreeBlock b : patch.trees()) {
-                int top = b.r, left = b.c;
-                // choose candidate stand tiles around 2x2
-                int[][] ring = {
-                        {top-1, left}, {top-1, left+1},
-                        {top+2, left}, {top+2, left+1},
-                        {top, left-1}, {top+1, left-1},
-                        {top, left+2}, {top+1, left+2},
-                        // corners optional
-                        {top-1, left-1},{top-1,left+2},{top+2,left-1},{top+2,left+2}
-                };
-                // pick the first reachable (try nearest-first by sorting ring by distance)
-                int localBestDist = Integer.MAX_VALUE;
-                int localStandR = -1, localStandC = -1;
-
-                for (int[] rc : ring) {
-                    int rr = rc[0], cc = rc[1];
-                    if (!inBoundsRC(rr, cc) || isBlocked(rr, cc, u)) continue;
-                    int d = Math.abs(rr - ur) + Math.abs(cc - uc);
-                    if (d < localBestDist) {
-                        // also try A* to ensure reachable
-                        var pth = findPathAStar(ur, uc, rr, cc, u);
-                        if (pth != null && !pth.isEmpty()) {
-                            localBestDist = d;
-                            localStandR = rr; localStandC = cc;
-                        }
-                    }
-                }
-                if (localStandR != -1 && localBestDist < bestDist) {
-                    bestDist = localBestDist;
-                    bestBlock = b; bestPatch = patch;
-                    bestStandR = localStandR; bestStandC = localStandC;
-                }
-            }
-        }
-
-        if (bestBlock == null) return null;
-        return new int[]{bestBlock.r, bestBlock.c, bestStandR, bestStandC};
-    }
-    private int[] findNearestStoneAndStand(characters.Unit u) {
-        int ur = u.getRowRounded(), uc = u.getColRounded();
-
-        Terrain.StonePatch bestPatch = null;
-        Terrain.StoneBlock  bestStone = null;
-        int bestDistToStand = Integer.MAX_VALUE; // dist from unit to chosen stand tile
-        int bestDistToStone = Integer.MAX_VALUE; // tiebreaker
-        int bestClumpScore  = -1;                // tiebreaker
-        int bestStandR = -1, bestStandC = -1;
-
-        // Count neighboring stones (8-neighborhood) for “clumpiness”
-        java.util.function.BiFunction<Terrain.StonePatch, Terrain.StoneBlock, Integer> clumpScore = (patch, s) -> {
-            int score = 0;
-            int[][] nn = { {-1,0},{1,0},{0,-1},{0,1},{-1,-1},{-1,1},{1,-1},{1,1} };
-            for (int[] d : nn) {
-                int rr = s.r + d[0], cc = s.c + d[1];
-                for (Terrain.StoneBlock t : patch.stones()) {
-                    if (t.r == rr && t.c == cc) { score++; break; }
-                }
-            }
-            return score;
-        };
-
-        for (Terrain.StonePatch patch : stonePatches) {
-            for (Terrain.StoneBlock s : patch.stones()) {
-                int sr = s.r, sc = s.c;
-
-                // Try orthogonal stands first, then diagonals if none are reachable
-                int[][] ringPrimary   = { {sr-1,sc}, {sr+1,sc}, {sr,sc-1}, {sr,sc+1} };
-                int[][] ringSecondary = { {sr-1,sc-1}, {sr-1,sc+1}, {sr+1,sc-1}, {sr+1,sc+1} };
-
-                int localBestDist = Integer.MAX_VALUE;
-                int localStandR = -1, localStandC = -1;
-
-                // Scan helper body (duplicated to avoid lambda-capture issues)
-                for (int[] rc : ringPrimary) {
-                    int rr = rc[0], cc = rc[1];
-                    if (!inBoundsRC(rr, cc) || isBlocked(rr, cc, u)) continue;
-                    int d = Math.abs(rr - ur) + Math.abs(cc - uc);
-                    if (d < localBestDist) {
-                        var pth = findPathAStar(ur, uc, rr, cc, u);
-                        if (pth != null && !pth.isEmpty()) {
-                            localBestDist = d;
-                            localStandR = rr; localStandC = cc;
-                        }
-                    }
-                }
-                if (localStandR == -1) {
-                    for (int[] rc : ringSecondary) {
-                        int rr = rc[0], cc = rc[1];
-                        if (!inBoundsRC(rr, cc) || isBlocked(rr, cc, u)) continue;
-                        int d = Math.abs(rr - ur) + Math.abs(cc - uc);
-                        if (d < localBestDist) {
-                            var pth = findPathAStar(ur, uc, rr, cc, u);
-                            if (pth != null && !pth.isEmpty()) {
-                                localBestDist = d;
-                                localStandR = rr; localStandC = cc;
-                            }
-                        }
-                    }
-                }
-
-                if (localStandR != -1) {
-                    int dToStand = localBestDist;
-                    int dToStone = Math.abs(sr - ur) + Math.abs(sc - uc);
-                    int clump    = clumpScore.apply(patch, s);
-
-                    boolean better =
-                            (dToStand < bestDistToStand) ||
-                                    (dToStand == bestDistToStand && dToStone < bestDistToStone) ||
-                                    (dToStand == bestDistToStand && dToStone == bestDistToStone && clump > bestClumpScore);
-
-                    if (better) {
-                        bestDistToStand = dToStand;
-                        bestDistToStone = dToStone;
-                        bestClumpScore  = clump;
-                        bestPatch = patch;
-                        bestStone = s;
-                        bestStandR = localStandR; bestStandC = localStandC;
-                    }
-                }
-            }
-        }
-
-        if (bestStone == null) return null;
-        return new int[]{bestStone.r, bestStone.c, bestStandR, bestStandC};
-    }
     private void clearTreeBlock(int top, int left) {
-        // clear mask
+        Terrain.TreeBlock b = treeIndex.anchoredAt(top, left);
+        if (b == null) return; // already cut
+        jobBoard.blockCleared(b, true);
+
+        // clear flags (opacity and fog follow)
         for (int rr = top; rr < top+2; rr++)
             for (int cc = left; cc < left+2; cc++)
-                if (inBoundsRC(rr, cc)) treeMask[rr][cc] = false;
+                setTileFlag(rr, cc, TileFlags.TREE, false);
 
-        // remove from lists
-        for (Terrain.TreePatch patch : treePatches) {
-            java.util.Iterator<Terrain.TreeBlock> it = patch.trees().iterator();
-            while (it.hasNext()) {
-                Terrain.TreeBlock b = it.next();
-                if (b.r == top && b.c == left) { it.remove(); return; }
-            }
-        }
+        treeIndex.remove(b); // O(1): tile grid, bucket and patch list
         // if you pre-render terrain, call invalidateTerrain();
     }
     private void clearStoneBlock(int top, int left) {
-        // clear mask
-        for (int rr = top; rr < top+2; rr++)
-            for (int cc = left; cc < left+2; cc++)
-                if (inBoundsRC(rr, cc)) stoneMask[rr][cc] = false;
-
-        // remove from lists
-        for (Terrain.StonePatch patch : stonePatches) {
-            java.util.Iterator<Terrain.StoneBlock> it = patch.stones().iterator();
-            while (it.hasNext()) {
-                Terrain.StoneBlock b = it.next();
-                if (b.r == top && b.c == left) { it.remove(); return; }
-            }
-        }
+        Terrain.StoneBlock s = stoneIndex.anchoredAt(top, left);
+        if (s == null) return; // already mined
+        jobBoard.blockCleared(s, false);
+
+        // stones are 1×1 tiles: clear just this one (don't wipe neighbours of a clump)
+        setTileFlag(top, left, TileFlags.STONE, false);
+
+        stoneIndex.remove(s);
         // if you pre-render terrain, call invalidateTerrain();
     }
     // any free tile around the camp rectangle
@@ -1167,6 +1294,44 @@ public class World {
         // base 3.5s, -0.1s per STR, clamped to [1.2, 5.0]
         return Math.max(1.2, Math.min(5.0, 3.5 - 0.1 * STR));
     }
+    /** A unit's chop/mine timer ran out (TimerWheel callback, start of a step). */
+    public void __engine_jobTimerDone(characters.Unit u) {
+        if (u.getRole() == Unit.UnitRole.LUMBER && u.getLumberState() == Unit.LumberState.CHOPPING) finishChopTree(u);
+        else if (u.getRole() == Unit.UnitRole.MINER && u.getMinerState() == Unit.MinerState.CHOPPING) finishMineStone(u);
+    }
+
+    // finished: remove tree, pick up log, head for the camp
+    private void finishChopTree(characters.Unit u) {
+        Building camp = u.getAssignedCamp();
+        if (camp == null) { u.setLumberState(characters.Unit.LumberState.IDLE); return; }
+        int top = u.getTreeTop(), left = u.getTreeLeft();
+        clearTreeBlock(top, left);
+        u.setCarryingLog(true);
+
+        // path to camp drop tile
+        int[] drop = findCampDropTile(camp, u);
+        if (drop == null) { u.setLumberState(characters.Unit.LumberState.IDLE); return; }
+        var path = findPathAStar(u.getRowRounded(), u.getColRounded(), drop[0], drop[1], u);
+        if (path != null) { u.setPath(path); u.setLumberState(characters.Unit.LumberState.MOVE_TO_CAMP); }
+        else { u.setLumberState(characters.Unit.LumberState.IDLE); }
+    }
+
+    // finished: remove stone, pick it up, head for the camp
+    private void finishMineStone(characters.Unit u) {
+        Building camp = u.getAssignedCamp();
+        if (camp == null) { u.setMinerState(Unit.MinerState.IDLE); return; }
+        int top = u.getStoneTop(), left = u.getStoneLeft();
+        clearStoneBlock(top, left);
+        u.setCarryingStone(true);
+
+        // path to camp drop tile
+        int[] drop = findCampDropTile(camp, u);
+        if (drop == null) { u.setMinerState(Unit.MinerState.IDLE); return; }
+        var path = findPathAStar(u.getRowRounded(), u.getColRounded(), drop[0], drop[1], u);
+        if (path != null) { u.setPath(path); u.setMinerState(Unit.MinerState.MOVE_TO_CAMP); }
+        else { u.setMinerState(Unit.MinerState.IDLE); }
+    }
+
     public void updateLumberJobs(double dt) {
         for (characters.Unit u : units) {
             if (u.getRole() != Unit.UnitRole.LUMBER) continue;
@@ -1175,15 +1340,7 @@ public class World {
 
             switch (u.getLumberState()) {
 
-                case SEEK_TREE -> {
-                    int[] res = findNearestTreeAndStand(u);
-                    if (res == null) { u.setLumberState(Unit.LumberState.IDLE); break; }
-                    u.setTreeTarget(res[0], res[1]);
-                    u.setStandTile(res[2], res[3]);
-                    var path = findPathAStar(u.getRowRounded(), u.getColRounded(), res[2], res[3], u);
-                    if (path != null) { u.setPath(path); u.setLumberState(Unit.LumberState.MOVE_TO_CAMP); }
-                    else { u.setLumberState(Unit.LumberState.IDLE); }
-                }
+                case SEEK_TREE -> jobBoard.seek(u); // assigned together after the loop
 
                 case MOVE_TO_TREE -> {
                     // when not moving and adjacent to target stand tile, start chopping
@@ -1198,22 +1355,7 @@ public class World {
                     }
                 }
 
-                case CHOPPING -> {
-                    double t = u.getChopTimer() - dt;
-                    if (t > 0) { u.setChopTimer(t); break; }
-
-                    // finished: remove tree, pick up log
-                    int top = u.getTreeTop(), left = u.getTreeLeft();
-                    clearTreeBlock(top, left);
-                    u.setCarryingLog(true);
-
-                    // path to camp drop tile
-                    int[] drop = findCampDropTile(camp, u);
-                    if (drop == null) { u.setLumberState(characters.Unit.LumberState.IDLE); break; }
-                    var path = findPathAStar(u.getRowRounded(), u.getColRounded(), drop[0], drop[1], u);
-                    if (path != null) { u.setPath(path); u.setLumberState(characters.Unit.LumberState.MOVE_TO_CAMP); }
-                    else { u.setLumberState(characters.Unit.LumberState.IDLE); }
-                }
+                case CHOPPING -> { /* waiting on the chop timer (see finishChopTree) */ }
 
                 case MOVE_TO_CAMP -> {
                     if (!u.isMoving()) {
@@ -1230,6 +1372,7 @@ public class World {
                 }
             }
         }
+        jobBoard.assign(true);
     }
     public void updateMinerJobs(double dt) {
         for (characters.Unit u : units) {
@@ -1239,15 +1382,7 @@ public class World {
 
             switch (u.getMinerState()) {
 
-                case SEEK_STONE -> {
-                    int[] res = findNearestStoneAndStand(u);
-                    if (res == null) { u.setMinerState(Unit.MinerState.IDLE); break; }
-                    u.setStoneTarget(res[0], res[1]);
-                    u.setStandTile(res[2], res[3]);
-                    var path = findPathAStar(u.getRowRounded(), u.getColRounded(), res[2], res[3], u);
-                    if (path != null) { u.setPath(path); u.setMinerState(characters.Unit.MinerState.MOVE_TO_STONE); }
-                    else { u.setMinerState(Unit.MinerState.IDLE); }
-                }
+                case SEEK_STONE -> jobBoard.seek(u); // assigned together after the loop
 
                 case MOVE_TO_STONE -> {
                     // when not moving and adjacent to target stand tile, start chopping
@@ -1262,22 +1397,7 @@ public class World {
                     }
                 }
 
-                case CHOPPING -> {
-                    double t = u.getChopTimer() - dt;
-                    if (t > 0) { u.setChopTimer(t); break; }
-
-                    // finished: remove tree, pick up log
-                    int top = u.getStoneTop(), left = u.getStoneLeft();
-                    clearStoneBlock(top, left);
-                    u.setCarryingStone(true);
-
-                    // path to camp drop tile
-                    int[] drop = findCampDropTile(camp, u);
-                    if (drop == null) { u.setMinerState(Unit.MinerState.IDLE); break; }
-                    var path = findPathAStar(u.getRowRounded(), u.getColRounded(), drop[0], drop[1], u);
-                    if (path != null) { u.setPath(path); u.setMinerState(Unit.MinerState.MOVE_TO_CAMP); }
-                    else { u.setMinerState(Unit.MinerState.IDLE); }
-                }
+                case CHOPPING -> { /* waiting on the chop timer (see finishMineStone) */ }
 
                 case MOVE_TO_CAMP -> {
                     if (!u.isMoving()) {
@@ -1294,6 +1414,7 @@ public class World {
                 }
             }
         }
+        jobBoard.assign(false);
     }
     // Chebyshev distance from a rectangle footprint (top..top+h-1, left..left+w-1)
 // to a single tile (pr,pc). Returns 0 if overlapping, 1 if touching (edge or corner), etc.
@@ -1358,8 +1479,11 @@ public class World {
         return true;
     }
     public void fireArrowShot(characters.Unit shooter, characters.Unit target) {
-        // spawn from the shooter’s center toward the *current* target pos
-        arrows.add(new Arrow(
+        if (aiDeferring && defer(CommandBuffer.FIRE, shooter, target, null, null)) return;
+        // spawn from the shooter’s center toward the *current* target pos (a pooled arrow if we have one)
+        int pooled = arrowPool.size();
+        Arrow a = (pooled > 0) ? arrowPool.remove(pooled - 1) : new Arrow(0, 0, 0, 0, 0, 0, 0);
+        arrows.add(a.set(
                 shooter.getX(), shooter.getY(),
                 target.getX(),   target.getY(),
                 12.0, // speed in tiles/sec (tweak)
@@ -1405,7 +1529,7 @@ public class World {
         boolean wasSelected = footman.isSelected();
 
         // Remove the footman as a standalone unit
-        units.remove(footman);
+        detachUnit(footman);
 
         // Mark the horse as a mounted, 2-tile carrier and attach the rider
         horse.__engine_setLength(2);     // ensure 2 tiles
@@ -1417,7 +1541,6 @@ public class World {
         // keep selection on the mounted unit
         if (wasSelected) horse.setSelected(true);
 
-        syncUnitsToLayer();
         return true;
     }
     // Try a diagonal as two cardinal micro-steps; allow if EITHER order is clear.
@@ -1500,44 +1623,54 @@ public class World {
         }
         return out;
     }
-    private int nextUnitId = 1;
+    // id -> unit (generational; stale ids of removed units resolve to null)
+    private final UnitRegistry unitRegistry = new UnitRegistry();
     // --- fields ---
     private final java.util.List<Arrow> arrows = new java.util.ArrayList<>();
 
     public java.util.List<Arrow> getArrows() { return arrows; }
+    // landed arrows, ready to be fired again (no allocation per shot once warmed up)
+    private final java.util.ArrayList<Arrow> arrowPool = new java.util.ArrayList<>();
 
 
     // 4) Time & arrow visual (stubs if you don’t have them yet)
-    public double nowSeconds() { return System.nanoTime() / 1e9; }
+    public double nowSeconds() { return clock.nowSeconds(); }
+    public long nowNanos() { return clock.nowNanos(); }
 
     // Tunable default arrow speed (tiles per second)
     private static final double ARROW_SPEED_CPS = 14.0;
 
-    // Advance & prune arrows each tick
+    // Advance & prune arrows each tick (landed ones are swap-removed into the pool)
     public void updateArrows(double dt) {
-        java.util.Iterator<Arrow> it = arrows.iterator();
-        while (it.hasNext()) {
-            Arrow a = it.next();
-            boolean arrived = a.step(dt);
-            if (arrived) {
-                resolveRangedHit(a);
-                it.remove();
-            }
+        for (int i = 0; i < arrows.size(); ) {
+            Arrow a = arrows.get(i);
+            if (!a.step(dt)) { i++; continue; }
+            resolveRangedHit(a);
+            int last = arrows.size() - 1;
+            arrows.set(i, arrows.get(last));   // the moved one is stepped next, at i
+            arrows.remove(last);
+            arrowPool.add(a);
         }
     }
+    /** Take out this step's corpses; only visits the units that died (notifyUnitDied queued them). */
     public void cleanupDead(){
-        double now = nowSeconds();
-        units.removeIf(u -> u.isDead());
+        for (int i = 0, n = diedPending.size(); i < n; i++) {
+            Unit u = diedPending.get(i);
+            int slot = u.__engine_getStoreSlot();
+            if (slot < 0 || slot >= unitStore.size() || unitStore.unit(slot) != u) continue; // not in this world (any more)
+            detachUnit(u);
+        }
+        diedPending.clear();
     }
     private final java.util.Random rng = new java.util.Random();
 
-    private characters.Unit unitById(int id){
-        for (characters.Unit u : units) if (u.getId() == id) return u;
-        return null;
+    /** O(1): the unit with this id while it's in the world (dead or alive), else null. */
+    public characters.Unit unitById(int id){
+        return unitRegistry.get(id);
     }
 
     private void resolveRangedHit(Arrow a){
-        if (a.targetId == null) return; // purely visual arrow
+        if (a.targetId == 0) return; // purely visual arrow
         var shooter = unitById(a.shooterId);
         var target  = unitById(a.targetId);
         if (shooter == null || target == null || target.isDead()) return;
@@ -1601,14 +1734,23 @@ public class World {
     public int getWidth() { return width; }
     public int getLayers() { return layers; }
     public List<ControlPoint> getControlPoints() { return controlPoints; }
-    public void addControlPoint(ControlPoint cp) { controlPoints.add(cp); }
+    public void addControlPoint(ControlPoint cp) {
+        controlPoints.add(cp);
+        controlOccupancy.addPoint(cp, units);
+    }
+    public void removeControlPoint(ControlPoint cp) {
+        if (controlPoints.remove(cp)) controlOccupancy.removePoint(cp);
+    }
 
     public ResourceManager getResources() { return resources; }
     public int getCell(int row, int col, int layer) {
-        return worldMap.get(row).get(col).get(layer);
+        return worldMap.get(row, col, layer);
     }
+    /** The backing layer store (bulk fill / copy). Ground writes should still go through setCell/setWall. */
+    public LayerGrid getLayerGrid() { return worldMap; }
     public void setCell(int row, int col, int layer, int value) {
-        worldMap.get(row).get(col).set(layer, value);
+        worldMap.set(row, col, layer, value);
+        if (layer == LAYER_GROUND) setTileFlag(row, col, TileFlags.WALL, value == GROUND_WALL);
     }
     public boolean inBounds(int r, int c) {
         return r >= 0 && r < height && c >= 0 && c < width;
@@ -1626,8 +1768,7 @@ public class World {
     public static final int GROUND_WALL  = 1;
 
     public boolean isWalkable(int r, int c) {
-        int ground = getCell(r, c, LAYER_GROUND);
-        return ground != GROUND_WALL;
+        return (tileFlags.get(r, c) & TileFlags.WALL) == 0;
     }
 
     public void setWall(int r, int c, boolean wall) {
@@ -1681,22 +1822,28 @@ public class World {
 
     // --- NEW: Unit management ---
     public void addUnit(Unit u) {
-        units.add(u);
+        attachUnit(u);
     }
+    /**
+     * Every unit in the world (dead ones until the end-of-step cleanup), as a read-only live view
+     * over the unit store: no copy, and removals swap the last unit into the hole, so the order
+     * changes as units leave. Read it on the sim thread between steps (or from inside a step);
+     * another thread that wants the units while the sim runs needs the sim to hand it a copy
+     * (the renderer gets RenderSnapshot) or has to SimulationEngine.post() the work (the UI's
+     * input handlers do). Iterators are fail-fast on adds / removes.
+     */
     public List<Unit> getUnits() {
         return units;
     }
     // NEW: convenience to create and register a Unit from an Actor
     public Unit spawnActor(characters.Actor actor, int r, int c) {
         Unit u = new Unit(actor, c, r);
-        u.__engine_setId(nextUnitId++);   // <<< give each unit an id
         // Horses occupy 2 tiles
         if (actor instanceof characters.Horse) {
             u.__engine_setLength(2);
         }
 
-        units.add(u);
-        syncUnitsToLayer();
+        attachUnit(u);   // <<< id, spatial hash, control-point counters, occupancy + unit layer
         return u;
     }
     // Chebyshev distance (good for grid range “tiles”)
@@ -1710,7 +1857,115 @@ public class World {
     }
 
     // Line of sight using Bresenham; walls block vision. Units do NOT block LOS for now.
+    // Start & end tiles are skipped. Uses the precomputed ray tables when the offset fits.
     public boolean hasLineOfSight(int r1, int c1, int r2, int c2) {
+        if (inBoundsRC(r1, c1) && inBoundsRC(r2, c2)) return wallLosCached(r1, c1, r2, c2);
+        return hasLineOfSightBresenham(r1, c1, r2, c2);
+    }
+
+    // --- per-tick LOS memo (see LosCache); modes keep wall-LOS and opaque-LOS answers apart ---
+    private static final int LOS_MODE_WALL = 0, LOS_MODE_OPAQUE = 1;
+    private final LosCache losCache = new LosCache();
+
+    /** Call at the start of every sim tick: drops last tick's memoized LOS answers. */
+    public void beginLosTick() { losCache.newTick(); }
+    /** Fraction of LOS queries answered from the memo during the last full tick. */
+    public double getLosCacheHitRate() { return losCache.lastTickHitRate(); }
+    public long getLosCacheHits()   { return losCache.getHits(); }
+    public long getLosCacheMisses() { return losCache.getMisses(); }
+
+    /** The memo this thread should use: an AI lane's own during the parallel phase, else the world's. */
+    private LosCache losCache() {
+        if (aiDeferring) {
+            AIPhase.Lane lane = AIPhase.current();
+            if (lane != null) return lane.los;
+        }
+        return losCache;
+    }
+
+    void absorbLosCounts(LosCache lane) { losCache.absorbCounts(lane); }
+
+    // both endpoints in bounds
+    private boolean wallLosCached(int r1, int c1, int r2, int c2) {
+        long k = LosCache.key(r1 * width + c1, r2 * width + c2, LOS_MODE_WALL);
+        LosCache memoCache = losCache();
+        int memo = memoCache.get(k);
+        if (memo >= 0) return memo == 1;
+        LosRays rays = losRaysCovering(Math.max(Math.abs(r2 - r1), Math.abs(c2 - c1)));
+        boolean ok = (rays != null)
+                ? rays.clear(tileFlags.raw(), r1 * width + c1, rays.slot(r2 - r1, c2 - c1), TileFlags.WALL)
+                : hasLineOfSightBresenham(r1, c1, r2, c2);
+        memoCache.put(k, ok);
+        return ok;
+    }
+
+    /**
+     * Tile LOS against the opaque mask (trees/stones/buildings), endpoints included,
+     * out-of-bounds tiles ignored. This is what the AI aiming checks used to walk by hand.
+     */
+    public boolean hasOpaqueFreeLine(double r0, double c0, double r1, double c1) {
+        int y0 = (int)Math.floor(r0), x0 = (int)Math.floor(c0);
+        int y1 = (int)Math.floor(r1), x1 = (int)Math.floor(c1);
+        if (inBoundsRC(y0, x0) && inBoundsRC(y1, x1)) {
+            LosRays rays = losRaysCovering(Math.max(Math.abs(y1 - y0), Math.abs(x1 - x0)));
+            if (rays != null) {
+                int o = y0 * width + x0, t = y1 * width + x1;
+                long k = LosCache.key(o, t, LOS_MODE_OPAQUE);
+                LosCache memoCache = losCache();
+                int memo = memoCache.get(k);
+                if (memo >= 0) return memo == 1;
+                byte[] flags = tileFlags.raw();
+                boolean ok = (flags[o] & TileFlags.OPAQUE) == 0 && (flags[t] & TileFlags.OPAQUE) == 0
+                        && rays.clear(flags, o, rays.slot(y1 - y0, x1 - x0), TileFlags.OPAQUE);
+                memoCache.put(k, ok);
+                return ok;
+            }
+        }
+        int dx = Math.abs(x1 - x0), sx = x0 < x1 ? 1 : -1;
+        int dy = -Math.abs(y1 - y0), sy = y0 < y1 ? 1 : -1;
+        int err = dx + dy;
+        while (true) {
+            if (tileFlags.has(y0, x0, TileFlags.OPAQUE)) return false;
+            if (x0 == x1 && y0 == y1) break;
+            int e2 = 2 * err;
+            if (e2 >= dy) { err += dy; x0 += sx; }
+            if (e2 <= dx) { err += dx; y0 += sy; }
+        }
+        return true;
+    }
+
+    /**
+     * Batch LOS (walls, same rules as hasLineOfSight) from one origin to n targets.
+     * Writes out[i] and returns how many are visible. Handy for "who can this archer see".
+     */
+    public int hasLineOfSightBatch(int r0, int c0, int[] rows, int[] cols, int n, boolean[] out) {
+        int seen = 0;
+        boolean originIn = inBoundsRC(r0, c0);
+        for (int i = 0; i < n; i++) {
+            boolean ok = (originIn && inBoundsRC(rows[i], cols[i]))
+                    ? wallLosCached(r0, c0, rows[i], cols[i])
+                    : hasLineOfSightBresenham(r0, c0, rows[i], cols[i]);
+            out[i] = ok;
+            if (ok) seen++;
+        }
+        return seen;
+    }
+
+    /** Smallest cached ray table that covers a Chebyshev offset, or null if it's too far. */
+    private LosRays losRaysCovering(int cheb) {
+        if (cheb <= LOS_TABLE_SMALL) return losRaysFor(LOS_TABLE_SMALL);
+        if (cheb <= LOS_TABLE_LARGE) return losRaysFor(LOS_TABLE_LARGE);
+        return null;
+    }
+
+    /** Ray table for an exact radius (built once per world, width-specific). */
+    LosRays losRaysFor(int radius) {
+        // AI lanes may ask concurrently
+        return losTables.computeIfAbsent(radius, r -> new LosRays(r, width));
+    }
+
+    // Plain Bresenham; fallback for offsets beyond the tables / out-of-bounds endpoints.
+    private boolean hasLineOfSightBresenham(int r1, int c1, int r2, int c2) {
         int x0 = c1, y0 = r1, x1 = c2, y1 = r2;
         int dx = Math.abs(x1 - x0), sx = x0 < x1 ? 1 : -1;
         int dy = -Math.abs(y1 - y0), sy = y0 < y1 ? 1 : -1;
@@ -1735,13 +1990,13 @@ public class World {
         return u.getActor().hasSword() ? "Sword" : "Fists";
     }
     public void resolveMeleeHit(characters.Unit attacker, characters.Unit target) {
+        if (aiDeferring && defer(CommandBuffer.ATTACK, attacker, target, null, null)) return;
         // --- fast guards ---
         if (attacker == null || target == null) return;
         if (target.isDead()) return;
 
         // --- OPTIONAL: lightweight per-window budget to protect frame time ---
-        // Uses world.nowSeconds() if you have it; otherwise use System.nanoTime()*1e-9.
-        double nowSec = nowSeconds(); // replace with (System.nanoTime()*1e-9) if needed
+        double nowSec = nowSeconds();
         if (nowSec >= meleeWindowEndsAtSec) {
             meleeWindowEndsAtSec = nowSec + MELEE_WINDOW_SEC;
             meleeResolvesInWindow = 0;
@@ -1804,7 +2059,10 @@ public class World {
 
             // skip if engaged in melee
             boolean engaged = false;
-            for (characters.Unit other : units) {
+            gridScratch.clear();
+            unitGrid.collect(ar, ac, 1, gridScratch);
+            for (int i = 0, n = gridScratch.size(); i < n; i++) {
+                characters.Unit other = gridScratch.get(i);
                 if (other == archer) continue;
                 if (other.isDead()) continue; // CHANGED
                 if (!archer.isEnemyOf(other)) continue; // CHANGED: proper enemy check
@@ -1815,7 +2073,10 @@ public class World {
             // pick nearest enemy in LOS, 3–10 tiles
             characters.Unit best = null;
             int bestDist = Integer.MAX_VALUE;
-            for (characters.Unit enemy : units) {
+            gridScratch.clear();
+            unitGrid.collect(ar, ac, 10, gridScratch);
+            for (int i = 0, n = gridScratch.size(); i < n; i++) {
+                characters.Unit enemy = gridScratch.get(i);
                 if (enemy == archer) continue;
                 if (enemy.isDead()) continue;               // CHANGED
                 if (!archer.isEnemyOf(enemy)) continue;     // CHANGED (avoids shooting NEUTRAL deer, etc.)
@@ -1825,7 +2086,8 @@ public class World {
                 if (d < 3 || d > 10) continue;
                 if (!hasLineOfSight(ar, ac, er, ec)) continue;
 
-                if (d < bestDist) { best = enemy; bestDist = d; }
+                // ties -> lower id (grid order isn't list order)
+                if (d < bestDist || (d == bestDist && enemy.getId() < best.getId())) { best = enemy; bestDist = d; }
             }
             if (best == null) continue;
 
@@ -1855,8 +2117,12 @@ public class World {
             if (ui.isDead()) continue; // CHANGED
             int ri = ui.getRowRounded(), ci = ui.getColRounded();
 
-            for (int j = i + 1; j < units.size(); j++) {
-                Unit uj = units.get(j);
+            // only contact range matters: ask the grid, and visit each pair once (lower id first)
+            gridScratch.clear();
+            unitGrid.collect(ri, ci, 1, gridScratch);
+            for (int j = 0; j < gridScratch.size(); j++) {
+                Unit uj = gridScratch.get(j);
+                if (uj.getId() <= ui.getId()) continue;
                 if (uj.isDead()) continue; // CHANGED
 
                 if (ui.getTeam() == uj.getTeam()) continue;          // enemies only (you can switch to isEnemyOf if desired)
@@ -1916,25 +2182,12 @@ public class World {
         @Override public int hashCode() { return 31 * r + c; }
     }
 
-    /** Clear unit layer and re-place units based on their current positions. */
+    /**
+     * The unit layer is written incrementally by the occupancy tracker (cell value = occupant's
+     * unit id, UNIT_NONE when empty), so this is a no-op outside verify mode.
+     */
     public void syncUnitsToLayer() {
-        // clear unit layer
-        for (int r = 0; r < height; r++) {
-            for (int c = 0; c < width; c++) {
-                setCell(r, c, LAYER_UNIT, UNIT_NONE); // row/col/layer
-            }
-        }
-
-        // stamp footprints
-        int id = 1;
-        for (Unit u : units) {
-            int hr = u.getRowRounded(), hc = u.getColRounded();
-            for (int[] cell : footprintCells(hr, hc, u.getFacing(), u.getLength())) {
-                int rr = cell[0], cc = cell[1];
-                if (inBoundsRC(rr, cc)) setCell(rr, cc, LAYER_UNIT, id); // row/col/layer
-            }
-            id++;
-        }
+        if (unitMaskVerify) unitOccupancy.verify(units);
     }
 
     private int clamp(int v, int lo, int hi) {
@@ -1956,24 +2209,23 @@ public class World {
 
     /** True if a unit occupies (row,col), excluding 'ignore' (the moving unit). */
     public boolean isOccupiedByUnit(int row, int col, Unit ignore) {
-        for (Unit u : units) {
-            if (u == ignore) continue;
-            if (Math.round(u.getY()) == row && Math.round(u.getX()) == col) return true;
+        for (int i = 0, n = unitStore.size(); i < n; i++) {
+            if (Math.round(unitStore.y(i)) != row || Math.round(unitStore.x(i)) != col) continue;
+            if (unitStore.unit(i) != ignore) return true;
         }
         return false;
     }
-    private boolean isBuildingAt(int r, int c) { return buildingMask[r][c]; }
+    private boolean isBuildingAt(int r, int c) { return (tileFlags.get(r, c) & TileFlags.BUILDING) != 0; }
     /** A tile is blocked if terrain blocks OR another unit stands there (except 'ignore'). */
     public boolean isBlocked(int r, int c, characters.Unit ignore) {
-        if (!inBoundsRC(r, c) || !isWalkable(r, c)) return true;
+        if (!inBoundsRC(r, c)) return true;
 
-        // O(1) static blockers
-        if (stoneMask[r][c])     return true;
-        if (treeMask[r][c])     return true;
-        if (buildingMask[r][c]) return true;
+        // one load: walls / trees / stones / buildings, and whether any live unit is here at all
+        int f = tileFlags.get(r, c);
+        if ((f & TileFlags.STATIC_BLOCK) != 0) return true;
 
-        // O(1) dynamic blockers (mask)
-        if (isOccupiedFast(r, c, ignore)) return true;
+        // only then ask who it is (so 'ignore' can stand on its own tile)
+        if ((f & TileFlags.UNIT_PRESENT) != 0 && isOccupiedFast(r, c, ignore)) return true;
 
         // Optional fallback: if you're worried about rare desync within the tick,
         // keep (or remove) the precise loop. With rebuildUnitMask() each frame,
@@ -2002,14 +2254,13 @@ public class World {
     }
     /** Call once per frame before the movement pass. */
     public void beginMoveReservations() {
-        moveStamp++;
-        if (moveStamp == Integer.MAX_VALUE) {
-            for (int r = 0; r < resStamp.length; r++) {
-                java.util.Arrays.fill(resStamp[r], 0);
-                java.util.Arrays.fill(resUnitId[r], -1);
-            }
-            moveStamp = 1;
+        // only last frame's reservations need undoing
+        for (int i = 0; i < resTileCount; i++) {
+            int t = resTiles[i];
+            tileFlags.set(t, TileFlags.RESERVED, false);
+            resUnitId.set(t / width, t % width, 0);
         }
+        resTileCount = 0;
     }
 
     /** Reserve the anchor tile of (y,x) for this unit for the current frame. */
@@ -2017,12 +2268,15 @@ public class World {
         int r = (int)Math.floor(y);
         int c = (int)Math.floor(x);
         if (!inBoundsRC(r, c)) return false;
-        if (resStamp[r][c] != moveStamp) {
-            resStamp[r][c] = moveStamp;
-            resUnitId[r][c] = u.getId();
+        int owner = resUnitId.get(r, c);
+        if (owner == 0) {
+            resUnitId.set(r, c, u.getId());
+            if (resTileCount == resTiles.length) resTiles = java.util.Arrays.copyOf(resTiles, resTileCount * 2);
+            resTiles[resTileCount++] = r * width + c;
+            tileFlags.set(r * width + c, TileFlags.RESERVED, true);
             return true;
         }
-        return resUnitId[r][c] == u.getId(); // allow staying in place
+        return owner == u.getId(); // allow staying in place
     }
     // World.java
     public boolean commandMove(Unit u, int destRow, int destCol) {
@@ -2096,8 +2350,8 @@ public class World {
 
     // Static terrain/building only — OK to path “toward” a temporarily occupied cell
     private boolean isStaticallyBlocked(int r, int c) {
-        if (!inBoundsRC(r, c) || !isWalkable(r, c)) return true;
-        return treeMask[r][c] || stoneMask[r][c] || buildingMask[r][c];
+        if (!inBoundsRC(r, c)) return true;
+        return (tileFlags.get(r, c) & TileFlags.STATIC_BLOCK) != 0;
     }
 
     // Avoid diagonal corner-cut if both orthogonal neighbors are blocked
@@ -2144,9 +2398,7 @@ public class World {
     private void stampTreeBlock(int top, int left) {
         for (int rr = top; rr < top + 2; rr++) {
             for (int cc = left; cc < left + 2; cc++) {
-                if (rr >= 0 && rr < height && cc >= 0 && cc < width) {
-                    treeMask[rr][cc] = true;
-                }
+                setTileFlag(rr, cc, TileFlags.TREE, true);
             }
         }
     }
@@ -2207,7 +2459,7 @@ public class World {
                 if (!ok) continue;
 
 // accept this 2×2 block
-                patch.trees().add(new Terrain.TreeBlock(top, left));
+                treeIndex.add(patch.trees(), new Terrain.TreeBlock(top, left));
                 stampTreeBlock(top, left);   // <<< update mask so future checks see it
                 placed++;
             }
@@ -2216,15 +2468,13 @@ public class World {
                 treePatches.add(patch);
             } else {
                 // no trees placed: remove CP we added
-                controlPoints.remove(cp);
+                removeControlPoint(cp);
             }
         }
     }
     // Mark a 1x1 stone tile in the mask
     private void stampStoneTile(int r, int c) {
-        if (r >= 0 && r < height && c >= 0 && c < width) {
-            stoneMask[r][c] = true;
-        }
+        setTileFlag(r, c, TileFlags.STONE, true);
     }
 
     // --- Stone generation ---
@@ -2303,7 +2553,7 @@ public class World {
             }
             java.util.ArrayDeque<int[]> frontier = new java.util.ArrayDeque<>();
             if (seedR != -1) {
-                patch.stones().add(new Terrain.StoneBlock(seedR, seedC));
+                stoneIndex.add(patch.stones(), new Terrain.StoneBlock(seedR, seedC));
                 stampStoneTile(seedR, seedC);
                 placedCore++;
                 frontier.add(new int[]{seedR, seedC});
@@ -2324,7 +2574,7 @@ public class World {
                 for (int[] d : dirs) {
                     int nr = cur[0] + d[0], nc = cur[1] + d[1];
                     if (canPlaceCore.test(nr, nc)) {
-                        patch.stones().add(new Terrain.StoneBlock(nr, nc));
+                        stoneIndex.add(patch.stones(), new Terrain.StoneBlock(nr, nc));
                         stampStoneTile(nr, nc);
                         frontier.addLast(new int[]{nr, nc});
                         placedCore++;
@@ -2348,7 +2598,7 @@ public class World {
                 int r = clamp(centerR + dr, 0, height - 1);
                 int c = clamp(centerC + dc, 0, width - 1);
                 if (canPlaceSingle.test(r, c)) {
-                    patch.stones().add(new Terrain.StoneBlock(r, c));
+                    stoneIndex.add(patch.stones(), new Terrain.StoneBlock(r, c));
                     stampStoneTile(r, c);
                     placedSingles++;
                 }
@@ -2359,7 +2609,7 @@ public class World {
                 stonePatches.add(patch);
             } else {
                 // nothing placed: remove the CP we added
-                controlPoints.remove(cp);
+                removeControlPoint(cp);
             }
         }
     }
@@ -2369,8 +2619,8 @@ public class World {
             if (b.isArrivalsSpawned()) continue;
 
             characters.Team team = b.getTeam();
-            boolean hasFarm = !buildingsOf(team, Building.Type.FARM).isEmpty();
-            boolean hasBarn = !buildingsOf(team, Building.Type.BARN).isEmpty();
+            boolean hasFarm = countBuildings(team, Building.Type.FARM) > 0;
+            boolean hasBarn = countBuildings(team, Building.Type.BARN) > 0;
 
             if (hasFarm && hasBarn) {
                 // center tile of house footprint
@@ -2529,17 +2779,9 @@ public class World {
 
     /** Returns the owning team for a control point, or null if neutral/contested. */
     public Team evaluateOwner(ControlPoint cp) {
-        boolean anyRed = false, anyBlue = false;
-
-        for (Unit u : units) {
-            int ur = (int)Math.round(u.getY());
-            int uc = (int)Math.round(u.getX());
-            if (manhattan(ur, uc, cp.getRow(), cp.getCol()) <= cp.getRadius()) {
-                if (u.getTeam() == Team.RED) anyRed = true;
-                else if (u.getTeam() == Team.BLUE) anyBlue = true;
-            }
-            if (anyRed && anyBlue) return null; // contested
-        }
+        // O(1): counters are maintained as units cross tiles / change team
+        boolean anyRed  = controlOccupancy.count(cp, Team.RED)  > 0;
+        boolean anyBlue = controlOccupancy.count(cp, Team.BLUE) > 0;
 
         if (anyRed && !anyBlue) return Team.RED;
         if (anyBlue && !anyRed) return Team.BLUE;
@@ -9,9 +9,16 @@ import java.awt.event.*;
 
 import static world.World.facingOffset;
 
+/**
+ * Swing view and input for one World. The sim steps on the panel's own scheduler thread; the
+ * panel paints from RenderSnapshots, and every input handler that reads or changes the world
+ * hands that part to the sim thread through SimulationEngine.post(). The EDT keeps only its own
+ * state (build mode, drag rectangle, wall preview, camera).
+ */
 public class WorldPanel extends JPanel {
 
     private final World world;
+    private final transient SimulationEngine engine;   // the tick pipeline; we just feed it wall time
     private final JLabel statusLabel;
     private int cellSize = 28; // pixels per cell
     private int currentLayer = 1; // default: unit layer
@@ -51,7 +58,9 @@ public class WorldPanel extends JPanel {
     private int frames = 0;
     private long lastFpsTime = System.nanoTime();
     private int currentFps = 0;
-    private double emaTickMs = 0, emaPaintMs = 0;
+    private double emaPaintMs = 0;   // EDT only; the sim's step time comes with the snapshot
+    private transient RenderSnapshot shown;    // snapshot being painted (EDT only)
+    private static final Building.Type[] BUILDING_TYPES = Building.Type.values();
     private static final double EMA = 0.1;
     // Camera / viewport
     private void updatePanFromMouse(int mx, int my) {
@@ -95,6 +104,7 @@ public class WorldPanel extends JPanel {
     public WorldPanel(World world, JLabel statusLabel, JButton buildButton,
                       int viewportW, int viewportH) {
         this.world = world;
+        this.engine = new SimulationEngine(world);
         this.statusLabel = statusLabel;
         this.buildButton = buildButton;
         this.viewportW = viewportW;
@@ -195,128 +205,140 @@ public class WorldPanel extends JPanel {
                         dragStartWorld = new java.awt.geom.Point2D.Double(wx, wy);
                         dragEndWorld   = new java.awt.geom.Point2D.Double(wx, wy);
                     }
-                    updateStatus(row, col);
+                    engine.post(() -> updateStatus(row, col));
                     return;
                 }
 
                 if (!SwingUtilities.isRightMouseButton(e)) {
-                    updateStatus(row, col);
+                    engine.post(() -> updateStatus(row, col));
                     return;
                 }
 
+                // ===== WALL PAINT: only the preview until the release commits it =====
+                if (buildMode == BuildMode.WALL_PAINT) {
+                    painting = true;
+                    lastPaintedCell = null;
+                    paintPreview.clear();
+                    paintPreview.add(new Point(col, row));
+                    engine.post(() -> updateStatus(row, col));
+                    return;
+                }
+
+                // Placing is one-shot whatever comes of it; the world side runs on the sim thread.
+                final BuildMode mode = buildMode;
+                if (mode != BuildMode.NONE && mode != BuildMode.PICK) buildMode = BuildMode.NONE;
+                engine.post(() -> rightClick(mode, row, col));
+            }
+
+            // Sim thread (posted by mousePressed): place a building, or else assign / promote /
+            // mount / move the selection.
+            private void rightClick(BuildMode mode, int row, int col) {
                 boolean consumed = false; // did this right-click do something already?
                 characters.Team team;
                 int top = row, left = col;
 
-                // ===== BUILD / PAINT MODES =====
-                switch (buildMode) {
-                    case WALL_PAINT -> {
-                        painting = true;
-                        lastPaintedCell = null;
-                        paintPreview.clear();
-                        paintPreview.add(new Point(col, row));
-                        consumed = true;
-                    }
+                // ===== BUILD MODES =====
+                switch (mode) {
                     case HOUSE_PLACE -> {
                         team = selectedBuilderTeamOrNull();
-                        if (team == null) { statusLabel.setText("No builder selected."); buildMode = BuildMode.NONE; }
+                        if (team == null) status("No builder selected.");
                         else {
                             top = row - 1; left = col - 1;
-                            if (world.addHouse(top, left, team)) { statusLabel.setText("House built."); buildMode = BuildMode.NONE; consumed = true; }
-                            else { statusLabel.setText("Can't place house here."); buildMode = BuildMode.NONE; }
+                            if (world.addHouse(top, left, team)) { status("House built."); consumed = true; }
+                            else status("Can't place house here.");
                         }
                     }
                     case FARM_PLACE -> {
                         team = selectedBuilderTeamOrNull();
-                        if (team == null) { statusLabel.setText("No builder selected."); buildMode = BuildMode.NONE; }
+                        if (team == null) status("No builder selected.");
                         else {
-                            if (world.addFarm(top, left, team)) { statusLabel.setText("Farm built."); buildMode = BuildMode.NONE; consumed = true; }
-                            else { statusLabel.setText("Can't place farm here."); buildMode = BuildMode.NONE; }
+                            if (world.addFarm(top, left, team)) { status("Farm built."); consumed = true; }
+                            else status("Can't place farm here.");
                         }
                     }
                     case BARN_PLACE -> {
                         team = selectedBuilderTeamOrNull();
-                        if (team == null) { statusLabel.setText("No builder selected."); buildMode = BuildMode.NONE; }
+                        if (team == null) status("No builder selected.");
                         else {
-                            if (world.addBarn(top, left, team)) { statusLabel.setText("Barn built."); buildMode = BuildMode.NONE; consumed = true; }
-                            else { statusLabel.setText("Can't place barn here."); buildMode = BuildMode.NONE; }
+                            if (world.addBarn(top, left, team)) { status("Barn built."); consumed = true; }
+                            else status("Can't place barn here.");
                         }
                     }
                     case LOGGING_CAMP_PLACE -> {
                         team = selectedBuilderTeamOrNull();
-                        if (team == null) { statusLabel.setText("No builder selected."); buildMode = BuildMode.NONE; }
+                        if (team == null) status("No builder selected.");
                         else {
-                            if (world.addLoggingCamp(top, left, team)) { statusLabel.setText("Logging Camp built."); buildMode = BuildMode.NONE; consumed = true; }
-                            else { statusLabel.setText("Can't place Logging Camp here (must touch a forest CP and avoid blockers)."); buildMode = BuildMode.NONE; }
+                            if (world.addLoggingCamp(top, left, team)) { status("Logging Camp built."); consumed = true; }
+                            else status("Can't place Logging Camp here (must touch a forest CP and avoid blockers).");
                         }
                     }
                     case MINING_CAMP_PLACE -> {
                         team = selectedBuilderTeamOrNull();
-                        if (team == null) { statusLabel.setText("No builder selected."); buildMode = BuildMode.NONE; }
+                        if (team == null) status("No builder selected.");
                         else {
-                            if (world.addMiningCamp(top, left, team)) { statusLabel.setText("Mining Camp built."); buildMode = BuildMode.NONE; consumed = true; }
-                            else { statusLabel.setText("Can't place Mining Camp here (must touch a forest CP and avoid blockers)."); buildMode = BuildMode.NONE; }
+                            if (world.addMiningCamp(top, left, team)) { status("Mining Camp built."); consumed = true; }
+                            else status("Can't place Mining Camp here (must touch a forest CP and avoid blockers).");
                         }
                     }
                     case HUNTING_CAMP_PLACE -> {
                         team = selectedBuilderTeamOrNull();
-                        if (team == null) { statusLabel.setText("No builder selected."); buildMode = BuildMode.NONE; }
+                        if (team == null) status("No builder selected.");
                         else {
                             if (world.addHuntingCamp(top, left, team)) {
-                                statusLabel.setText("Hunting Camp built.");
-                                buildMode = BuildMode.NONE;
+                                status("Hunting Camp built.");
+                               
                                 consumed = true;
                             } else {
-                                statusLabel.setText("Can't place Hunting Camp here.");
-                                buildMode = BuildMode.NONE;
+                                status("Can't place Hunting Camp here.");
+                               
                             }
                         }
                     }
                     case BARRACKS_PLACE -> {
                         team = selectedBuilderTeamOrNull();
                         if (team == null) {
-                            statusLabel.setText("No builder selected.");
-                            buildMode = BuildMode.NONE;
+                            status("No builder selected.");
+                           
                         } else {
                             if (world.addBarracks(top, left, team)) {
-                                statusLabel.setText("Barracks built.");
-                                buildMode = BuildMode.NONE;
+                                status("Barracks built.");
+                               
                                 consumed = true;
                             } else {
-                                statusLabel.setText("Can't place Barracks here.");
-                                buildMode = BuildMode.NONE;
+                                status("Can't place Barracks here.");
+                               
                             }
                         }
                     }
                     case ARCHERY_RANGE_PLACE -> {
                         team = selectedBuilderTeamOrNull();
                         if (team == null) {
-                            statusLabel.setText("No builder selected.");
-                            buildMode = BuildMode.NONE;
+                            status("No builder selected.");
+                           
                         } else {
                             if (world.addArcheryRange(top, left, team)) {
-                                statusLabel.setText("Archery Range built.");
-                                buildMode = BuildMode.NONE;
+                                status("Archery Range built.");
+                               
                                 consumed = true;
                             } else {
-                                statusLabel.setText("Can't place Archery Range here.");
-                                buildMode = BuildMode.NONE;
+                                status("Can't place Archery Range here.");
+                               
                             }
                         }
                     }
                     case STABLE_PLACE -> {
                         team = selectedBuilderTeamOrNull();
                         if (team == null) {
-                            statusLabel.setText("No builder selected.");
-                            buildMode = BuildMode.NONE;
+                            status("No builder selected.");
+                           
                         } else {
                             if (world.addStable(top, left, team)) {
-                                statusLabel.setText("Stable built.");
-                                buildMode = BuildMode.NONE;
+                                status("Stable built.");
+                               
                                 consumed = true;
                             } else {
-                                statusLabel.setText("Can't place Stable here.");
-                                buildMode = BuildMode.NONE;
+                                status("Can't place Stable here.");
+                               
                             }
                         }
                     }
@@ -334,7 +356,7 @@ public class WorldPanel extends JPanel {
                             && b.getType() == Building.Type.LOGGING_CAMP
                             && selected.getTeam() == b.getTeam()) {
                         if (world.assignLumberWorker(selected, b)) {
-                            statusLabel.setText("Assigned " + selected.getActor().getName() + " as lumber worker.");
+                            status("Assigned " + selected.getActor().getName() + " as lumber worker.");
                             updateStatus(row, col);
                             return;
                         }
@@ -344,7 +366,7 @@ public class WorldPanel extends JPanel {
                             && b.getType() == Building.Type.HUNTING_CAMP
                             && selected.getTeam() == b.getTeam()) {
                         if (world.assignHunter(selected, b)) {
-                            statusLabel.setText("Assigned " + selected.getActor().getName() + " as hunter.");
+                            status("Assigned " + selected.getActor().getName() + " as hunter.");
                             updateStatus(row, col);
                             return; // consume click
                         }
@@ -353,7 +375,7 @@ public class WorldPanel extends JPanel {
                             && b.getType() == Building.Type.MINING_CAMP
                             && selected.getTeam() == b.getTeam()) {
                         if (world.assignMinerWorker(selected, b)) {
-                            statusLabel.setText("Assigned " + selected.getActor().getName() + " as Miner.");
+                            status("Assigned " + selected.getActor().getName() + " as Miner.");
                             updateStatus(row, col);
                             return; // consume click
                         }
@@ -367,9 +389,9 @@ public class WorldPanel extends JPanel {
                         // if (!(selected.getActor() instanceof characters.Human)) { /* show error or ignore */ }
 
                         if (world.promoteToManAtArms(selected, b)) {
-                            statusLabel.setText("Promoted " + selected.getActor().getName() + " to Man-at-Arms.");
+                            status("Promoted " + selected.getActor().getName() + " to Man-at-Arms.");
                         } else {
-                            statusLabel.setText("Promotion failed.");
+                            status("Promotion failed.");
                         }
                         updateStatus(row, col);
                         return; // consume click
@@ -383,9 +405,9 @@ public class WorldPanel extends JPanel {
                         // if (!(selected.getActor() instanceof characters.Human)) { /* show error or ignore */ }
 
                         if (world.promoteToBowMan(selected, b)) {
-                            statusLabel.setText("Promoted " + selected.getActor().getName() + " to Bow-Man.");
+                            status("Promoted " + selected.getActor().getName() + " to Bow-Man.");
                         } else {
-                            statusLabel.setText("Promotion failed.");
+                            status("Promotion failed.");
                         }
                         updateStatus(row, col);
                         return; // consume click
@@ -398,9 +420,9 @@ public class WorldPanel extends JPanel {
                         // if (!(selected.getActor() instanceof characters.Human)) { /* show error or ignore */ }
 
                         if (world.promoteToHorseMan(selected, b)) {
-                            statusLabel.setText("Promoted " + selected.getActor().getName() + " to Horse-Man.");
+                            status("Promoted " + selected.getActor().getName() + " to Horse-Man.");
                         } else {
-                            statusLabel.setText("Promotion failed.");
+                            status("Promotion failed.");
                         }
                         updateStatus(row, col);
                         return; // consume click
@@ -411,7 +433,7 @@ public class WorldPanel extends JPanel {
                             && clicked.getTeam() == selected.getTeam()
                             && clicked.getActor() instanceof characters.Horse) {
                         if (world.mount(selected, clicked)) {
-                            statusLabel.setText("Mounted: " + selected.getActor().getName());
+                            status("Mounted: " + selected.getActor().getName());
                             updateStatus(row, col);
                             return;
                         }
@@ -426,7 +448,7 @@ public class WorldPanel extends JPanel {
 
                 updateStatus(row, col);
             }
-            // In your panel class (the one with mousePressed)
+            // Sim thread: team of the first selected unit, or null.
             private characters.Team selectedBuilderTeamOrNull() {
                 characters.Team team = null;
                 for (characters.Unit u : world.getUnits()) {
@@ -453,15 +475,18 @@ public class WorldPanel extends JPanel {
                     return;
                 }
 
-                // --- RIGHT: commit walls if painting ---
+                // --- RIGHT: commit walls if painting (the sim thread lays them) ---
                 if (SwingUtilities.isRightMouseButton(e) && painting && buildMode == BuildMode.WALL_PAINT) {
-                    java.util.HashSet<Long> seen = new java.util.HashSet<>();
-                    for (Point p : paintPreview) {
-                        int r = Math.max(0, Math.min(world.getHeight()-1, p.y));
-                        int c = Math.max(0, Math.min(world.getWidth()-1,  p.x));
-                        long key = (((long) r) << 32) ^ (c & 0xffffffffL);
-                        if (seen.add(key)) world.setWall(r, c, true);
-                    }
+                    final java.util.List<Point> cells = new java.util.ArrayList<>(paintPreview);
+                    engine.post(() -> {
+                        java.util.HashSet<Long> seen = new java.util.HashSet<>();
+                        for (Point p : cells) {
+                            int r = Math.max(0, Math.min(world.getHeight()-1, p.y));
+                            int c = Math.max(0, Math.min(world.getWidth()-1,  p.x));
+                            long key = (((long) r) << 32) ^ (c & 0xffffffffL);
+                            if (seen.add(key)) world.setWall(r, c, true);
+                        }
+                    });
                     painting = false;
                     lastPaintedCell = null;
                     paintPreview.clear();
@@ -479,8 +504,8 @@ public class WorldPanel extends JPanel {
 
                 int col = screenToWorldCol(mx);
                 int row = screenToWorldRow(my);
-                if (inBounds(row, col)) updateStatus(row, col);
-                else statusLabel.setText("—");
+                if (inBounds(row, col)) hoverStatus(row, col);
+                else { hoverTile = -1; statusLabel.setText("—"); }
             }
 
             @Override public void mouseDragged(MouseEvent e) {
@@ -518,113 +543,86 @@ public class WorldPanel extends JPanel {
         lastNanos = System.nanoTime();
         exec.scheduleAtFixedRate(() -> {
             long now = System.nanoTime();
-            double dt = Math.min(0.05, (now - lastNanos) / 1_000_000_000.0);
+            long elapsed = now - lastNanos;
+            double dt = Math.min(0.05, elapsed / 1_000_000_000.0); // camera only; the sim uses fixed steps
             lastNanos = now;
-            // ===== FRAME START =====
-            // Snapshot current occupancy so AI & movement see a consistent world this tick.
-            world.rebuildUnitMask();
 
+            // Run however many fixed sim steps are due; a slow frame catches up with several.
+            int steps = engine.advance(elapsed);
 
-            world.updateAllSightings();
+            // Player-only render FOV (old computeVisibility; uses playerVisionTeam & writes 'visible')
+            if (steps > 0) world.computeVisibility();
 
-            // (B) AI decisions (no movement)
-            for (Unit u : world.getUnits()) u.tickAI(world, dt);
-            world.beginMoveReservations();
-
-            // (C) Movement
-            for (Unit u : world.getUnits()) u.update(world, dt);
-
-            // (D) Cleanup deaths
-            world.cleanupDead();
-
-            // (E) Publish occupancy for NEXT frame & any post-sim systems
-            world.rebuildUnitMask();
-
-            // (Optional) If you want the board to reflect post-move positions immediately for the next frame:
-            // world.updateAllSightings();
-
-            // (F) Player-only render FOV (old computeVisibility; uses playerVisionTeam & writes 'visible')
-            world.computeVisibility();
-
-// 7) The rest (order here isn’t critical for FOV)
-            world.syncUnitsToLayer();
-            world.updateArrows(dt);
-            world.trySpawnArrivalsForHouses();
-            world.updateLumberJobs(dt);
-            world.updateMinerJobs(dt);
-            world.payIncome(dt);
             // Camera integration
             camVX = approach(camVX, targetVX, panAccel * dt);
             camVY = approach(camVY, targetVY, panAccel * dt);
             camX = clamp(camX + camVX * dt, 0, Math.max(0, world.getWidth() * cellSize - viewportW));
             camY = clamp(camY + camVY * dt, 0, Math.max(0, world.getHeight() * cellSize - viewportH));
 
+            // Hand the painter a copy of this frame (tiles under the camera + everything drawable)
+            int firstCol = Math.max(0, (int)Math.floor(camX / cellSize));
+            int firstRow = Math.max(0, (int)Math.floor(camY / cellSize));
+            int lastCol  = Math.min(world.getWidth()  - 1, (int)Math.ceil((camX + viewportW) / cellSize));
+            int lastRow  = Math.min(world.getHeight() - 1, (int)Math.ceil((camY + viewportH) / cellSize));
+            engine.publishSnapshot(firstRow, firstCol, lastRow, lastCol, camX, camY);
+
             // request a repaint safely on the EDT
             SwingUtilities.invokeLater(this::repaint);
         }, 0, 16, java.util.concurrent.TimeUnit.MILLISECONDS);
     }
 
     // inside WorldPanel.java
-    private Color teamFill(characters.Unit u) {
-        switch (u.getTeam()) {
+    private Color teamFill(characters.Team team) {
+        if (team == null) return new Color(80, 80, 80);
+        switch (team) {
             case RED:  return new Color(220, 70, 70);    // warm red
             case BLUE: return new Color(70, 120, 220);
             case WOLF: return new Color(90,90,90,220);// cool blue
             default:   return new Color(80, 80, 80);     // neutral/gray
         }
     }
+    // Sim thread: looks at the selection, then hands the button state to the EDT.
     private void updateBuildButtonEnabled() {
-        boolean enable = false;
+        boolean any = false;
         for (characters.Unit u : world.getUnits()) {
             if (u.isSelected() && u.getActor().canBuildWalls()) {
-                enable = true;
+                any = true;
                 break;
             }
         }
-        buildButton.setEnabled(enable);
-
-        // If no builder is selected, cancel build mode
-        if (!enable && buildMode == BuildMode.WALL_PAINT) {
-            buildMode = BuildMode.NONE;
-            paintPreview.clear();
-        }
+        final boolean enable = any;
+        SwingUtilities.invokeLater(() -> {
+            buildButton.setEnabled(enable);
+
+            // If no builder is selected, cancel build mode
+            if (!enable && buildMode == BuildMode.WALL_PAINT) {
+                buildMode = BuildMode.NONE;
+                paintPreview.clear();
+            }
+        });
         System.out.println("Selected builder? " + enable);
     }
 
-    // --- helper: an arrow is visible if any sampled point along its shaft is in a visible tile
-    private boolean isArrowCurrentlyVisible(world.World world, world.Arrow a) {
-        // sample from tail (hx,hy) to head (px,py)
-        double sx = a.getX(); // world coords (cells) at arrow center
-        double sy = a.getY();
-
-        // direction unit vector (you already compute dx,dy,len below)
-        double dx = (a.tx - a.sx);
-        double dy = (a.ty - a.sy);
-        double len = Math.hypot(dx, dy);
-        if (len < 1e-6) {
-            int r = (int)Math.floor(sy), c = (int)Math.floor(sx);
-            return world.isVisible(r, c);
-        }
-        double ux = dx / len, uy = dy / len;
-
-        // pick a modest physical length in cells for how much of the “shaft” we render
-        double body = Math.max(0.5, 0.5); // ~half a tile
-
-        // head = (sx,sy), tail = head - body * u
-        double hx = sx - ux * body;
-        double hy = sy - uy * body;
-
-        // sample a few points between tail and head
-        final int SAMPLES = 4;
-        for (int i = 0; i <= SAMPLES; i++) {
-            double t = (double)i / SAMPLES;
-            double x = hx * (1 - t) + sx * t;
-            double y = hy * (1 - t) + sy * t;
-            int r = (int)Math.floor(y), c = (int)Math.floor(x);
-            if (world.isVisible(r, c)) return true;
-        }
-        return false;
+    /** Any thread: show text in the status bar (set on the EDT). */
+    private void status(String text) {
+        SwingUtilities.invokeLater(() -> statusLabel.setText(text));
+    }
+
+    // Hover info needs the world, so it is worked out on the sim thread; only the newest hovered
+    // tile counts, and at most one lookup is queued however fast the mouse moves.
+    private volatile int hoverTile = -1;
+    private final java.util.concurrent.atomic.AtomicBoolean hoverQueued = new java.util.concurrent.atomic.AtomicBoolean();
+
+    private void hoverStatus(int row, int col) {
+        hoverTile = row * world.getWidth() + col;
+        if (!hoverQueued.compareAndSet(false, true)) return;
+        engine.post(() -> {
+            hoverQueued.set(false);
+            int t = hoverTile;
+            if (t >= 0) updateStatus(t / world.getWidth(), t % world.getWidth());
+        });
     }
+
     private static double approach(double cur, double tgt, double maxDelta) {
         double d = tgt - cur;
         return (Math.abs(d) <= maxDelta) ? tgt : cur + Math.copySign(maxDelta, d);
@@ -637,7 +635,7 @@ public class WorldPanel extends JPanel {
         return r >= 0 && r < world.getHeight() && c >= 0 && c < world.getWidth();
     }
 
-    // (kept for single-click selection behavior if you want it)
+    // (kept for single-click selection behavior if you want it; sim thread)
     private void selectUnitAt(int row, int col) {
         boolean any = false;
         for (Unit u : world.getUnits()) {
@@ -654,7 +652,7 @@ public class WorldPanel extends JPanel {
 
     }
 
-    // (kept for single-target move; not used by fan-out, but harmless to keep)
+    // (kept for single-target move; not used by fan-out, but harmless to keep; sim thread)
     private void moveSelectedTo(int row, int col) {
         for (Unit u : world.getUnits()) {
             if (!u.isSelected()) continue;
@@ -669,11 +667,12 @@ public class WorldPanel extends JPanel {
                 }
                 u.setPath(path);
             } else {
-                statusLabel.setText(String.format("No path from (%d,%d) to (%d,%d)", sr, sc, row, col));
+                status(String.format("No path from (%d,%d) to (%d,%d)", sr, sc, row, col));
             }
         }
     }
 
+    // Sim thread: tile / unit / building info for the status bar.
     private void updateStatus(int r, int c) {
         int ground = world.getCell(r, c, World.LAYER_GROUND);
         int unitVal = world.getCell(r, c, World.LAYER_UNIT);
@@ -696,17 +695,14 @@ public class WorldPanel extends JPanel {
                 info.append(" | Building: ").append(bb.getType()).append(" (").append(bb.getTeam()).append(")");
             }
         }
-        var rm = world.getResources();
-        String totals = String.format(" | RED=%d  BLUE=%d", rm.getWhole(characters.Team.RED), rm.getWhole(characters.Team.BLUE));
-        statusLabel.setText(statusLabel.getText() + totals);
-        statusLabel.setText(info.toString());
+        status(info.toString());
         world.Building b = world.buildingAt(r, c);
         if (b != null) {
             info.append(" | Building: HOUSE (" + b.getTeam() + ")");
         }
     }
     // helper: fraction of 4 sub-samples that are currently visible
-    private double subtileCoverage(world.World w, int r, int c) {
+    private double subtileCoverage(RenderSnapshot s, int r, int c) {
         // sample the centers of the 4 subcells: (±0.25, ±0.25) around tile center
         int visCount = 0;
         // map sub-samples to neighbor tiles
@@ -714,7 +710,7 @@ public class WorldPanel extends JPanel {
         for (int i=0;i<4;i++) {
             int rr = r + offs[i][0];
             int cc = c + offs[i][1];
-            if (w.inBoundsRC(rr, cc) && w.isVisible(rr, cc)) visCount++;
+            if ((s.tileAt(rr, cc) & RenderSnapshot.T_VISIBLE) != 0) visCount++;
         }
         return visCount / 4.0;
     }
@@ -722,6 +718,14 @@ public class WorldPanel extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
+        // Paint only from the newest published snapshot; World belongs to the sim thread.
+        RenderSnapshot next = engine.takeSnapshot();
+        if (next != null) {
+            engine.releaseSnapshot(shown);
+            shown = next;
+        }
+        final RenderSnapshot s = shown;
+        if (s == null) return; // sim hasn't published yet
         long p0 = System.nanoTime();
         Graphics2D g2 = (Graphics2D) g.create();
 
@@ -733,21 +737,19 @@ public class WorldPanel extends JPanel {
         FontMetrics fm = g2.getFontMetrics();
 
         // --- CAMERA: shift world by camera offset ---
-        g2.translate(-camX, -camY);
+        g2.translate(-s.viewX, -s.viewY);
 
-        // --- Visible tile window (world coords) ---
-        int firstCol = Math.max(0, (int)Math.floor(camX / cellSize));
-        int firstRow = Math.max(0, (int)Math.floor(camY / cellSize));
-        int lastCol  = Math.min(world.getWidth()  - 1, (int)Math.ceil((camX + viewportW) / cellSize));
-        int lastRow  = Math.min(world.getHeight() - 1, (int)Math.ceil((camY + viewportH) / cellSize));
+        // --- Visible tile window (world coords): whatever the snapshot captured ---
+        int firstCol = s.c0, lastCol = s.c0 + s.cols - 1;
+        int firstRow = s.r0, lastRow = s.r0 + s.rows - 1;
 
         // --- Ground + grid: draw ONLY visible tiles ---
         for (int r = firstRow; r <= lastRow; r++) {
             for (int c = firstCol; c <= lastCol; c++) {
                 int x = c * cellSize, y = r * cellSize;
 
-                boolean vis = world.isVisible(r, c);
-                boolean exp = world.isExplored(r, c);
+                byte bits = s.tileAt(r, c);
+                boolean exp = (bits & RenderSnapshot.T_EXPLORED) != 0;
 
                 // 1) Never-seen: draw solid black and skip everything else
                 if (!exp) {
@@ -756,8 +758,7 @@ public class WorldPanel extends JPanel {
                     continue;
                 }
 
-                int ground = world.getCell(r, c, World.LAYER_GROUND);
-                g2.setColor(ground == 0 ? new Color(230,245,230) : new Color(200,200,200));
+                g2.setColor((bits & RenderSnapshot.T_GROUND) == 0 ? new Color(230,245,230) : new Color(200,200,200));
                 g2.fillRect(x, y, cellSize, cellSize);
 
                 g2.setColor(new Color(180,180,180));
@@ -767,12 +768,12 @@ public class WorldPanel extends JPanel {
 
 
         // --- Control Points overlay (moved OUTSIDE the grid loops) ---
-        for (world.ControlPoint cp : world.getControlPoints()) {
-            int x = cp.getCol() * cellSize;
-            int y = cp.getRow() * cellSize;
+        for (int i = 0; i < s.cpCount; i++) {
+            int x = s.cpCol[i] * cellSize;
+            int y = s.cpRow[i] * cellSize;
 
             // owner color ring
-            characters.Team owner = world.evaluateOwner(cp);
+            characters.Team owner = RenderSnapshot.team(s.cpOwner[i]);
             Color ring = (owner == characters.Team.RED) ? new Color(220,60,60)
                     : (owner == characters.Team.BLUE) ? new Color(60,120,220)
                     : new Color(160,160,160);
@@ -782,7 +783,7 @@ public class WorldPanel extends JPanel {
             g2.drawOval(x + 2, y + 2, cellSize - 4, cellSize - 4);
 
             // id badge
-            String idStr = String.valueOf(cp.getId());
+            String idStr = String.valueOf(s.cpId[i]);
             int tx = x + (cellSize - fm.stringWidth(idStr)) / 2;
             int ty = y + (cellSize + fm.getAscent()) / 2 - 2;
             g2.setColor(Color.BLACK);
@@ -790,37 +791,38 @@ public class WorldPanel extends JPanel {
 
             // optional radius ring
             g2.setColor(new Color(ring.getRed(), ring.getGreen(), ring.getBlue(), 60));
-            int diam = (cp.getRadius() * 2 + 1) * cellSize;
+            int diam = (s.cpRadius[i] * 2 + 1) * cellSize;
             int cx = x + cellSize/2 - diam/2;
             int cy = y + cellSize/2 - diam/2;
             g2.drawOval(cx, cy, diam, diam);
         }
 
         // --- Smooth unit rendering using continuous position ---
-        for (characters.Unit u : world.getUnits()) {
-            // hide units in fog
-            if (!isUnitCurrentlyVisible(world, u)) continue;
-            if (u.getLength() == 1) {
+        // (the snapshot only holds units the player can see)
+        for (int i = 0; i < s.unitCount; i++) {
+            double uxCells = s.unitX[i], uyCells = s.unitY[i];
+            boolean selected = (s.unitFlags[i] & RenderSnapshot.U_SELECTED) != 0;
+            if (s.unitLen[i] == 1) {
                 // center in pixels for a 1x1
-                double cxp = (u.getX() + 0.5) * cellSize;
-                double cyp = (u.getY() + 0.5) * cellSize;
-                double px = u.getX() * cellSize;
-                double py = u.getY() * cellSize;
+                double cxp = (uxCells + 0.5) * cellSize;
+                double cyp = (uyCells + 0.5) * cellSize;
+                double px = uxCells * cellSize;
+                double py = uyCells * cellSize;
 
                 int size = Math.max(10, cellSize - 6);
                 int cx = (int) Math.round(px + (cellSize - size) / 2.0);
                 int cy = (int) Math.round(py + (cellSize - size) / 2.0);
 
                 // fill by team, dim slightly if not selected
-                Color fill = teamFill(u);
-                if (!u.isSelected()) {
+                Color fill = teamFill(RenderSnapshot.team(s.unitTeam[i]));
+                if (!selected) {
                     fill = new Color(fill.getRed(), fill.getGreen(), fill.getBlue(), 220); // slight transparency if you like
                 }
                 g2.setColor(fill);
                 g2.fillOval(cx, cy, size, size);
 
                 // crisp outline: brighter when selected
-                if (u.isSelected()) {
+                if (selected) {
                     g2.setStroke(new BasicStroke(2.2f));
                     g2.setColor(new Color(255, 255, 255));
                     g2.drawOval(cx, cy, size, size);
@@ -833,7 +835,7 @@ public class WorldPanel extends JPanel {
                     g2.drawOval(cx, cy, size, size);
                 }
                 // carried log marker for 1x1 lumber workers (small brown chip)
-                if (u.getRole() == Unit.UnitRole.LUMBER && u.isCarryingLog()) {
+                if ((s.unitFlags[i] & RenderSnapshot.U_LOG) != 0) {
                     int lw = Math.max(4, cellSize / 5);
                     int lh = Math.max(3, cellSize / 8);
                     int lx = (int)Math.round(cxp) + cellSize/6 - lw/2;
@@ -844,7 +846,7 @@ public class WorldPanel extends JPanel {
                     g2.drawRoundRect(lx, ly, lw, lh, lh, lh);
                 }
                 // carried stone marker for 1x1 miners (small gray pebble)
-                if (u.getRole() == Unit.UnitRole.MINER && u.isCarryingStone()) {
+                if ((s.unitFlags[i] & RenderSnapshot.U_STONE) != 0) {
                     int sw = Math.max(4, cellSize / 5);
                     int sh = Math.max(4, cellSize / 5);
                     // place opposite the log chip (bottom-left of the unit)
@@ -859,12 +861,12 @@ public class WorldPanel extends JPanel {
 
             } else {
                 // centers (continuous) in pixels
-                double hx = (u.getX() + 0.5) * cellSize;
-                double hy = (u.getY() + 0.5) * cellSize;
+                double hx = (uxCells + 0.5) * cellSize;
+                double hy = (uyCells + 0.5) * cellSize;
 
 // unit vector along body from tail -> head using continuous orientation
-                double ux = Math.cos(u.getOrientRad());
-                double uy = Math.sin(u.getOrientRad());
+                double ux = Math.cos(s.unitOrient[i]);
+                double uy = Math.sin(s.unitOrient[i]);
 
 // the distance between tail & head centers is exactly one tile
                 double span = cellSize;
@@ -890,13 +892,13 @@ public class WorldPanel extends JPanel {
                 int y4 = (int)Math.round(hy + pyn * halfW);
 
 // fill + caps + outline (as you already do)
-                g2.setColor(teamFill(u));
+                g2.setColor(teamFill(RenderSnapshot.team(s.unitTeam[i])));
                 g2.fillPolygon(new int[]{x1,x2,x3,x4}, new int[]{y1,y2,y3,y4}, 4);
                 int cap = thick;
                 g2.fillOval((int)Math.round(tx - halfW), (int)Math.round(ty - halfW), cap, cap);
                 g2.fillOval((int)Math.round(hx - halfW), (int)Math.round(hy - halfW), cap, cap);
 
-                if (u.isSelected()) {
+                if (selected) {
                     g2.setStroke(new BasicStroke(2f));
                     g2.setColor(Color.WHITE);
                     g2.drawPolygon(new int[]{x1,x2,x3,x4}, new int[]{y1,y2,y3,y4}, 4);
@@ -908,19 +910,14 @@ public class WorldPanel extends JPanel {
         }
 
         // --- Draw arrows ---
-        for (world.Arrow a : world.getArrows()) {
-            if (!isArrowCurrentlyVisible(world, a)) continue;
+        for (int i = 0; i < s.arrowCount; i++) {
             // position in pixels
-            double xCells = a.getX(); // col
-            double yCells = a.getY(); // row
+            double xCells = s.arrowX[i]; // col
+            double yCells = s.arrowY[i]; // row
             double px = xCells * cellSize + cellSize / 2.0;
             double py = yCells * cellSize + cellSize / 2.0;
             // direction (from start to target) for orientation
-            double dx = (a.tx - a.sx);
-            double dy = (a.ty - a.sy);
-            double len = Math.hypot(dx, dy);
-            if (len < 1e-6) continue;
-            double ux = dx / len, uy = dy / len;  // unit vector
+            double ux = s.arrowUx[i], uy = s.arrowUy[i];  // unit vector
 
             // arrow body length in pixels
             double body = Math.max(8, cellSize * 0.5);   // tweak
@@ -944,79 +941,77 @@ public class WorldPanel extends JPanel {
             g2.drawLine((int)Math.round(px), (int)Math.round(py), x2, y2);
         }
         // --- Woods ---
-        for (world.Terrain.TreePatch patch : world.getTreePatches()) {
-            for (world.Terrain.TreeBlock b : patch.trees()) {
-                int x = b.c * cellSize;
-                int y = b.r * cellSize;
-                int w = 2 * cellSize, h = 2 * cellSize;
-
-                // simple stylized canopy
-                g2.setColor(new Color(44, 102, 56, 215)); // dark green
-                g2.fillRoundRect(x + 1, y + 1, w - 2, h - 2, cellSize, cellSize);
-
-                // trunk hints
-                g2.setColor(new Color(80, 55, 30, 200));
-                int trunkW = Math.max(3, cellSize / 5);
-                int trunkH = Math.max(6, cellSize / 2);
-                g2.fillRect(x + w / 2 - trunkW / 2, y + h / 2, trunkW, trunkH);
-
-                // subtle outline
-                g2.setColor(new Color(20, 20, 20, 150));
-                g2.drawRoundRect(x + 1, y + 1, w - 2, h - 2, cellSize, cellSize);
-            }
+        for (int i = 0; i < s.treeCount; i++) {
+            int x = s.treeC[i] * cellSize;
+            int y = s.treeR[i] * cellSize;
+            int w = 2 * cellSize, h = 2 * cellSize;
+
+            // simple stylized canopy
+            g2.setColor(new Color(44, 102, 56, 215)); // dark green
+            g2.fillRoundRect(x + 1, y + 1, w - 2, h - 2, cellSize, cellSize);
+
+            // trunk hints
+            g2.setColor(new Color(80, 55, 30, 200));
+            int trunkW = Math.max(3, cellSize / 5);
+            int trunkH = Math.max(6, cellSize / 2);
+            g2.fillRect(x + w / 2 - trunkW / 2, y + h / 2, trunkW, trunkH);
+
+            // subtle outline
+            g2.setColor(new Color(20, 20, 20, 150));
+            g2.drawRoundRect(x + 1, y + 1, w - 2, h - 2, cellSize, cellSize);
         }
         // --- Stone ---
-        for (world.Terrain.StonePatch patch : world.getStonePatches()) {
-            // If your type is StoneTile instead of StoneBlock, just change the loop type below.
-            for (world.Terrain.StoneBlock b : patch.stones()) {
-                int x = b.c * cellSize;
-                int y = b.r * cellSize;
-                int w = cellSize, h = cellSize;
-
-                // Slight deterministic variation so clusters don't look identical
-                // (no RNG: varies by cell coords)
-                int var = Math.floorMod(b.r * 31 + b.c * 17, 5);  // 0..4
-                int inset = 2 + (var >= 3 ? 3 : 2);               // 4px or 5px total inset
-                int rx = x + inset, ry = y + inset;
-                int rw = Math.max(2, w - inset * 2);
-                int rh = Math.max(2, h - inset * 2);
-
-                // body
-                g2.setColor(new Color(132, 138, 148, 230));       // slate fill
-                g2.fillOval(rx, ry, rw, rh);
-
-                // subtle edge shadow
-                g2.setColor(new Color(60, 65, 74, 160));
-                g2.drawOval(rx, ry, rw, rh);
-
-                // small highlight (offset varies a bit so clumps feel organic)
-                int hx = rx + Math.max(1, rw / 5) - (var % 2);
-                int hy = ry + Math.max(1, rh / 5) - ((var / 2) % 2);
-                int hw = Math.max(2, rw / 3);
-                int hh = Math.max(2, rh / 3);
-                g2.setColor(new Color(215, 220, 228, 110));
-                g2.fillOval(hx, hy, hw, hh);
-
-                // outline (very subtle)
-                g2.setColor(new Color(25, 25, 30, 140));
-                g2.drawOval(rx, ry, rw, rh);
-            }
+        for (int i = 0; i < s.stoneCount; i++) {
+            int sr = s.stoneR[i], sc = s.stoneC[i];
+            int x = sc * cellSize;
+            int y = sr * cellSize;
+            int w = cellSize, h = cellSize;
+
+            // Slight deterministic variation so clusters don't look identical
+            // (no RNG: varies by cell coords)
+            int var = Math.floorMod(sr * 31 + sc * 17, 5);  // 0..4
+            int inset = 2 + (var >= 3 ? 3 : 2);               // 4px or 5px total inset
+            int rx = x + inset, ry = y + inset;
+            int rw = Math.max(2, w - inset * 2);
+            int rh = Math.max(2, h - inset * 2);
+
+            // body
+            g2.setColor(new Color(132, 138, 148, 230));       // slate fill
+            g2.fillOval(rx, ry, rw, rh);
+
+            // subtle edge shadow
+            g2.setColor(new Color(60, 65, 74, 160));
+            g2.drawOval(rx, ry, rw, rh);
+
+            // small highlight (offset varies a bit so clumps feel organic)
+            int hx = rx + Math.max(1, rw / 5) - (var % 2);
+            int hy = ry + Math.max(1, rh / 5) - ((var / 2) % 2);
+            int hw = Math.max(2, rw / 3);
+            int hh = Math.max(2, rh / 3);
+            g2.setColor(new Color(215, 220, 228, 110));
+            g2.fillOval(hx, hy, hw, hh);
+
+            // outline (very subtle)
+            g2.setColor(new Color(25, 25, 30, 140));
+            g2.drawOval(rx, ry, rw, rh);
         }
         // --- Buildings ---
-        for (world.Building b : world.getBuildings()) {
-            int x = b.getCol() * cellSize;
-            int y = b.getRow() * cellSize;
-            int w = b.getType().w * cellSize;
-            int h = b.getType().h * cellSize;
+        for (int i = 0; i < s.buildingCount; i++) {
+            Building.Type type = BUILDING_TYPES[s.bType[i]];
+            characters.Team bTeam = RenderSnapshot.team(s.bTeam[i]);
+            int x = s.bCol[i] * cellSize;
+            int y = s.bRow[i] * cellSize;
+            int w = type.w * cellSize;
+            int h = type.h * cellSize;
 
             // Fill color by team and type
             java.awt.Color base =
-                    (b.getTeam() == characters.Team.RED)  ? new java.awt.Color(200,70,70,200) :
-                            (b.getTeam() == characters.Team.BLUE) ? new java.awt.Color(70,110,200,200) :
+                    (bTeam == characters.Team.RED)  ? new java.awt.Color(200,70,70,200) :
+                            (bTeam == characters.Team.BLUE) ? new java.awt.Color(70,110,200,200) :
                                     new java.awt.Color(120,120,120,200);
 
             // Slight hue per type
-            java.awt.Color fill = switch (b.getType()) {
+            java.awt.Color fill = switch (type) {
                 case HOUSE -> base;
                 case FARM  -> new Color(base.getRed(), Math.min(255, base.getGreen()+40), base.getBlue(), 180);
                 case BARN  -> new Color(Math.min(255, base.getRed()+40), base.getGreen(), base.getBlue(), 200);
@@ -1058,7 +1053,7 @@ public class WorldPanel extends JPanel {
 
             // tiny icon/text
             g2.setColor(java.awt.Color.BLACK);
-            String label = switch (b.getType()) {
+            String label = switch (type) {
                 case HOUSE         -> "H";
                 case FARM          -> "F";
                 case BARN          -> "B";
@@ -1080,18 +1075,18 @@ public class WorldPanel extends JPanel {
         for (int r = firstRow; r <= lastRow; r++) {
             for (int c = firstCol; c <= lastCol; c++) {
                 int x = c * cellSize, y = r * cellSize;
-                boolean vis = world.isVisible(r,c), exp = world.isExplored(r,c);
+                byte bits = s.tileAt(r, c);
+                boolean vis = (bits & RenderSnapshot.T_VISIBLE) != 0, exp = (bits & RenderSnapshot.T_EXPLORED) != 0;
 
                 if (!exp) { g2.setColor(Color.BLACK); g2.fillRect(x,y,cellSize,cellSize); continue; }
                 // draw ground/buildings here ...
 
                 if (!vis) {
-                    int d = world.getFogDist(r,c);
-                    int clamped = Math.min(FEATHER, (d == Integer.MAX_VALUE ? FEATHER : d));
+                    int clamped = Math.min(FEATHER, s.fogAt(r, c)); // capture caps "far" at Byte.MAX_VALUE
                     int baseAlpha = ALPHA_MIN + (ALPHA_MAX - ALPHA_MIN) * clamped / FEATHER;
 
                     // soften edge by reducing alpha where nearby sub-samples are visible
-                    double cov = subtileCoverage(world, r, c);   // 0..1 visible around edges
+                    double cov = subtileCoverage(s, r, c);   // 0..1 visible around edges
                     int alpha = (int)Math.round(baseAlpha * (1.0 - 0.55 * cov)); // 55% soften
                     if (alpha <= 0) continue;
 
@@ -1107,10 +1102,10 @@ public class WorldPanel extends JPanel {
 
         if (dragStartWorld != null && dragEndWorld != null) {
             // Convert world->screen by subtracting camera
-            double sx1 = dragStartWorld.x - camX;
-            double sy1 = dragStartWorld.y - camY;
-            double sx2 = dragEndWorld.x   - camX;
-            double sy2 = dragEndWorld.y   - camY;
+            double sx1 = dragStartWorld.x - s.viewX;
+            double sy1 = dragStartWorld.y - s.viewY;
+            double sx2 = dragEndWorld.x   - s.viewX;
+            double sy2 = dragEndWorld.y   - s.viewY;
 
             int x = (int)Math.round(Math.min(sx1, sx2));
             int y = (int)Math.round(Math.min(sy1, sy2));
@@ -1129,28 +1124,11 @@ public class WorldPanel extends JPanel {
         osd.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
         osd.setColor(Color.BLACK);
         osd.setFont(getFont().deriveFont(Font.BOLD, 12f));
-        osd.drawString("FPS: " + currentFps + "  tick: " + String.format("%.2fms", emaTickMs)
-                + "  paint: " + String.format("%.2fms", emaPaintMs), 8, 18);
+        osd.drawString("FPS: " + currentFps + "  tick: " + String.format("%.2fms", s.stepMs)
+                + "  paint: " + String.format("%.2fms", emaPaintMs)
+                + "  los hit: " + String.format("%.0f%%", s.losHitRate * 100), 8, 18);
         osd.dispose();
     }
-    private boolean isUnitCurrentlyVisible(world.World world, characters.Unit u) {
-        int r = u.getRowRounded(), c = u.getColRounded();
-        if (u.getLength() <= 1) return world.isVisible((int)Math.floor(u.getY()), (int)Math.floor(u.getX()));
-
-        // Check footprint cells (you already have footprintCells used in isBlocked)
-        for (int[] cell : world.footprintCells(r, c, u.getFacing(), u.getLength())) {
-            int rr = cell[0], cc = cell[1];
-            if (world.isVisible(rr, cc)) return true;
-        }
-        // Fallback: also check head/tail tiles along orient
-        int hr = (int)Math.floor(u.getY());
-        int hc = (int)Math.floor(u.getX());
-        double ux = Math.cos(u.getOrientRad()), uy = Math.sin(u.getOrientRad());
-        int tr = (int)Math.floor(u.getY() - uy); // one tile behind
-        int tc = (int)Math.floor(u.getX() - ux);
-        return world.isVisible(hr, hc) || world.isVisible(tr, tc);
-    }
-
     public void setCellSize(int newSize) {
         cellSize = Math.max(12, Math.min(newSize, 80));
         setPreferredSize(new Dimension(world.getWidth() * cellSize,
@@ -1193,6 +1171,11 @@ public class WorldPanel extends JPanel {
         int c2 = Math.min(world.getWidth()  - 1, (int)Math.floor(wx2 / cellSize));
         int r2 = Math.min(world.getHeight() - 1, (int)Math.floor(wy2 / cellSize));
 
+        engine.post(() -> selectInRect(r1, c1, r2, c2, tiny, additive));
+    }
+
+    // Sim thread: the selection half of applySelectionFromDragWorld.
+    private void selectInRect(int r1, int c1, int r2, int c2, boolean tiny, boolean additive) {
         if (!additive) for (characters.Unit u : world.getUnits()) u.setSelected(false);
 
         boolean selectedAny = false;
@@ -1210,7 +1193,7 @@ public class WorldPanel extends JPanel {
         updateBuildButtonEnabled();
     }
 
-    // ---------- Fan-out move (no overlapping) ----------
+    // ---------- Fan-out move (no overlapping; sim thread) ----------
 
     private void moveSelectedToFanOut(int targetRow, int targetCol) {
         // 1) collect selected units
@@ -1235,7 +1218,7 @@ public class WorldPanel extends JPanel {
         for (Unit u : selected) {
             int[] dest = findClosestFreeTileAround(targetRow, targetCol, reserved);
             if (dest == null) {
-                statusLabel.setText("No free tile near target.");
+                status("No free tile near target.");
                 continue;
             }
 
@@ -1251,7 +1234,7 @@ public class WorldPanel extends JPanel {
                 }
                 u.setPath(path);
             } else {
-                statusLabel.setText(String.format("No path from (%d,%d) to (%d,%d)", sr, sc, dest[0], dest[1]));
+                status(String.format("No path from (%d,%d) to (%d,%d)", sr, sc, dest[0], dest[1]));
             }
         }
     }